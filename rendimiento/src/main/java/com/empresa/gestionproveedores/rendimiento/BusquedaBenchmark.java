@@ -0,0 +1,59 @@
+package com.empresa.gestionproveedores.rendimiento;
+
+import com.empresa.gestionproveedores.dto.ProductoDTO;
+import com.empresa.gestionproveedores.search.IndiceTexto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda en el índice de productos en memoria, que responde cada pulsación
+ * del buscador de productos y del selector de la orden. Mismo índice que
+ * IndiceCatalogo: nombre y código, con copia de cada resultado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class BusquedaBenchmark {
+
+    @Param({"10000", "100000"})
+    public int productos;
+
+    /** Palabra frecuente, fragmento, dos palabras y código exacto. */
+    @Param({"tornillo", "nillo", "valvula bomba", "PRD-004321"})
+    public String consulta;
+
+    private IndiceTexto<ProductoDTO> indice;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        indice = new IndiceTexto<>(ProductoDTO::getId,
+                List.of(ProductoDTO::getNombre, ProductoDTO::getCodigo), p -> p.toBuilder().build());
+        indice.reemplazarTodo(Fixtures.productos(productos));
+    }
+
+    @Benchmark
+    public List<ProductoDTO> buscarSugerencias() {
+        return indice.buscar(consulta, 15);
+    }
+
+    @Benchmark
+    public List<ProductoDTO> buscarListado() {
+        return indice.buscar(consulta, 500);
+    }
+}
@@ -0,0 +1,110 @@
+package com.empresa.gestionproveedores.rendimiento;
+
+import com.empresa.gestionproveedores.config.JsonCodec;
+import com.empresa.gestionproveedores.dto.ApiResponseDTO;
+import com.empresa.gestionproveedores.dto.OrdenCompraDTO;
+import com.empresa.gestionproveedores.dto.ProductoDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.ParseException;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de convertir el cuerpo de una respuesta del backend en
+ * ApiResponseDTO&lt;List&lt;OrdenCompraDTO&gt;&gt; o ApiResponseDTO&lt;List&lt;ProductoDTO&gt;&gt;
+ * con el ObjectMapper de la aplicación ({@link JsonCodec#crearMapper}).
+ * <ul>
+ *   <li>{@link #textoYParseo}: el camino original de los servicios,
+ *       EntityUtils.toString y readValue(String) con un TypeReference nuevo.</li>
+ *   <li>{@link #flujo}: el de ApiClient, ObjectReader en caché leyendo del
+ *       InputStream de la entidad sin copia intermedia.</li>
+ *   <li>{@link #bytes}: el de AsyncApiClient, que ya recibe el cuerpo entero.</li>
+ * </ul>
+ * Con {@code -prof gc} JMH añade gc.alloc.rate.norm: bytes asignados por operación.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DecodificacionBenchmark {
+
+    private static final TypeReference<ApiResponseDTO<List<OrdenCompraDTO>>> TIPO_ORDENES =
+            new TypeReference<>() {};
+    private static final TypeReference<ApiResponseDTO<List<ProductoDTO>>> TIPO_PRODUCTOS =
+            new TypeReference<>() {};
+
+    @Param({"ordenes", "productos"})
+    public String entidad;
+
+    @Param({"100", "10000", "100000"})
+    public int registros;
+
+    @Param({"true", "false"})
+    public boolean blackbird;
+
+    private ObjectMapper mapper;
+    private ObjectReader lector;
+    private byte[] cuerpo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        mapper = JsonCodec.crearMapper(blackbird);
+        lector = mapper.readerFor(mapper.getTypeFactory().constructType(tipo().getType()));
+        cuerpo = Fixtures.respuesta(entidad, registros, mapper);
+    }
+
+    @Benchmark
+    public Object textoYParseo() throws IOException, ParseException {
+        String json = EntityUtils.toString(respuesta());
+        if (entidad.equals("ordenes")) {
+            return mapper.readValue(json, new TypeReference<ApiResponseDTO<List<OrdenCompraDTO>>>() {});
+        }
+        return mapper.readValue(json, new TypeReference<ApiResponseDTO<List<ProductoDTO>>>() {});
+    }
+
+    @Benchmark
+    public Object flujo() throws IOException {
+        try (InputStream in = respuesta().getContent()) {
+            return lector.readValue(in);
+        }
+    }
+
+    @Benchmark
+    public Object bytes() throws IOException {
+        return lector.readValue(cuerpo);
+    }
+
+    /**
+     * Entidad como la que entrega el cliente HTTP; su creación no copia el array.
+     */
+    private HttpEntity respuesta() {
+        return new ByteArrayEntity(cuerpo, ContentType.APPLICATION_JSON);
+    }
+
+    private TypeReference<?> tipo() {
+        return entidad.equals("ordenes") ? TIPO_ORDENES : TIPO_PRODUCTOS;
+    }
+}
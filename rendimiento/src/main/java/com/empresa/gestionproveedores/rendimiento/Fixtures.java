@@ -0,0 +1,176 @@
+package com.empresa.gestionproveedores.rendimiento;
+
+import com.empresa.gestionproveedores.dto.ApiResponseDTO;
+import com.empresa.gestionproveedores.dto.DetalleOrdenDTO;
+import com.empresa.gestionproveedores.dto.OrdenCompraDTO;
+import com.empresa.gestionproveedores.dto.ProductoDTO;
+import com.empresa.gestionproveedores.dto.ProductoResponseDTO;
+import com.empresa.gestionproveedores.dto.ProveedorDTO;
+import com.empresa.gestionproveedores.dto.ProveedorResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Respuestas del backend generadas con semilla fija: mismo contenido en cada
+ * ejecución sin guardar en el repositorio ficheros de decenas de MB.
+ * Reproducen la forma real: ApiResponseDTO con la lista en data, órdenes con
+ * proveedor anidado y tres líneas de detalle cada una. Los ids son 1..n y las
+ * referencias entre entidades apuntan a ids existentes.
+ */
+public final class Fixtures {
+
+    private static final String[] PALABRAS = {
+            "tornillo", "tuerca", "arandela", "cable", "tubo", "codo", "válvula", "bomba", "filtro",
+            "manguera", "sensor", "motor", "correa", "rodamiento", "brida", "junta", "abrazadera"};
+    private static final String[] ESTADOS = {"PENDIENTE", "APROBADA", "RECIBIDA", "CANCELADA"};
+    private static final String[] UNIDADES = {"UND", "KG", "M", "LT", "CJ"};
+
+    private static final int PROVEEDORES = 500;
+    private static final int PRODUCTOS = 100_000;
+
+    private Fixtures() {
+    }
+
+    public static byte[] respuesta(String entidad, int registros, ObjectMapper mapper) {
+        List<?> datos = switch (entidad) {
+            case "ordenes" -> ordenes(registros);
+            case "productos" -> productos(registros);
+            default -> throw new IllegalArgumentException("Entidad desconocida: " + entidad);
+        };
+        try {
+            return mapper.writeValueAsBytes(ApiResponseDTO.success(datos, "OK"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static List<ProveedorDTO> proveedores(int registros) {
+        Random r = new Random(42);
+        List<ProveedorDTO> proveedores = new ArrayList<>(registros);
+        for (int i = 0; i < registros; i++) {
+            long id = i + 1;
+            proveedores.add(ProveedorDTO.builder()
+                    .id(id)
+                    .ruc(String.format("17%08d001", id))
+                    .razonSocial("Proveedor " + id + " S.A.")
+                    .nombreComercial("Comercial " + id)
+                    .direccion("Av. " + palabra(r) + " " + (r.nextInt(900) + 100))
+                    .telefono(String.format("09%08d", r.nextInt(100_000_000)))
+                    .email("ventas" + id + "@proveedor.example")
+                    .contacto("Contacto " + id)
+                    .activo(r.nextInt(10) > 0)
+                    .fechaRegistro(LocalDateTime.of(2023, 1, 1, 8, 0).plusMinutes(r.nextInt(500_000)))
+                    .build());
+        }
+        return proveedores;
+    }
+
+    public static List<ProductoDTO> productos(int registros) {
+        return productos(registros, PROVEEDORES);
+    }
+
+    /**
+     * @param proveedores los productos se reparten entre los proveedores 1..proveedores
+     */
+    public static List<ProductoDTO> productos(int registros, int proveedores) {
+        Random r = new Random(42);
+        List<ProductoDTO> productos = new ArrayList<>(registros);
+        for (int i = 0; i < registros; i++) {
+            ProductoDTO p = new ProductoDTO();
+            p.setId((long) i + 1);
+            p.setCodigo(String.format("PRD-%06d", i + 1));
+            p.setNombre(palabra(r) + " " + palabra(r) + " " + (r.nextInt(90) + 10) + "mm");
+            p.setDescripcion("Uso industrial, " + palabra(r) + " de " + palabra(r));
+            p.setPrecio(importe(r));
+            p.setUnidadMedida(UNIDADES[r.nextInt(UNIDADES.length)]);
+            p.setActivo(r.nextInt(10) > 0);
+            p.setFechaRegistro(LocalDateTime.of(2024, 1, 1, 8, 0).plusMinutes(r.nextInt(500_000)));
+            p.setProveedorId((long) r.nextInt(proveedores) + 1);
+            p.setProveedorRazonSocial("Proveedor " + p.getProveedorId() + " S.A.");
+            productos.add(p);
+        }
+        return productos;
+    }
+
+    public static List<OrdenCompraDTO> ordenes(int registros) {
+        return ordenes(registros, PROVEEDORES, PRODUCTOS);
+    }
+
+    /**
+     * @param proveedores cada orden es de uno de los proveedores 1..proveedores
+     * @param productos   y sus líneas usan productos 1..productos
+     */
+    public static List<OrdenCompraDTO> ordenes(int registros, int proveedores, int productos) {
+        Random r = new Random(42);
+        List<OrdenCompraDTO> ordenes = new ArrayList<>(registros);
+        for (int i = 0; i < registros; i++) {
+            long proveedorId = r.nextInt(proveedores) + 1;
+            ProveedorResponseDTO proveedor = new ProveedorResponseDTO();
+            proveedor.setId(proveedorId);
+            proveedor.setRuc(String.format("17%08d001", proveedorId));
+            proveedor.setRazonSocial("Proveedor " + proveedorId + " S.A.");
+            proveedor.setNombreComercial("Comercial " + proveedorId);
+            proveedor.setActivo(true);
+
+            OrdenCompraDTO o = new OrdenCompraDTO();
+            o.setId((long) i + 1);
+            o.setNumeroOrden(String.format("OC-%07d", i + 1));
+            o.setFechaOrden(LocalDate.of(2024, 1, 1).plusDays(r.nextInt(700)));
+            o.setEstado(ESTADOS[r.nextInt(ESTADOS.length)]);
+            o.setObservaciones(r.nextBoolean() ? "Entrega en bodega " + (r.nextInt(5) + 1) : null);
+            o.setProveedorId(proveedorId);
+            o.setProveedor(proveedor);
+            o.setFechaRegistro(LocalDateTime.of(2024, 1, 1, 8, 0).plusMinutes(r.nextInt(1_000_000)));
+            o.setFechaActualizacion(o.getFechaRegistro().plusHours(r.nextInt(48)));
+
+            BigDecimal subtotal = BigDecimal.ZERO;
+            List<DetalleOrdenDTO> detalles = new ArrayList<>(3);
+            for (int d = 0; d < 3; d++) {
+                ProductoResponseDTO producto = new ProductoResponseDTO();
+                producto.setId((long) r.nextInt(productos) + 1);
+                producto.setCodigo(String.format("PRD-%06d", producto.getId()));
+                producto.setNombre(palabra(r) + " " + palabra(r));
+                producto.setUnidadMedida(UNIDADES[r.nextInt(UNIDADES.length)]);
+                producto.setPrecio(importe(r));
+                producto.setActivo(true);
+
+                int cantidad = r.nextInt(50) + 1;
+                BigDecimal linea = producto.getPrecio().multiply(BigDecimal.valueOf(cantidad));
+                detalles.add(DetalleOrdenDTO.builder()
+                        .id((long) i * 3 + d + 1)
+                        .cantidad(cantidad)
+                        .precioUnitario(producto.getPrecio())
+                        .subtotal(linea)
+                        .productoId(producto.getId())
+                        .producto(producto)
+                        .ordenCompraId(o.getId())
+                        .build());
+                subtotal = subtotal.add(linea);
+            }
+            BigDecimal iva = subtotal.multiply(new BigDecimal("0.15")).setScale(2, RoundingMode.HALF_UP);
+            o.setDetalles(detalles);
+            o.setSubtotal(subtotal);
+            o.setIva(iva);
+            o.setTotal(subtotal.add(iva));
+            ordenes.add(o);
+        }
+        return ordenes;
+    }
+
+    private static String palabra(Random r) {
+        return PALABRAS[r.nextInt(PALABRAS.length)];
+    }
+
+    private static BigDecimal importe(Random r) {
+        return BigDecimal.valueOf(r.nextInt(1_000_000) + 1, 2);
+    }
+}
@@ -0,0 +1,93 @@
+package com.empresa.gestionproveedores.rendimiento.carga;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Valores que el navegador enviaría al someter un formulario ya renderizado:
+ * inputs (salvo botones y casillas sin marcar), la opción seleccionada de
+ * cada select y el texto de cada textarea. Suficiente para el HTML que
+ * genera PrimeFaces; no pretende ser un parser general.
+ */
+final class CamposFormulario {
+
+    private static final Pattern INPUT = Pattern.compile("<input\\b([^>]*)>");
+    private static final Pattern SELECT = Pattern.compile("<select\\b([^>]*)>(.*?)</select>", Pattern.DOTALL);
+    private static final Pattern OPCION = Pattern.compile("<option\\b([^>]*)>");
+    private static final Pattern TEXTAREA = Pattern.compile("<textarea\\b([^>]*)>(.*?)</textarea>", Pattern.DOTALL);
+    private static final Pattern EDITAR = Pattern.compile("id=\"([^\"]*:btnEditar)\"");
+
+    private CamposFormulario() {
+    }
+
+    static Map<String, String> leer(String html) {
+        Map<String, String> campos = new LinkedHashMap<>();
+        Matcher m = INPUT.matcher(html);
+        while (m.find()) {
+            String atributos = m.group(1);
+            String nombre = atributo(atributos, "name");
+            String tipo = atributo(atributos, "type");
+            if (nombre == null || "submit".equals(tipo) || "button".equals(tipo)
+                    || (("checkbox".equals(tipo) || "radio".equals(tipo)) && !atributos.contains("checked"))) {
+                continue;
+            }
+            String valor = atributo(atributos, "value");
+            campos.put(nombre, valor != null ? valor : "");
+        }
+        m = SELECT.matcher(html);
+        while (m.find()) {
+            String nombre = atributo(m.group(1), "name");
+            if (nombre == null) {
+                continue;
+            }
+            String elegida = null;
+            String primera = null;
+            Matcher opcion = OPCION.matcher(m.group(2));
+            while (opcion.find()) {
+                String valor = atributo(opcion.group(1), "value");
+                if (primera == null) {
+                    primera = valor;
+                }
+                if (opcion.group(1).contains("selected")) {
+                    elegida = valor;
+                    break;
+                }
+            }
+            campos.put(nombre, elegida != null ? elegida : primera != null ? primera : "");
+        }
+        m = TEXTAREA.matcher(html);
+        while (m.find()) {
+            String nombre = atributo(m.group(1), "name");
+            if (nombre != null) {
+                campos.put(nombre, desescapar(m.group(2)));
+            }
+        }
+        return campos;
+    }
+
+    /**
+     * Ids de cliente de los botones "Editar" de las filas, en orden.
+     */
+    static List<String> botonesEditar(String html) {
+        List<String> ids = new ArrayList<>();
+        Matcher m = EDITAR.matcher(html);
+        while (m.find()) {
+            ids.add(m.group(1));
+        }
+        return ids;
+    }
+
+    private static String atributo(String atributos, String nombre) {
+        Matcher m = Pattern.compile("(?:^|\\s)" + nombre + "=\"([^\"]*)\"").matcher(atributos);
+        return m.find() ? desescapar(m.group(1)) : null;
+    }
+
+    private static String desescapar(String texto) {
+        return texto.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&#39;", "'").replace("&#34;", "\"").replace("&amp;", "&");
+    }
+}
@@ -0,0 +1,250 @@
+package com.empresa.gestionproveedores.rendimiento.carga;
+
+import com.empresa.gestionproveedores.rendimiento.stub.Latencia;
+
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Un usuario de compras: inicia sesión y después repite el ciclo de la
+ * pantalla de órdenes. En cada ciclo lista, busca por estado, abre una
+ * orden (prepararEditar), busca un producto del proveedor, añade un detalle
+ * y guarda. Entre paso y paso se detiene el tiempo de reflexión configurado.
+ * <p>
+ * Cada paso es una petición del navegador y se mide por separado. Si un paso
+ * falla, el ciclo se abandona, porque los siguientes dependen de él.
+ */
+final class EscenarioOrdenes {
+
+    static final List<String> PASOS = List.of(
+            "login", "listar", "buscar", "editar", "sugerencias", "agregarDetalle", "guardar");
+
+    private static final String[] ESTADOS = {"", "PENDIENTE", "APROBADA", "RECIBIDA", "CANCELADA"};
+    /** Fragmentos de nombre o código; "PRD" coincide con todos los códigos. */
+    private static final String[] CONSULTAS = {"to", "tu", "ca", "va", "bo", "fi", "se", "mo", "PRD"};
+    private static final Pattern SUGERENCIA = Pattern.compile("data-item-value=\"(\\d+)\"");
+
+    private static final String TABLA = "formOrdenes:tablaOrdenes";
+    private static final String DIALOGO = "formDialogOrden";
+
+    private final SesionJsf sesion;
+    private final Resultados resultados;
+    private final Latencia pausa;
+    private final String usuario;
+    private final String clave;
+    private final Random aleatorio;
+
+    EscenarioOrdenes(SesionJsf sesion, Resultados resultados, Latencia pausa, String usuario, String clave, long semilla) {
+        this.sesion = sesion;
+        this.resultados = resultados;
+        this.pausa = pausa;
+        this.usuario = usuario;
+        this.clave = clave;
+        this.aleatorio = new Random(semilla);
+    }
+
+    /**
+     * AuthBean.login y la redirección al panel principal, siempre con una
+     * sesión nueva.
+     *
+     * @return false si no se pudo iniciar sesión
+     */
+    boolean iniciarSesion() throws InterruptedException {
+        sesion.olvidar();
+        try {
+            paso("login", () -> {
+                sesion.abrir("login.xhtml");
+                RespuestaParcial r = sesion.ajax("loginForm", "loginForm:loginButton", "loginForm",
+                        "loginForm:messages", Map.of("loginForm:username", usuario, "loginForm:password", clave));
+                String destino = r.redireccion();
+                if (destino == null) {
+                    throw new IllegalStateException(motivo(r, "El login no redirigió al panel"));
+                }
+                return sesion.abrir(destino);
+            });
+            return true;
+        } catch (PasoFallido e) {
+            return false;
+        }
+    }
+
+    /**
+     * Un ciclo de la pantalla de órdenes.
+     *
+     * @return false si ni siquiera se pudo abrir el listado (sesión caducada,
+     *         aplicación caída): conviene volver a iniciar sesión
+     */
+    boolean recorrer() throws InterruptedException {
+        try {
+            cicloOrdenes();
+            return true;
+        } catch (PasoFallido e) {
+            // Ya registrado; el siguiente ciclo empieza por el listado
+            return !"listar".equals(e.paso);
+        }
+    }
+
+    private void cicloOrdenes() throws PasoFallido, InterruptedException {
+        paso("listar", () -> {
+            String html = sesion.abrir("ordenes/listar.xhtml");
+            if (!html.contains("id=\"" + TABLA + "\"")) {
+                throw new IllegalStateException("La página no muestra la tabla de órdenes");
+            }
+            return html;
+        });
+        pensar();
+
+        String estado = ESTADOS[aleatorio.nextInt(ESTADOS.length)];
+        String tabla = paso("buscar", () -> {
+            RespuestaParcial r = sesion.ajax("formOrdenes", "formOrdenes:btnBuscar",
+                    "formOrdenes:btnBuscar formOrdenes:estadoFiltro formOrdenes:inicio formOrdenes:fin",
+                    TABLA + " formOrdenes:exportar formOrdenes:growl",
+                    Map.of("formOrdenes:estadoFiltro_input", estado,
+                            "formOrdenes:inicio_input", "",
+                            "formOrdenes:fin_input", ""));
+            return actualizado(r, TABLA);
+        });
+        List<String> filas = CamposFormulario.botonesEditar(tabla);
+        if (filas.isEmpty()) {
+            // Ninguna orden con ese estado: el usuario vuelve a empezar
+            return;
+        }
+        pensar();
+
+        String boton = filas.get(aleatorio.nextInt(filas.size()));
+        String dialogo = paso("editar", () -> {
+            RespuestaParcial r = sesion.ajax("formOrdenes", boton, boton, DIALOGO, Map.of());
+            return actualizado(r, DIALOGO);
+        });
+        // El formulario completo, como lo envía el navegador al guardar (process="@form")
+        Map<String, String> campos = CamposFormulario.leer(dialogo);
+        String proveedor = campos.get(DIALOGO + ":proveedor_input");
+        if (proveedor == null || proveedor.isEmpty()) {
+            // Orden de un proveedor inactivo: el selector no lo ofrece y no se puede guardar
+            return;
+        }
+        pensar();
+
+        List<String> productos = paso("sugerencias", () -> {
+            List<String> ids = sugerencias(CONSULTAS[aleatorio.nextInt(CONSULTAS.length)]);
+            return ids.isEmpty() ? sugerencias("PRD") : ids;
+        });
+        pensar();
+
+        if (!productos.isEmpty()) {
+            String producto = productos.get(aleatorio.nextInt(productos.size()));
+            String cantidad = String.valueOf(aleatorio.nextInt(20) + 1);
+            paso("agregarDetalle", () -> {
+                RespuestaParcial r = sesion.ajax(DIALOGO, DIALOGO + ":btnAgregarDetalle",
+                        DIALOGO + ":btnAgregarDetalle " + DIALOGO + ":detProd " + DIALOGO + ":detCant",
+                        DIALOGO + ":tablaDetalles " + DIALOGO + ":totales " + DIALOGO + ":dialogMessages",
+                        Map.of(DIALOGO + ":detProd_input", "",
+                                DIALOGO + ":detProd_hinput", producto,
+                                DIALOGO + ":detCant_input", cantidad,
+                                DIALOGO + ":detCant_hinput", cantidad));
+                return sinFallos(r);
+            });
+            pensar();
+        }
+
+        // Tras agregar el detalle, el selector de producto queda vacío
+        campos.put(DIALOGO + ":detProd_input", "");
+        campos.put(DIALOGO + ":detProd_hinput", "");
+        campos.put(DIALOGO + ":detCant_input", "");
+        campos.put(DIALOGO + ":detCant_hinput", "");
+        campos.put(DIALOGO + ":obs", "Prueba de carga");
+        paso("guardar", () -> {
+            RespuestaParcial r = sesion.ajax(DIALOGO, DIALOGO + ":btnGuardar", DIALOGO,
+                    DIALOGO + ":dialogMessages " + TABLA + " formOrdenes:growl", campos);
+            sinFallos(r);
+            if (!r.cuerpo().contains("PF('dlgOrden').hide()")) {
+                throw new IllegalStateException("El diálogo no se cerró tras guardar");
+            }
+            return r;
+        });
+        pensar();
+    }
+
+    private List<String> sugerencias(String consulta) throws Exception {
+        RespuestaParcial r = sesion.ajax(DIALOGO, DIALOGO + ":detProd", DIALOGO + ":detProd", DIALOGO + ":detProd",
+                "query", Map.of(DIALOGO + ":detProd_query", consulta));
+        List<String> ids = new ArrayList<>();
+        Matcher m = SUGERENCIA.matcher(r.cuerpo());
+        while (m.find()) {
+            ids.add(m.group(1));
+        }
+        return ids;
+    }
+
+    private static String actualizado(RespuestaParcial r, String id) {
+        sinFallos(r);
+        String html = r.actualizacion(id);
+        if (html == null) {
+            throw new IllegalStateException("La respuesta no actualiza " + id);
+        }
+        return html;
+    }
+
+    private static RespuestaParcial sinFallos(RespuestaParcial r) {
+        if (r.validacionFallida() || r.mensajeDeFallo() != null) {
+            throw new IllegalStateException(motivo(r, "Validación fallida"));
+        }
+        return r;
+    }
+
+    private static String motivo(RespuestaParcial r, String porDefecto) {
+        String mensaje = r.mensajeDeFallo();
+        return mensaje != null ? mensaje : porDefecto;
+    }
+
+    private void pensar() throws InterruptedException {
+        long ms = pausa.muestraMs();
+        if (ms > 0) {
+            Thread.sleep(ms);
+        }
+    }
+
+    private <T> T paso(String nombre, Accion<T> accion) throws PasoFallido, InterruptedException {
+        long inicio = System.nanoTime();
+        try {
+            T resultado = accion.ejecutar();
+            resultados.registrar(nombre, System.nanoTime() - inicio);
+            return resultado;
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            resultados.registrarError(nombre, describir(e));
+            throw new PasoFallido(nombre);
+        }
+    }
+
+    private static String describir(Exception e) {
+        String mensaje = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        if (e instanceof HttpTimeoutException) {
+            mensaje = "Tiempo de espera agotado";
+        }
+        return mensaje.length() > 120 ? mensaje.substring(0, 120) + "…" : mensaje;
+    }
+
+    @FunctionalInterface
+    private interface Accion<T> {
+        T ejecutar() throws Exception;
+    }
+
+    private static final class PasoFallido extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String paso;
+
+        PasoFallido(String paso) {
+            super(paso, null, false, false);
+            this.paso = paso;
+        }
+    }
+}
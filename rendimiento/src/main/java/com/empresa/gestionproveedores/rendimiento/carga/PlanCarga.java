@@ -0,0 +1,92 @@
+package com.empresa.gestionproveedores.rendimiento.carga;
+
+import com.empresa.gestionproveedores.rendimiento.stub.Latencia;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parámetros de una ejecución de la prueba de carga.
+ *
+ * @param url            URL de la aplicación desplegada
+ * @param usuarios       usuarios virtuales simultáneos
+ * @param rampa          tiempo en que se van incorporando todos los usuarios
+ * @param calentamiento  tiempo inicial que no se mide (JIT, cachés, pool de conexiones)
+ * @param duracion       tiempo medido, después del calentamiento
+ * @param pausa          tiempo de reflexión entre pasos de un usuario
+ * @param presupuestos   fichero de presupuestos, o null para los incluidos en el JAR
+ * @param informe        CSV donde guardar el resumen, o null
+ * @param argumentosSimulado si no es null, se arranca el backend simulado con
+ *                       estas opciones antes de empezar
+ */
+record PlanCarga(URI url, int usuarios, Duration rampa, Duration calentamiento, Duration duracion,
+                 Latencia pausa, String usuario, String clave, Path presupuestos, Path informe,
+                 List<String> argumentosSimulado) {
+
+    /**
+     * Lee opciones {@code --clave=valor}: url, usuarios, rampa, calentamiento,
+     * duracion (en s, o con sufijo s/m), pausa (como una latencia del simulado),
+     * usuario, clave, presupuestos e informe. Con {@code --simulado} se arranca
+     * también el backend simulado; las opciones {@code --simulado-X=v} le llegan
+     * como {@code --X=v}.
+     */
+    static PlanCarga desdeArgumentos(String... argumentos) {
+        String url = "http://localhost:8080/gestion-proveedores/";
+        int usuarios = 200;
+        Duration rampa = Duration.ofSeconds(30);
+        Duration calentamiento = Duration.ofSeconds(30);
+        Duration duracion = Duration.ofMinutes(2);
+        Latencia pausa = Latencia.parse("uniforme:500:1500");
+        String usuario = "admin";
+        String clave = "admin123";
+        Path presupuestos = null;
+        Path informe = null;
+        List<String> simulado = null;
+
+        for (String argumento : argumentos) {
+            if (argumento.equals("--simulado")) {
+                simulado = simulado != null ? simulado : new ArrayList<>();
+                continue;
+            }
+            int igual = argumento.indexOf('=');
+            if (!argumento.startsWith("--") || igual < 0) {
+                throw new IllegalArgumentException("Se esperaba --clave=valor: " + argumento);
+            }
+            String nombre = argumento.substring(2, igual);
+            String valor = argumento.substring(igual + 1);
+            if (nombre.startsWith("simulado-")) {
+                simulado = simulado != null ? simulado : new ArrayList<>();
+                simulado.add("--" + nombre.substring("simulado-".length()) + "=" + valor);
+                continue;
+            }
+            switch (nombre) {
+                case "url" -> url = valor.endsWith("/") ? valor : valor + "/";
+                case "usuarios" -> usuarios = Integer.parseInt(valor);
+                case "rampa" -> rampa = duracion(valor);
+                case "calentamiento" -> calentamiento = duracion(valor);
+                case "duracion" -> duracion = duracion(valor);
+                case "pausa" -> pausa = Latencia.parse(valor);
+                case "usuario" -> usuario = valor;
+                case "clave" -> clave = valor;
+                case "presupuestos" -> presupuestos = Path.of(valor);
+                case "informe" -> informe = Path.of(valor);
+                default -> throw new IllegalArgumentException("Opción desconocida: --" + nombre);
+            }
+        }
+        if (usuarios < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un usuario");
+        }
+        return new PlanCarga(URI.create(url), usuarios, rampa, calentamiento, duracion, pausa,
+                usuario, clave, presupuestos, informe, simulado);
+    }
+
+    private static Duration duracion(String valor) {
+        if (valor.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(valor.substring(0, valor.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(valor.endsWith("s") ? valor.substring(0, valor.length() - 1) : valor));
+    }
+}
@@ -0,0 +1,106 @@
+package com.empresa.gestionproveedores.rendimiento.carga;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Límites que una prueba de carga no debe superar, en formato properties:
+ * <pre>
+ * listar.p95=1500
+ * guardar.p99=3000
+ * guardar.errores=0.01
+ * errores=0.01
+ * </pre>
+ * Los percentiles (p50, p95, p99) van en milisegundos. Los errores son la
+ * fracción de ejecuciones fallidas del paso. La clave {@code errores} sola
+ * se aplica a los pasos sin límite propio. Un paso sin límites no puede
+ * incumplir nada.
+ */
+final class Presupuestos {
+
+    private static final String[] PERCENTILES = {"p50", "p95", "p99"};
+
+    private final Properties limites;
+
+    private Presupuestos(Properties limites) {
+        this.limites = limites;
+    }
+
+    /**
+     * @param ruta fichero de presupuestos, o null para los del JAR
+     *             (presupuestos.properties)
+     */
+    static Presupuestos cargar(Path ruta) {
+        Properties limites = new Properties();
+        try {
+            if (ruta != null) {
+                try (Reader lector = Files.newBufferedReader(ruta, StandardCharsets.UTF_8)) {
+                    limites.load(lector);
+                }
+            } else {
+                try (InputStream in = Presupuestos.class.getResourceAsStream("/presupuestos.properties")) {
+                    if (in == null) {
+                        throw new IOException("No se encontró presupuestos.properties en el classpath");
+                    }
+                    limites.load(in);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Presupuestos(limites);
+    }
+
+    /**
+     * @return una línea por límite superado; vacía si se cumplen todos
+     */
+    List<String> incumplidos(List<Resultados.Resumen> resumen) {
+        List<String> incumplidos = new ArrayList<>();
+        for (Resultados.Resumen r : resumen) {
+            double[] valores = {r.p50(), r.p95(), r.p99()};
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                Double limite = limite(r.paso() + "." + PERCENTILES[i]);
+                if (limite == null) {
+                    continue;
+                }
+                if (r.muestras() == 0) {
+                    incumplidos.add(String.format(Locale.ROOT, "%s: sin muestras para comprobar %s <= %.0f ms",
+                            r.paso(), PERCENTILES[i], limite));
+                } else if (valores[i] > limite) {
+                    incumplidos.add(String.format(Locale.ROOT, "%s: %s = %.0f ms > %.0f ms",
+                            r.paso(), PERCENTILES[i], valores[i], limite));
+                }
+            }
+            Double maxErrores = limite(r.paso() + ".errores");
+            if (maxErrores == null) {
+                maxErrores = limite("errores");
+            }
+            if (maxErrores != null && r.tasaError() > maxErrores) {
+                incumplidos.add(String.format(Locale.ROOT, "%s: errores = %.2f %% > %.2f %%",
+                        r.paso(), r.tasaError() * 100, maxErrores * 100));
+            }
+        }
+        return incumplidos;
+    }
+
+    private Double limite(String clave) {
+        String valor = limites.getProperty(clave);
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return Double.valueOf(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Presupuesto no numérico: " + clave + "=" + valor, e);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.empresa.gestionproveedores.rendimiento.carga;
+
+import com.empresa.gestionproveedores.rendimiento.stub.BackendSimulado;
+import com.empresa.gestionproveedores.rendimiento.stub.ConfiguracionSimulada;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prueba de carga de extremo a extremo sobre la aplicación desplegada:
+ * cientos de usuarios virtuales (un hilo virtual cada uno) recorren
+ * {@link EscenarioOrdenes} y al final se comparan p50/p95/p99 de cada paso
+ * con los presupuestos.
+ * <p>
+ * Código de salida: 0 si se cumplen todos los presupuestos, 1 si alguno se
+ * supera y 2 si los parámetros no son válidos. Así se puede usar tal cual
+ * como paso de integración continua.
+ * <p>
+ * Uso: {@code java -cp target/benchmarks.jar
+ * com.empresa.gestionproveedores.rendimiento.carga.PruebaCarga --usuarios=300 --duracion=5m --simulado}
+ */
+public final class PruebaCarga {
+
+    private static final Duration INTERVALO_PROGRESO = Duration.ofSeconds(10);
+    /** Ciclos antes de cerrar el navegador y volver a entrar, para que el login también se mida. */
+    private static final int CICLOS_POR_SESION = 5;
+
+    private PruebaCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        PlanCarga plan;
+        Presupuestos presupuestos;
+        try {
+            plan = PlanCarga.desdeArgumentos(args);
+            presupuestos = Presupuestos.cargar(plan.presupuestos());
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        BackendSimulado simulado = null;
+        if (plan.argumentosSimulado() != null) {
+            simulado = BackendSimulado.iniciar(
+                    ConfiguracionSimulada.desdeArgumentos(plan.argumentosSimulado().toArray(String[]::new)));
+            System.out.println("Backend simulado en " + simulado.getUrlBase()
+                    + " (la aplicación debe usarlo como api.base.url)");
+        }
+        int codigo;
+        try {
+            codigo = ejecutar(plan, presupuestos);
+        } finally {
+            if (simulado != null) {
+                simulado.close();
+            }
+        }
+        System.exit(codigo);
+    }
+
+    static int ejecutar(PlanCarga plan, Presupuestos presupuestos) throws InterruptedException, IOException {
+        System.out.printf("%d usuarios contra %s: rampa %d s, calentamiento %d s, medición %d s, pausa %s%n",
+                plan.usuarios(), plan.url(), plan.rampa().toSeconds(), plan.calentamiento().toSeconds(),
+                plan.duracion().toSeconds(), plan.pausa());
+
+        Resultados resultados = new Resultados(EscenarioOrdenes.PASOS);
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        AtomicInteger activos = new AtomicInteger();
+
+        long inicio = System.nanoTime();
+        long finCalentamiento = inicio + plan.calentamiento().toNanos();
+        long fin = finCalentamiento + plan.duracion().toNanos();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < plan.usuarios(); i++) {
+                long arranque = inicio + plan.rampa().toNanos() * i / plan.usuarios();
+                EscenarioOrdenes escenario = new EscenarioOrdenes(new SesionJsf(http, plan.url()), resultados,
+                        plan.pausa(), plan.usuario(), plan.clave(), i);
+                hilos.submit(() -> {
+                    esperarHasta(arranque);
+                    activos.incrementAndGet();
+                    try {
+                        usuario(escenario, fin);
+                    } finally {
+                        activos.decrementAndGet();
+                    }
+                    return null;
+                });
+            }
+
+            boolean midiendo = false;
+            long anteriores = 0;
+            long instanteAnterior = inicio;
+            while (System.nanoTime() < fin) {
+                long siguiente = Math.min(fin, System.nanoTime() + INTERVALO_PROGRESO.toNanos());
+                if (!midiendo) {
+                    siguiente = Math.min(siguiente, finCalentamiento);
+                }
+                esperarHasta(siguiente);
+                if (!midiendo && System.nanoTime() >= finCalentamiento) {
+                    resultados.empezarMedicion();
+                    midiendo = true;
+                }
+                long ahora = System.nanoTime();
+                long completados = resultados.getCompletados();
+                System.out.printf("[%4d s] %s usuarios %d, pasos %d (%.0f/s), errores %d%n",
+                        TimeUnit.NANOSECONDS.toSeconds(ahora - inicio),
+                        midiendo ? "midiendo     " : "calentamiento", activos.get(), completados,
+                        (completados - anteriores) * 1e9 / Math.max(1, ahora - instanteAnterior),
+                        resultados.getErrores());
+                anteriores = completados;
+                instanteAnterior = ahora;
+            }
+            System.out.println("Esperando a que terminen las peticiones en curso...");
+        }
+
+        List<Resultados.Resumen> resumen = resultados.resumen();
+        imprimir(resumen, plan.duracion());
+        List<Map.Entry<String, Long>> motivos = resultados.motivosFrecuentes(10);
+        if (!motivos.isEmpty()) {
+            System.out.println();
+            System.out.println("Errores más frecuentes:");
+            motivos.forEach(m -> System.out.printf("  %6d  %s%n", m.getValue(), m.getKey()));
+        }
+        if (plan.informe() != null) {
+            guardar(resumen, plan);
+        }
+
+        List<String> incumplidos = presupuestos.incumplidos(resumen);
+        System.out.println();
+        if (incumplidos.isEmpty()) {
+            System.out.println("Presupuestos: todos cumplidos");
+            return 0;
+        }
+        System.out.println("Presupuestos superados:");
+        incumplidos.forEach(i -> System.out.println("  " + i));
+        return 1;
+    }
+
+    /**
+     * Inicia sesión y repite el ciclo hasta el final. Vuelve a entrar cada
+     * {@link #CICLOS_POR_SESION} ciclos o cuando pierde la sesión.
+     */
+    private static void usuario(EscenarioOrdenes escenario, long fin) throws InterruptedException {
+        while (System.nanoTime() < fin) {
+            if (!escenario.iniciarSesion()) {
+                Thread.sleep(1000);
+                continue;
+            }
+            for (int ciclo = 0; ciclo < CICLOS_POR_SESION && System.nanoTime() < fin; ciclo++) {
+                if (!escenario.recorrer()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private static void imprimir(List<Resultados.Resumen> resumen, Duration duracion) {
+        System.out.println();
+        System.out.printf("%-16s %9s %8s %9s %9s %9s %9s %9s %8s%n",
+                "Paso", "Muestras", "Errores", "p50 ms", "p95 ms", "p99 ms", "máx ms", "media ms", "por s");
+        for (Resultados.Resumen r : resumen) {
+            System.out.printf(Locale.ROOT, "%-16s %9d %8d %9.1f %9.1f %9.1f %9.1f %9.1f %8.1f%n",
+                    r.paso(), r.muestras(), r.errores(), r.p50(), r.p95(), r.p99(), r.maximo(), r.media(),
+                    r.muestras() / (double) Math.max(1, duracion.toSeconds()));
+        }
+    }
+
+    private static void guardar(List<Resultados.Resumen> resumen, PlanCarga plan) throws IOException {
+        try (PrintWriter salida = new PrintWriter(Files.newBufferedWriter(plan.informe(), StandardCharsets.UTF_8))) {
+            salida.println("paso,usuarios,muestras,errores,p50_ms,p95_ms,p99_ms,max_ms,media_ms");
+            for (Resultados.Resumen r : resumen) {
+                salida.printf(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.1f,%.1f,%.1f,%.1f%n", r.paso(), plan.usuarios(),
+                        r.muestras(), r.errores(), r.p50(), r.p95(), r.p99(), r.maximo(), r.media());
+            }
+        }
+        System.out.println("Resumen guardado en " + plan.informe());
+    }
+
+    private static void esperarHasta(long nanos) throws InterruptedException {
+        long restante = nanos - System.nanoTime();
+        if (restante > 0) {
+            TimeUnit.NANOSECONDS.sleep(restante);
+        }
+    }
+}
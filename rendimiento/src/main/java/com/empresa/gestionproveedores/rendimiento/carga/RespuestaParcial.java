@@ -0,0 +1,66 @@
+package com.empresa.gestionproveedores.rendimiento.carga;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Respuesta de una petición parcial JSF ({@code <partial-response>}): los
+ * fragmentos actualizados, el error del servidor si lo hubo, la redirección
+ * y lo que PrimeFaces añade (validationFailed, scripts a evaluar).
+ */
+record RespuestaParcial(String cuerpo) {
+
+    private static final Pattern ERROR = Pattern.compile(
+            "<error><error-name>([^<]*)</error-name><error-message><!\\[CDATA\\[(.*?)]]></error-message>", Pattern.DOTALL);
+    private static final Pattern REDIRECCION = Pattern.compile("<redirect url=\"([^\"]*)\"");
+    private static final Pattern VIEW_STATE = Pattern.compile(
+            "<update id=\"[^\"]*jakarta\\.faces\\.ViewState[^\"]*\"><!\\[CDATA\\[(.*?)]]></update>", Pattern.DOTALL);
+    private static final Pattern MENSAJE = Pattern.compile("ui-messages-(?:warn|error)-summary\">([^<]*)<"
+            + "(?:/span>\\s*<span class=\"ui-messages-(?:warn|error)-detail\"[^>]*>([^<]*)<)?");
+    private static final Pattern MENSAJE_GROWL = Pattern.compile(
+            "\\{summary:\"([^\"]*)\",detail:\"([^\"]*)\",severity:'(?:warn|error|fatal)'");
+
+    /**
+     * @return "clase: mensaje" del error del servidor, o null
+     */
+    String error() {
+        Matcher m = ERROR.matcher(cuerpo);
+        return m.find() ? m.group(1) + ": " + m.group(2) : null;
+    }
+
+    String redireccion() {
+        Matcher m = REDIRECCION.matcher(cuerpo);
+        return m.find() ? m.group(1).replace("&amp;", "&") : null;
+    }
+
+    String viewState() {
+        Matcher m = VIEW_STATE.matcher(cuerpo);
+        return m.find() ? m.group(1) : null;
+    }
+
+    boolean validacionFallida() {
+        return cuerpo.contains("&#34;validationFailed&#34;:true") || cuerpo.contains("\"validationFailed\":true");
+    }
+
+    /**
+     * HTML del componente actualizado, o null si la respuesta no lo incluye.
+     */
+    String actualizacion(String id) {
+        Matcher m = Pattern.compile("<update id=\"" + Pattern.quote(id) + "\"><!\\[CDATA\\[(.*?)]]></update>",
+                Pattern.DOTALL).matcher(cuerpo);
+        return m.find() ? m.group(1) : null;
+    }
+
+    /**
+     * Primer mensaje de advertencia o error mostrado (p:messages o p:growl), o
+     * null si solo hay mensajes informativos.
+     */
+    String mensajeDeFallo() {
+        Matcher m = MENSAJE.matcher(cuerpo);
+        if (m.find()) {
+            return m.group(2) != null ? m.group(1) + " " + m.group(2) : m.group(1);
+        }
+        m = MENSAJE_GROWL.matcher(cuerpo);
+        return m.find() ? m.group(1) + " " + m.group(2) : null;
+    }
+}
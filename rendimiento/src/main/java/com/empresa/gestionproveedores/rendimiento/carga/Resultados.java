@@ -0,0 +1,136 @@
+package com.empresa.gestionproveedores.rendimiento.carga;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Duraciones y errores de cada paso de los flujos. Guarda todas las muestras
+ * (unos pocos cientos de miles en una prueba larga) para dar percentiles
+ * exactos: las cubetas de metrics.Histogram son demasiado gruesas para
+ * comparar presupuestos de unos cientos de milisegundos.
+ * <p>
+ * Durante el calentamiento no se registra nada; {@link #empezarMedicion()}
+ * marca el final.
+ */
+final class Resultados {
+
+    /**
+     * Estadísticas de un paso, en milisegundos.
+     */
+    record Resumen(String paso, int muestras, long errores, double p50, double p95, double p99,
+                   double maximo, double media) {
+
+        double tasaError() {
+            long total = muestras + errores;
+            return total == 0 ? 0 : (double) errores / total;
+        }
+    }
+
+    private final Map<String, Muestras> pasos = new LinkedHashMap<>();
+    private final Map<String, LongAdder> motivos = new ConcurrentHashMap<>();
+    private final LongAdder completados = new LongAdder();
+    private volatile boolean midiendo;
+
+    /**
+     * @param pasos nombres de los pasos, en el orden del informe
+     */
+    Resultados(List<String> pasos) {
+        pasos.forEach(paso -> this.pasos.put(paso, new Muestras()));
+    }
+
+    void empezarMedicion() {
+        midiendo = true;
+    }
+
+    void registrar(String paso, long nanos) {
+        completados.increment();
+        if (midiendo) {
+            muestras(paso).agregar(nanos);
+        }
+    }
+
+    void registrarError(String paso, String motivo) {
+        if (midiendo) {
+            muestras(paso).errores.increment();
+            motivos.computeIfAbsent(paso + ": " + motivo, k -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Pasos terminados desde el arranque, con o sin calentamiento.
+     */
+    long getCompletados() {
+        return completados.sum();
+    }
+
+    long getErrores() {
+        return pasos.values().stream().mapToLong(m -> m.errores.sum()).sum();
+    }
+
+    List<Resumen> resumen() {
+        List<Resumen> resumen = new ArrayList<>();
+        pasos.forEach((paso, muestras) -> resumen.add(muestras.resumir(paso)));
+        return resumen;
+    }
+
+    /**
+     * Motivos de error más frecuentes, de más a menos.
+     */
+    List<Map.Entry<String, Long>> motivosFrecuentes(int maximo) {
+        List<Map.Entry<String, Long>> lista = new ArrayList<>();
+        motivos.forEach((motivo, n) -> lista.add(Map.entry(motivo, n.sum())));
+        lista.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+        return lista.subList(0, Math.min(maximo, lista.size()));
+    }
+
+    private Muestras muestras(String paso) {
+        Muestras muestras = pasos.get(paso);
+        if (muestras == null) {
+            throw new IllegalArgumentException("Paso no declarado: " + paso);
+        }
+        return muestras;
+    }
+
+    private static final class Muestras {
+
+        private long[] nanos = new long[1024];
+        private int n;
+        private final LongAdder errores = new LongAdder();
+
+        synchronized void agregar(long duracion) {
+            if (n == nanos.length) {
+                nanos = Arrays.copyOf(nanos, n * 2);
+            }
+            nanos[n++] = duracion;
+        }
+
+        Resumen resumir(String paso) {
+            long[] ordenadas;
+            synchronized (this) {
+                ordenadas = Arrays.copyOf(nanos, n);
+            }
+            Arrays.sort(ordenadas);
+            if (ordenadas.length == 0) {
+                return new Resumen(paso, 0, errores.sum(), Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+            }
+            double media = Arrays.stream(ordenadas).average().orElse(0) / 1e6;
+            return new Resumen(paso, ordenadas.length, errores.sum(),
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.95), percentil(ordenadas, 0.99),
+                    ordenadas[ordenadas.length - 1] / 1e6, media);
+        }
+
+        /**
+         * Rango más cercano: el menor valor con al menos q·n muestras a su izquierda o en él.
+         */
+        private static double percentil(long[] ordenadas, double q) {
+            int rango = (int) Math.ceil(q * ordenadas.length);
+            return ordenadas[Math.max(0, rango - 1)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.empresa.gestionproveedores.rendimiento.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lo que hace el navegador de un usuario, al nivel del protocolo: guarda la
+ * cookie de sesión y el ViewState de la página abierta, y envía las mismas
+ * peticiones parciales que PrimeFaces al pulsar un botón. Así la carga pasa
+ * por las fases JSF, los beans y los servicios reales, no solo por la API.
+ */
+final class SesionJsf {
+
+    private static final Pattern VIEW_STATE =
+            Pattern.compile("name=\"jakarta\\.faces\\.ViewState\"[^>]*value=\"([^\"]*)\"");
+    private static final Pattern COOKIE_SESION = Pattern.compile("^(JSESSIONID=[^;]+)");
+    private static final int MAX_REDIRECCIONES = 5;
+    private static final Duration PLAZO = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final URI base;
+    private String cookie;
+    private URI pagina;
+    private String viewState;
+
+    /**
+     * @param base URL de la aplicación terminada en '/', p. ej. http://localhost:8080/gestion-proveedores/
+     */
+    SesionJsf(HttpClient http, URI base) {
+        this.http = http;
+        this.base = base;
+    }
+
+    /**
+     * Olvida la cookie y la página actual, como un navegador nuevo. La sesión
+     * del servidor se queda hasta que caduca, igual que cuando el usuario
+     * cierra la pestaña.
+     */
+    void olvidar() {
+        cookie = null;
+        pagina = null;
+        viewState = null;
+    }
+
+    /**
+     * GET de una página siguiendo las redirecciones, como al navegar. La página
+     * final pasa a ser la actual y de ella se toma el ViewState.
+     *
+     * @return HTML de la página final
+     */
+    String abrir(String ruta) throws IOException, InterruptedException {
+        URI destino = base.resolve(ruta);
+        for (int i = 0; i <= MAX_REDIRECCIONES; i++) {
+            HttpResponse<String> respuesta = enviar(HttpRequest.newBuilder(destino).GET());
+            String ubicacion = respuesta.headers().firstValue("Location").orElse(null);
+            if (respuesta.statusCode() / 100 == 3 && ubicacion != null) {
+                destino = destino.resolve(ubicacion);
+                continue;
+            }
+            comprobarEstado(respuesta);
+            pagina = destino;
+            Matcher m = VIEW_STATE.matcher(respuesta.body());
+            viewState = m.find() ? m.group(1) : null;
+            return respuesta.body();
+        }
+        throw new IOException("Demasiadas redirecciones desde " + ruta);
+    }
+
+    /**
+     * Petición parcial sobre la página actual, con los mismos parámetros que
+     * PrimeFaces.ab: origen, componentes a procesar y a renderizar, el botón
+     * pulsado, el formulario y sus campos.
+     *
+     * @param formulario id del formulario que contiene el origen
+     * @param campos     valores enviados; el resto de campos del formulario no viaja
+     */
+    RespuestaParcial ajax(String formulario, String origen, String procesar, String renderizar,
+                          Map<String, String> campos) throws IOException, InterruptedException {
+        return ajax(formulario, origen, procesar, renderizar, null, campos);
+    }
+
+    /**
+     * @param evento evento de comportamiento (p. ej. "query" del autoComplete),
+     *               o null para la acción del botón
+     */
+    RespuestaParcial ajax(String formulario, String origen, String procesar, String renderizar, String evento,
+                          Map<String, String> campos) throws IOException, InterruptedException {
+        if (pagina == null || viewState == null) {
+            throw new IllegalStateException("No hay página JSF abierta");
+        }
+        Map<String, String> parametros = new LinkedHashMap<>();
+        parametros.put("jakarta.faces.partial.ajax", "true");
+        parametros.put("jakarta.faces.source", origen);
+        parametros.put("jakarta.faces.partial.execute", procesar);
+        parametros.put("jakarta.faces.partial.render", renderizar);
+        if (evento != null) {
+            parametros.put("jakarta.faces.behavior.event", evento);
+            parametros.put("jakarta.faces.partial.event", evento);
+        } else {
+            parametros.put(origen, origen);
+        }
+        parametros.put(formulario, formulario);
+        parametros.putAll(campos);
+        parametros.put("jakarta.faces.ViewState", viewState);
+
+        HttpResponse<String> respuesta = enviar(HttpRequest.newBuilder(pagina)
+                .header("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8")
+                .header("Faces-Request", "partial/ajax")
+                .header("X-Requested-With", "XMLHttpRequest")
+                .POST(HttpRequest.BodyPublishers.ofString(codificar(parametros))));
+        comprobarEstado(respuesta);
+        RespuestaParcial parcial = new RespuestaParcial(respuesta.body());
+        String error = parcial.error();
+        if (error != null) {
+            throw new IllegalStateException(error);
+        }
+        String nuevoViewState = parcial.viewState();
+        if (nuevoViewState != null) {
+            viewState = nuevoViewState;
+        }
+        return parcial;
+    }
+
+    private HttpResponse<String> enviar(HttpRequest.Builder peticion) throws IOException, InterruptedException {
+        peticion.timeout(PLAZO);
+        if (cookie != null) {
+            peticion.header("Cookie", cookie);
+        }
+        HttpResponse<String> respuesta = http.send(peticion.build(), HttpResponse.BodyHandlers.ofString());
+        for (String valor : respuesta.headers().allValues("Set-Cookie")) {
+            Matcher m = COOKIE_SESION.matcher(valor);
+            if (m.find()) {
+                cookie = m.group(1);
+            }
+        }
+        return respuesta;
+    }
+
+    private static void comprobarEstado(HttpResponse<String> respuesta) throws IOException {
+        if (respuesta.statusCode() != 200) {
+            throw new IOException("HTTP " + respuesta.statusCode() + " en " + respuesta.uri().getPath());
+        }
+    }
+
+    private static String codificar(Map<String, String> parametros) {
+        StringJoiner cuerpo = new StringJoiner("&");
+        parametros.forEach((clave, valor) -> cuerpo.add(URLEncoder.encode(clave, StandardCharsets.UTF_8) + "="
+                + URLEncoder.encode(valor != null ? valor : "", StandardCharsets.UTF_8)));
+        return cuerpo.toString();
+    }
+}
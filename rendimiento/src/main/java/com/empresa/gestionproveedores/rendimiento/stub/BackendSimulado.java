@@ -0,0 +1,324 @@
+package com.empresa.gestionproveedores.rendimiento.stub;
+
+import com.empresa.gestionproveedores.config.JsonCodec;
+import com.empresa.gestionproveedores.dto.ApiResponseDTO;
+import com.empresa.gestionproveedores.dto.OrdenCompraDTO;
+import com.empresa.gestionproveedores.dto.ProductoDTO;
+import com.empresa.gestionproveedores.dto.ProveedorDTO;
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Backend falso con el mismo contrato REST que el real (/api/proveedores,
+ * /api/productos, /api/ordenes-compra), para medir el frontend en local sin
+ * base de datos ni red: datos sintéticos del tamaño que se pida, retardo con
+ * la distribución que se elija y una fracción de respuestas 500.
+ * <p>
+ * Las lecturas llevan ETag y Last-Modified por colección y responden 304 a
+ * las peticiones condicionales, como el backend real; así se ejercita también
+ * la caché condicional del cliente.
+ * <p>
+ * Uso: {@code java -cp target/benchmarks.jar
+ * com.empresa.gestionproveedores.rendimiento.stub.BackendSimulado --productos=100000 --latencia=lognormal:20:250}
+ * y arrancar la aplicación con {@code -Dapi.base.url=http://localhost:8081/api}.
+ */
+public final class BackendSimulado implements AutoCloseable {
+
+    private final ConfiguracionSimulada configuracion;
+    private final DatosSimulados datos;
+    private final ObjectMapper mapper = JsonCodec.crearMapper(false);
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpServer servidor;
+
+    private BackendSimulado(ConfiguracionSimulada configuracion) throws IOException {
+        this.configuracion = configuracion;
+        this.datos = new DatosSimulados(configuracion.proveedores(), configuracion.productos(), configuracion.ordenes());
+        this.servidor = HttpServer.create(new InetSocketAddress(configuracion.puerto()), 1024);
+        servidor.createContext("/api/", this::atender);
+        servidor.setExecutor(hilos);
+    }
+
+    /**
+     * Genera los datos y empieza a escuchar. Con puerto 0 se elige uno libre
+     * (ver {@link #getUrlBase()}).
+     */
+    public static BackendSimulado iniciar(ConfiguracionSimulada configuracion) throws IOException {
+        BackendSimulado backend = new BackendSimulado(configuracion);
+        backend.servidor.start();
+        return backend;
+    }
+
+    /** Valor para api.base.url. */
+    public String getUrlBase() {
+        return "http://localhost:" + servidor.getAddress().getPort() + "/api";
+    }
+
+    public DatosSimulados getDatos() {
+        return datos;
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        hilos.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        ConfiguracionSimulada configuracion = ConfiguracionSimulada.desdeArgumentos(args);
+        long inicio = System.nanoTime();
+        BackendSimulado backend = iniciar(configuracion);
+        Runtime.getRuntime().addShutdownHook(new Thread(backend::close));
+        System.out.printf("Backend simulado en %s (%d proveedores, %d productos, %d órdenes; "
+                        + "latencia lectura %s, escritura %s; errores %.1f %%) listo en %d ms%n",
+                backend.getUrlBase(), configuracion.proveedores(), configuracion.productos(),
+                configuracion.ordenes(), configuracion.latenciaLectura(), configuracion.latenciaEscritura(),
+                configuracion.tasaError() * 100, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private void atender(HttpExchange intercambio) throws IOException {
+        try {
+            String metodo = intercambio.getRequestMethod();
+            boolean lectura = "GET".equals(metodo);
+            esperar(lectura ? configuracion.latenciaLectura() : configuracion.latenciaEscritura());
+            if (configuracion.tasaError() > 0 && ThreadLocalRandom.current().nextDouble() < configuracion.tasaError()) {
+                responder(intercambio, 500, ApiResponseDTO.error("Error simulado"));
+                return;
+            }
+
+            List<String> ruta = Arrays.stream(intercambio.getRequestURI().getPath().substring("/api/".length()).split("/"))
+                    .filter(s -> !s.isEmpty()).toList();
+            Map<String, String> parametros = parametros(intercambio.getRequestURI().getRawQuery());
+            Respuesta respuesta = switch (ruta.isEmpty() ? "" : ruta.get(0)) {
+                case "proveedores" -> proveedores(metodo, ruta.subList(1, ruta.size()), parametros, intercambio);
+                case "productos" -> productos(metodo, ruta.subList(1, ruta.size()), parametros, intercambio);
+                case "ordenes-compra" -> ordenes(metodo, ruta.subList(1, ruta.size()), parametros, intercambio);
+                default -> null;
+            };
+            if (respuesta == null) {
+                responder(intercambio, 404, ApiResponseDTO.error("Recurso no encontrado"));
+            } else if (respuesta.coleccion() != null && lectura) {
+                responderCondicional(intercambio, respuesta);
+            } else {
+                responder(intercambio, respuesta.estado(), respuesta.cuerpo());
+            }
+        } catch (JacksonException | IllegalArgumentException | DateTimeException e) {
+            responder(intercambio, 400, ApiResponseDTO.error("Petición inválida: " + e.getMessage()));
+        } catch (IllegalStateException e) {
+            responder(intercambio, 409, ApiResponseDTO.error(e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    private Respuesta proveedores(String metodo, List<String> ruta, Map<String, String> p,
+                                  HttpExchange intercambio) throws IOException {
+        Coleccion<ProveedorDTO> c = datos.proveedores;
+        return switch (plantilla(metodo, ruta)) {
+            case "GET " -> lista(c, c.todos());
+            case "GET activos" -> lista(c, c.filtrar(pr -> Boolean.TRUE.equals(pr.getActivo())));
+            case "GET buscar" -> lista(c, c.filtrar(pr -> contiene(pr.getRazonSocial(), p.get("razonSocial"))));
+            case "GET paginado" -> lista(c, c.pagina(p));
+            case "GET {id}" -> encontrado(c, c.buscar(id(ruta, 0)));
+            case "POST " -> creado(datos.crearProveedor(leer(intercambio, ProveedorDTO.class)));
+            case "PUT {id}" -> encontrado(null, datos.actualizarProveedor(id(ruta, 0), leer(intercambio, ProveedorDTO.class)));
+            case "DELETE {id}" -> eliminado(c.eliminar(id(ruta, 0)));
+            case "PATCH {id}/estado" -> {
+                ProveedorDTO proveedor = c.buscar(id(ruta, 0));
+                if (proveedor != null) {
+                    proveedor.setActivo(Boolean.valueOf(p.get("activo")));
+                    c.modificar();
+                }
+                yield encontrado(null, proveedor);
+            }
+            default -> null;
+        };
+    }
+
+    private Respuesta productos(String metodo, List<String> ruta, Map<String, String> p,
+                                HttpExchange intercambio) throws IOException {
+        Coleccion<ProductoDTO> c = datos.productos;
+        return switch (plantilla(metodo, ruta)) {
+            case "GET " -> lista(c, c.todos());
+            case "GET activos" -> lista(c, c.filtrar(pr -> Boolean.TRUE.equals(pr.getActivo())));
+            case "GET nombre" -> lista(c, c.filtrar(pr -> contiene(pr.getNombre(), p.get("nombre"))));
+            case "GET paginado" -> lista(c, c.pagina(p));
+            case "GET proveedor/{id}" -> {
+                Long proveedorId = id(ruta, 1);
+                yield lista(c, c.filtrar(pr -> Objects.equals(pr.getProveedorId(), proveedorId)));
+            }
+            case "GET {id}" -> encontrado(c, c.buscar(id(ruta, 0)));
+            case "POST " -> creado(datos.crearProducto(leer(intercambio, ProductoDTO.class)));
+            case "PUT {id}" -> encontrado(null, datos.actualizarProducto(id(ruta, 0), leer(intercambio, ProductoDTO.class)));
+            case "DELETE {id}" -> eliminado(datos.eliminarProducto(id(ruta, 0)));
+            case "PATCH {id}/estado" -> {
+                ProductoDTO producto = c.buscar(id(ruta, 0));
+                if (producto != null) {
+                    producto.setActivo(Boolean.valueOf(p.get("activo")));
+                    c.modificar();
+                }
+                yield encontrado(null, producto);
+            }
+            default -> null;
+        };
+    }
+
+    private Respuesta ordenes(String metodo, List<String> ruta, Map<String, String> p,
+                              HttpExchange intercambio) throws IOException {
+        Coleccion<OrdenCompraDTO> c = datos.ordenes;
+        return switch (plantilla(metodo, ruta)) {
+            case "GET " -> lista(c, c.todos());
+            case "GET paginado" -> lista(c, c.pagina(p));
+            case "GET generar-numero" -> new Respuesta(200, ApiResponseDTO.success(datos.generarNumeroOrden(), "OK"), null);
+            case "GET fechas" -> {
+                LocalDate inicio = LocalDate.parse(p.get("inicio"));
+                LocalDate fin = LocalDate.parse(p.get("fin"));
+                yield lista(c, c.filtrar(o -> o.getFechaOrden() != null
+                        && !o.getFechaOrden().isBefore(inicio) && !o.getFechaOrden().isAfter(fin)));
+            }
+            case "GET estado/{valor}" -> lista(c, c.filtrar(o -> ruta.get(1).equalsIgnoreCase(o.getEstado())));
+            case "GET proveedor/{id}" -> {
+                Long proveedorId = id(ruta, 1);
+                yield lista(c, c.filtrar(o -> Objects.equals(o.getProveedorId(), proveedorId)));
+            }
+            case "GET {id}" -> encontrado(c, c.buscar(id(ruta, 0)));
+            case "POST " -> creado(datos.crearOrden(leer(intercambio, OrdenCompraDTO.class)));
+            case "PUT {id}" -> encontrado(null, datos.actualizarOrden(id(ruta, 0), leer(intercambio, OrdenCompraDTO.class)));
+            case "DELETE {id}" -> eliminado(c.eliminar(id(ruta, 0)));
+            case "PATCH {id}/estado" -> {
+                OrdenCompraDTO orden = c.buscar(id(ruta, 0));
+                if (orden != null) {
+                    orden.setEstado(p.get("estado"));
+                    c.modificar();
+                }
+                yield encontrado(null, orden);
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * Método y ruta con los segmentos numéricos sustituidos por {id} y el que
+     * sigue a "estado" por {valor}, para poder despachar con un switch.
+     */
+    private static String plantilla(String metodo, List<String> ruta) {
+        StringJoiner plantilla = new StringJoiner("/", metodo + " ", "");
+        for (int i = 0; i < ruta.size(); i++) {
+            String segmento = ruta.get(i);
+            if (segmento.chars().allMatch(Character::isDigit)) {
+                plantilla.add("{id}");
+            } else if (i > 0 && "estado".equals(ruta.get(i - 1))) {
+                plantilla.add("{valor}");
+            } else {
+                plantilla.add(segmento);
+            }
+        }
+        return plantilla.toString();
+    }
+
+    /**
+     * @param coleccion si no es null, la respuesta depende solo de esa
+     *                  colección y admite ETag
+     */
+    private record Respuesta(int estado, ApiResponseDTO<?> cuerpo, Coleccion<?> coleccion) {
+    }
+
+    private static Respuesta lista(Coleccion<?> coleccion, Object datos) {
+        return new Respuesta(200, ApiResponseDTO.success(datos, "OK"), coleccion);
+    }
+
+    private static Respuesta encontrado(Coleccion<?> coleccion, Object fila) {
+        return fila != null
+                ? new Respuesta(200, ApiResponseDTO.success(fila, "OK"), coleccion)
+                : new Respuesta(404, ApiResponseDTO.error("No encontrado"), null);
+    }
+
+    private static Respuesta creado(Object fila) {
+        return new Respuesta(201, ApiResponseDTO.success(fila, "Creado"), null);
+    }
+
+    private static Respuesta eliminado(Object fila) {
+        return fila != null
+                ? new Respuesta(200, ApiResponseDTO.success(null, "Eliminado"), null)
+                : new Respuesta(404, ApiResponseDTO.error("No encontrado"), null);
+    }
+
+    private void responderCondicional(HttpExchange intercambio, Respuesta respuesta) throws IOException {
+        String etag = respuesta.coleccion().etag();
+        String ultimaModificacion = respuesta.coleccion().ultimaModificacion();
+        intercambio.getResponseHeaders().set("ETag", etag);
+        intercambio.getResponseHeaders().set("Last-Modified", ultimaModificacion);
+        String siNoCoincide = intercambio.getRequestHeaders().getFirst("If-None-Match");
+        boolean noModificada = siNoCoincide != null
+                ? siNoCoincide.equals(etag)
+                : ultimaModificacion.equals(intercambio.getRequestHeaders().getFirst("If-Modified-Since"));
+        if (noModificada) {
+            intercambio.sendResponseHeaders(304, -1);
+            return;
+        }
+        responder(intercambio, respuesta.estado(), respuesta.cuerpo());
+    }
+
+    private void responder(HttpExchange intercambio, int estado, ApiResponseDTO<?> cuerpo) throws IOException {
+        byte[] json = mapper.writeValueAsBytes(cuerpo);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json");
+        intercambio.sendResponseHeaders(estado, json.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(json);
+        }
+    }
+
+    private <T> T leer(HttpExchange intercambio, Class<T> tipo) throws IOException {
+        return mapper.readValue(intercambio.getRequestBody(), tipo);
+    }
+
+    private static void esperar(Latencia latencia) throws InterruptedException {
+        long ms = latencia.muestraMs();
+        if (ms > 0) {
+            Thread.sleep(ms);
+        }
+    }
+
+    private static long id(List<String> ruta, int posicion) {
+        return Long.parseLong(ruta.get(posicion));
+    }
+
+    private static boolean contiene(String texto, String buscado) {
+        return buscado == null || (texto != null && texto.toLowerCase(Locale.ROOT).contains(buscado.toLowerCase(Locale.ROOT)));
+    }
+
+    private static Map<String, String> parametros(String query) {
+        Map<String, String> parametros = new LinkedHashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parametros;
+        }
+        for (String par : query.split("&")) {
+            int igual = par.indexOf('=');
+            String clave = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(URLDecoder.decode(clave, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+}
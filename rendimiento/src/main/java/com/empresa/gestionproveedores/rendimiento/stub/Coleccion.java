@@ -0,0 +1,209 @@
+package com.empresa.gestionproveedores.rendimiento.stub;
+
+import com.empresa.gestionproveedores.dto.PaginaDTO;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Tabla en memoria de una entidad, ordenada por id como la clave primaria del
+ * backend real. Cada escritura incrementa la versión, que sirve de ETag para
+ * todas las lecturas de la colección: basta para que el cliente reciba 304
+ * mientras nadie escribe y pida de nuevo en cuanto alguien lo hace.
+ */
+final class Coleccion<T> {
+
+    private static final Set<String> PARAMETROS_PAGINA = Set.of("page", "size", "sort", "despuesDeId");
+
+    private final String nombre;
+    private final ConcurrentSkipListMap<Long, T> filas = new ConcurrentSkipListMap<>();
+    private final AtomicLong secuencia = new AtomicLong();
+    private final AtomicLong version = new AtomicLong(1);
+    private volatile Instant modificada = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private final Function<T, Long> id;
+    private final BiConsumer<T, Long> asignarId;
+    private final Map<String, Function<T, ?>> campos;
+    private final Map<String, BiFunction<T, String, Boolean>> filtros;
+
+    /**
+     * @param campos  campos por los que se puede ordenar y filtrar como columna
+     *                (contiene, sin distinguir mayúsculas)
+     * @param filtros filtros con significado propio (igualdad, rangos, varios
+     *                campos); tienen prioridad sobre los de columna
+     */
+    Coleccion(String nombre, Function<T, Long> id, BiConsumer<T, Long> asignarId,
+              Map<String, Function<T, ?>> campos, Map<String, BiFunction<T, String, Boolean>> filtros) {
+        this.nombre = nombre;
+        this.id = id;
+        this.asignarId = asignarId;
+        this.campos = campos;
+        this.filtros = filtros;
+    }
+
+    void cargar(Collection<T> iniciales) {
+        iniciales.forEach(fila -> filas.put(id.apply(fila), fila));
+        secuencia.set(filas.isEmpty() ? 0 : filas.lastKey());
+    }
+
+    int tamanio() {
+        return filas.size();
+    }
+
+    T buscar(long clave) {
+        return filas.get(clave);
+    }
+
+    List<T> todos() {
+        return new ArrayList<>(filas.values());
+    }
+
+    List<T> filtrar(Predicate<T> condicion) {
+        return filas.values().stream().filter(condicion).toList();
+    }
+
+    T crear(T fila) {
+        asignarId.accept(fila, secuencia.incrementAndGet());
+        filas.put(id.apply(fila), fila);
+        modificar();
+        return fila;
+    }
+
+    /**
+     * @return la fila guardada, o null si no existía
+     */
+    T reemplazar(long clave, T fila) {
+        asignarId.accept(fila, clave);
+        if (filas.replace(clave, fila) == null) {
+            return null;
+        }
+        modificar();
+        return fila;
+    }
+
+    T eliminar(long clave) {
+        T quitada = filas.remove(clave);
+        if (quitada != null) {
+            modificar();
+        }
+        return quitada;
+    }
+
+    /**
+     * Llamar tras modificar en sitio una fila ya guardada.
+     */
+    void modificar() {
+        version.incrementAndGet();
+        modificada = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    String etag() {
+        return "\"" + nombre + "-" + version.get() + "\"";
+    }
+
+    String ultimaModificacion() {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(modificada.atOffset(ZoneOffset.UTC));
+    }
+
+    /**
+     * Misma semántica que el endpoint /paginado del backend: page y size, sort
+     * campo,asc|desc y, con despuesDeId, página por clave ordenada por id.
+     * Cualquier otro parámetro es un filtro.
+     */
+    PaginaDTO<T> pagina(Map<String, String> parametros) {
+        int tamanio = Math.max(1, entero(parametros.get("size"), 20));
+        Predicate<T> condicion = condicion(parametros);
+
+        String despuesDe = parametros.get("despuesDeId");
+        if (despuesDe != null) {
+            List<T> contenido = filas.tailMap(Long.parseLong(despuesDe), false).values().stream()
+                    .filter(condicion).limit(tamanio).toList();
+            long total = filas.values().stream().filter(condicion).count();
+            return new PaginaDTO<>(new ArrayList<>(contenido), total, paginas(total, tamanio), 0, tamanio);
+        }
+
+        int pagina = Math.max(0, entero(parametros.get("page"), 0));
+        Stream<T> flujo = filas.values().stream().filter(condicion);
+        Comparator<T> orden = orden(parametros.get("sort"));
+        if (orden != null) {
+            flujo = flujo.sorted(orden);
+        }
+        List<T> coincidentes = flujo.toList();
+        return PaginaDTO.de(coincidentes, pagina, tamanio);
+    }
+
+    private Predicate<T> condicion(Map<String, String> parametros) {
+        Predicate<T> condicion = fila -> true;
+        for (Map.Entry<String, String> parametro : parametros.entrySet()) {
+            String clave = parametro.getKey();
+            String valor = parametro.getValue();
+            if (PARAMETROS_PAGINA.contains(clave) || valor == null || valor.isBlank()) {
+                continue;
+            }
+            BiFunction<T, String, Boolean> propio = filtros.get(clave);
+            if (propio != null) {
+                condicion = condicion.and(fila -> propio.apply(fila, valor));
+                continue;
+            }
+            Function<T, ?> campo = campos.get(clave);
+            if (campo != null) {
+                String buscado = valor.toLowerCase(Locale.ROOT);
+                condicion = condicion.and(fila -> {
+                    Object actual = campo.apply(fila);
+                    return actual != null && actual.toString().toLowerCase(Locale.ROOT).contains(buscado);
+                });
+            }
+        }
+        return condicion;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparator<T> orden(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return null;
+        }
+        String[] partes = sort.split(",");
+        Function<T, ?> campo = campos.get(partes[0]);
+        if (campo == null) {
+            return null;
+        }
+        Comparator<T> orden = Comparator.comparing(fila -> (Comparable) campo.apply(fila),
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        if (partes.length > 1 && "desc".equalsIgnoreCase(partes[1])) {
+            orden = orden.reversed();
+        }
+        // Desempate por id para que las páginas no se solapen
+        return orden.thenComparing(id);
+    }
+
+    private static int paginas(long total, int tamanio) {
+        return (int) ((total + tamanio - 1) / tamanio);
+    }
+
+    private static int entero(String valor, int porDefecto) {
+        if (valor == null || valor.isBlank()) {
+            return porDefecto;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            return porDefecto;
+        }
+    }
+}
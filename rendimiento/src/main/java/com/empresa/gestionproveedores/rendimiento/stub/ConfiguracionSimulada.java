@@ -0,0 +1,60 @@
+package com.empresa.gestionproveedores.rendimiento.stub;
+
+/**
+ * Tamaño de los datos y comportamiento del backend simulado.
+ *
+ * @param latenciaLectura   retardo de cada GET
+ * @param latenciaEscritura retardo de POST, PUT, PATCH y DELETE
+ * @param tasaError         fracción de peticiones (0..1) que responden 500
+ */
+public record ConfiguracionSimulada(int puerto, int proveedores, int productos, int ordenes,
+                                    Latencia latenciaLectura, Latencia latenciaEscritura, double tasaError) {
+
+    public ConfiguracionSimulada {
+        if (tasaError < 0 || tasaError > 1) {
+            throw new IllegalArgumentException("La tasa de error debe estar entre 0 y 1: " + tasaError);
+        }
+    }
+
+    /** Mismo puerto que el backend real en desarrollo, sin retardo ni errores. */
+    public static ConfiguracionSimulada porDefecto() {
+        return new ConfiguracionSimulada(8081, 500, 100_000, 20_000, Latencia.NINGUNA, Latencia.NINGUNA, 0);
+    }
+
+    /**
+     * Lee opciones {@code --clave=valor}: puerto, proveedores, productos,
+     * ordenes, latencia, latencia-escritura (por defecto la de lectura) y
+     * errores. Las que no aparecen conservan el valor por defecto.
+     */
+    public static ConfiguracionSimulada desdeArgumentos(String... argumentos) {
+        ConfiguracionSimulada c = porDefecto();
+        int puerto = c.puerto();
+        int proveedores = c.proveedores();
+        int productos = c.productos();
+        int ordenes = c.ordenes();
+        Latencia lectura = c.latenciaLectura();
+        Latencia escritura = null;
+        double tasaError = c.tasaError();
+
+        for (String argumento : argumentos) {
+            int igual = argumento.indexOf('=');
+            if (!argumento.startsWith("--") || igual < 0) {
+                throw new IllegalArgumentException("Se esperaba --clave=valor: " + argumento);
+            }
+            String clave = argumento.substring(2, igual);
+            String valor = argumento.substring(igual + 1);
+            switch (clave) {
+                case "puerto" -> puerto = Integer.parseInt(valor);
+                case "proveedores" -> proveedores = Integer.parseInt(valor);
+                case "productos" -> productos = Integer.parseInt(valor);
+                case "ordenes" -> ordenes = Integer.parseInt(valor);
+                case "latencia" -> lectura = Latencia.parse(valor);
+                case "latencia-escritura" -> escritura = Latencia.parse(valor);
+                case "errores" -> tasaError = Double.parseDouble(valor);
+                default -> throw new IllegalArgumentException("Opción desconocida: --" + clave);
+            }
+        }
+        return new ConfiguracionSimulada(puerto, proveedores, productos, ordenes,
+                lectura, escritura != null ? escritura : lectura, tasaError);
+    }
+}
@@ -0,0 +1,255 @@
+package com.empresa.gestionproveedores.rendimiento.stub;
+
+import com.empresa.gestionproveedores.dto.DetalleOrdenDTO;
+import com.empresa.gestionproveedores.dto.OrdenCompraDTO;
+import com.empresa.gestionproveedores.dto.ProductoDTO;
+import com.empresa.gestionproveedores.dto.ProductoResponseDTO;
+import com.empresa.gestionproveedores.dto.ProveedorDTO;
+import com.empresa.gestionproveedores.dto.ProveedorResponseDTO;
+import com.empresa.gestionproveedores.rendimiento.Fixtures;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Proveedores, productos y órdenes del backend simulado. Arranca con los
+ * datos de {@link Fixtures} (semilla fija, referencias coherentes entre
+ * entidades) y admite altas, cambios y bajas como el backend real, incluida
+ * la unicidad del código de producto.
+ */
+public final class DatosSimulados {
+
+    private static final BigDecimal IVA = new BigDecimal("0.15");
+
+    final Coleccion<ProveedorDTO> proveedores;
+    final Coleccion<ProductoDTO> productos;
+    final Coleccion<OrdenCompraDTO> ordenes;
+
+    private final Map<String, Long> codigosProducto = new ConcurrentHashMap<>();
+    private final AtomicLong numeroOrden;
+    private final AtomicLong secuenciaDetalle;
+
+    public DatosSimulados(int proveedores, int productos, int ordenes) {
+        int proveedoresReferenciados = Math.max(1, proveedores);
+        int productosReferenciados = Math.max(1, productos);
+
+        this.proveedores = new Coleccion<ProveedorDTO>("proveedores", ProveedorDTO::getId, ProveedorDTO::setId,
+                Map.of("id", ProveedorDTO::getId,
+                        "ruc", ProveedorDTO::getRuc,
+                        "razonSocial", ProveedorDTO::getRazonSocial,
+                        "nombreComercial", ProveedorDTO::getNombreComercial,
+                        "email", ProveedorDTO::getEmail,
+                        "telefono", ProveedorDTO::getTelefono,
+                        "contacto", ProveedorDTO::getContacto,
+                        "activo", ProveedorDTO::getActivo,
+                        "fechaRegistro", ProveedorDTO::getFechaRegistro),
+                Map.of("activo", (p, valor) -> Objects.equals(p.getActivo(), Boolean.valueOf(valor))));
+
+        this.productos = new Coleccion<ProductoDTO>("productos", ProductoDTO::getId, ProductoDTO::setId,
+                Map.of("id", ProductoDTO::getId,
+                        "codigo", ProductoDTO::getCodigo,
+                        "nombre", ProductoDTO::getNombre,
+                        "descripcion", ProductoDTO::getDescripcion,
+                        "precio", ProductoDTO::getPrecio,
+                        "unidadMedida", ProductoDTO::getUnidadMedida,
+                        "activo", ProductoDTO::getActivo,
+                        "fechaRegistro", ProductoDTO::getFechaRegistro,
+                        "proveedorId", ProductoDTO::getProveedorId,
+                        "proveedorRazonSocial", ProductoDTO::getProveedorRazonSocial),
+                Map.of("busqueda", (p, valor) -> contiene(p.getNombre(), valor) || contiene(p.getCodigo(), valor),
+                        "proveedorId", (p, valor) -> Objects.equals(p.getProveedorId(), Long.valueOf(valor)),
+                        "activo", (p, valor) -> Objects.equals(p.getActivo(), Boolean.valueOf(valor))));
+
+        this.ordenes = new Coleccion<OrdenCompraDTO>("ordenes", OrdenCompraDTO::getId, OrdenCompraDTO::setId,
+                Map.of("id", OrdenCompraDTO::getId,
+                        "numeroOrden", OrdenCompraDTO::getNumeroOrden,
+                        "fechaOrden", OrdenCompraDTO::getFechaOrden,
+                        "estado", OrdenCompraDTO::getEstado,
+                        "subtotal", OrdenCompraDTO::getSubtotal,
+                        "total", OrdenCompraDTO::getTotal,
+                        "proveedorId", OrdenCompraDTO::getProveedorId,
+                        "proveedor.razonSocial", o -> o.getProveedor() != null ? o.getProveedor().getRazonSocial() : null,
+                        "fechaRegistro", OrdenCompraDTO::getFechaRegistro),
+                Map.of("estado", (o, valor) -> valor.equalsIgnoreCase(o.getEstado()),
+                        "proveedorId", (o, valor) -> Objects.equals(o.getProveedorId(), Long.valueOf(valor)),
+                        "fechaInicio", (o, valor) -> o.getFechaOrden() != null
+                                && !o.getFechaOrden().isBefore(LocalDate.parse(valor)),
+                        "fechaFin", (o, valor) -> o.getFechaOrden() != null
+                                && !o.getFechaOrden().isAfter(LocalDate.parse(valor)),
+                        "busqueda", (o, valor) -> contiene(o.getNumeroOrden(), valor)));
+
+        this.proveedores.cargar(Fixtures.proveedores(proveedores));
+        this.productos.cargar(Fixtures.productos(productos, proveedoresReferenciados));
+        this.ordenes.cargar(Fixtures.ordenes(ordenes, proveedoresReferenciados, productosReferenciados));
+        this.productos.todos().forEach(p -> codigosProducto.put(p.getCodigo(), p.getId()));
+        this.numeroOrden = new AtomicLong(ordenes);
+        this.secuenciaDetalle = new AtomicLong((long) ordenes * 3);
+    }
+
+    ProveedorDTO crearProveedor(ProveedorDTO proveedor) {
+        proveedor.setFechaRegistro(LocalDateTime.now());
+        if (proveedor.getActivo() == null) {
+            proveedor.setActivo(true);
+        }
+        return proveedores.crear(proveedor);
+    }
+
+    ProveedorDTO actualizarProveedor(long id, ProveedorDTO proveedor) {
+        ProveedorDTO actual = proveedores.buscar(id);
+        if (actual == null) {
+            return null;
+        }
+        proveedor.setFechaRegistro(actual.getFechaRegistro());
+        proveedor.setFechaActualizacion(LocalDateTime.now());
+        return proveedores.reemplazar(id, proveedor);
+    }
+
+    /**
+     * @throws IllegalStateException si el código ya está en uso
+     */
+    ProductoDTO crearProducto(ProductoDTO producto) {
+        String codigo = producto.getCodigo();
+        if (codigo != null && codigosProducto.putIfAbsent(codigo, -1L) != null) {
+            throw new IllegalStateException("Ya existe un producto con el código " + codigo);
+        }
+        producto.setFechaRegistro(LocalDateTime.now());
+        if (producto.getActivo() == null) {
+            producto.setActivo(true);
+        }
+        completarProveedor(producto);
+        ProductoDTO creado = productos.crear(producto);
+        if (codigo != null) {
+            codigosProducto.put(codigo, creado.getId());
+        }
+        return creado;
+    }
+
+    /**
+     * @throws IllegalStateException si el nuevo código es de otro producto
+     */
+    ProductoDTO actualizarProducto(long id, ProductoDTO producto) {
+        ProductoDTO actual = productos.buscar(id);
+        if (actual == null) {
+            return null;
+        }
+        String codigo = producto.getCodigo();
+        if (codigo != null && !codigo.equals(actual.getCodigo())) {
+            Long duenio = codigosProducto.putIfAbsent(codigo, id);
+            if (duenio != null && duenio != id) {
+                throw new IllegalStateException("Ya existe un producto con el código " + codigo);
+            }
+            codigosProducto.remove(actual.getCodigo(), id);
+        }
+        producto.setFechaRegistro(actual.getFechaRegistro());
+        completarProveedor(producto);
+        return productos.reemplazar(id, producto);
+    }
+
+    ProductoDTO eliminarProducto(long id) {
+        ProductoDTO quitado = productos.eliminar(id);
+        if (quitado != null && quitado.getCodigo() != null) {
+            codigosProducto.remove(quitado.getCodigo(), id);
+        }
+        return quitado;
+    }
+
+    OrdenCompraDTO crearOrden(OrdenCompraDTO orden) {
+        if (orden.getNumeroOrden() == null || orden.getNumeroOrden().isBlank()) {
+            orden.setNumeroOrden(generarNumeroOrden());
+        }
+        if (orden.getEstado() == null) {
+            orden.setEstado("PENDIENTE");
+        }
+        if (orden.getFechaOrden() == null) {
+            orden.setFechaOrden(LocalDate.now());
+        }
+        orden.setFechaRegistro(LocalDateTime.now());
+        completarOrden(orden);
+        OrdenCompraDTO creada = ordenes.crear(orden);
+        creada.getDetalles().forEach(d -> d.setOrdenCompraId(creada.getId()));
+        return creada;
+    }
+
+    OrdenCompraDTO actualizarOrden(long id, OrdenCompraDTO orden) {
+        OrdenCompraDTO actual = ordenes.buscar(id);
+        if (actual == null) {
+            return null;
+        }
+        orden.setNumeroOrden(actual.getNumeroOrden());
+        orden.setFechaRegistro(actual.getFechaRegistro());
+        orden.setFechaActualizacion(LocalDateTime.now());
+        if (orden.getEstado() == null) {
+            orden.setEstado(actual.getEstado());
+        }
+        completarOrden(orden);
+        orden.getDetalles().forEach(d -> d.setOrdenCompraId(id));
+        return ordenes.reemplazar(id, orden);
+    }
+
+    String generarNumeroOrden() {
+        return String.format("OC-%07d", numeroOrden.incrementAndGet());
+    }
+
+    private void completarProveedor(ProductoDTO producto) {
+        ProveedorDTO proveedor = producto.getProveedorId() != null ? proveedores.buscar(producto.getProveedorId()) : null;
+        producto.setProveedorRazonSocial(proveedor != null ? proveedor.getRazonSocial() : null);
+    }
+
+    /**
+     * Proveedor y productos anidados, subtotales e IVA, como los devuelve el backend.
+     */
+    private void completarOrden(OrdenCompraDTO orden) {
+        if (orden.getDetalles() == null) {
+            orden.setDetalles(new ArrayList<>());
+        }
+        ProveedorDTO proveedor = orden.getProveedorId() != null ? proveedores.buscar(orden.getProveedorId()) : null;
+        orden.setProveedor(proveedor == null ? null : ProveedorResponseDTO.builder()
+                .id(proveedor.getId())
+                .ruc(proveedor.getRuc())
+                .razonSocial(proveedor.getRazonSocial())
+                .nombreComercial(proveedor.getNombreComercial())
+                .activo(proveedor.getActivo())
+                .build());
+
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (DetalleOrdenDTO detalle : orden.getDetalles()) {
+            if (detalle.getId() == null) {
+                detalle.setId(secuenciaDetalle.incrementAndGet());
+            }
+            ProductoDTO producto = detalle.getProductoId() != null ? productos.buscar(detalle.getProductoId()) : null;
+            if (producto != null) {
+                detalle.setProducto(ProductoResponseDTO.builder()
+                        .id(producto.getId())
+                        .codigo(producto.getCodigo())
+                        .nombre(producto.getNombre())
+                        .unidadMedida(producto.getUnidadMedida())
+                        .precio(producto.getPrecio())
+                        .activo(producto.getActivo())
+                        .build());
+                if (detalle.getPrecioUnitario() == null) {
+                    detalle.setPrecioUnitario(producto.getPrecio());
+                }
+            }
+            if (detalle.getPrecioUnitario() != null && detalle.getCantidad() != null) {
+                detalle.setSubtotal(detalle.getPrecioUnitario().multiply(BigDecimal.valueOf(detalle.getCantidad())));
+                subtotal = subtotal.add(detalle.getSubtotal());
+            }
+        }
+        BigDecimal iva = subtotal.multiply(IVA).setScale(2, RoundingMode.HALF_UP);
+        orden.setSubtotal(subtotal);
+        orden.setIva(iva);
+        orden.setTotal(subtotal.add(iva));
+    }
+
+    private static boolean contiene(String texto, String buscado) {
+        return texto != null && texto.toLowerCase(Locale.ROOT).contains(buscado.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,89 @@
+package com.empresa.gestionproveedores.rendimiento.stub;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribución del retardo que el backend simulado añade a cada respuesta.
+ * Se describe con un texto corto, el mismo en la línea de órdenes y en código:
+ * <ul>
+ *   <li>{@code 0}: sin retardo.</li>
+ *   <li>{@code fija:20}: siempre 20 ms.</li>
+ *   <li>{@code uniforme:5:50}: entre 5 y 50 ms.</li>
+ *   <li>{@code lognormal:20:250}: mediana 20 ms y p99 250 ms. Es la forma
+ *       habitual de un servicio real: casi todo rápido y una cola larga.</li>
+ * </ul>
+ */
+public abstract class Latencia {
+
+    /** z del percentil 99 de la normal estándar. */
+    private static final double Z_P99 = 2.326;
+
+    public static final Latencia NINGUNA = new Latencia("0") {
+        @Override
+        public long muestraMs() {
+            return 0;
+        }
+    };
+
+    private final String descripcion;
+
+    private Latencia(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public abstract long muestraMs();
+
+    public static Latencia parse(String texto) {
+        String[] partes = texto.trim().split(":");
+        try {
+            switch (partes[0]) {
+                case "0", "ninguna" -> {
+                    return NINGUNA;
+                }
+                case "fija" -> {
+                    long ms = Long.parseLong(partes[1]);
+                    return new Latencia(texto) {
+                        @Override
+                        public long muestraMs() {
+                            return ms;
+                        }
+                    };
+                }
+                case "uniforme" -> {
+                    long min = Long.parseLong(partes[1]);
+                    long max = Long.parseLong(partes[2]);
+                    return new Latencia(texto) {
+                        @Override
+                        public long muestraMs() {
+                            return ThreadLocalRandom.current().nextLong(min, max + 1);
+                        }
+                    };
+                }
+                case "lognormal" -> {
+                    double mediana = Double.parseDouble(partes[1]);
+                    double p99 = Double.parseDouble(partes[2]);
+                    if (mediana <= 0 || p99 < mediana) {
+                        throw new IllegalArgumentException("Se requiere 0 < mediana <= p99");
+                    }
+                    double mu = Math.log(mediana);
+                    double sigma = Math.log(p99 / mediana) / Z_P99;
+                    return new Latencia(texto) {
+                        @Override
+                        public long muestraMs() {
+                            return Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+                        }
+                    };
+                }
+                default -> throw new IllegalArgumentException("Distribución desconocida: " + partes[0]);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Latencia mal formada: " + texto
+                    + " (ejemplos: 0, fija:20, uniforme:5:50, lognormal:20:250)", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return descripcion;
+    }
+}
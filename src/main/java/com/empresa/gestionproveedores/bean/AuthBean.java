@@ -1,6 +1,7 @@
 package com.empresa.gestionproveedores.bean;
 
 import com.empresa.gestionproveedores.dto.UsuarioDTO;
+import com.empresa.gestionproveedores.jfr.InicializacionMedida;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.SessionScoped;
 import jakarta.faces.application.FacesMessage;
@@ -21,6 +22,7 @@ import java.util.Map;
  */
 @Named("authBean")
 @SessionScoped
+@InicializacionMedida
 @Slf4j
 public class AuthBean implements Serializable {
 
@@ -0,0 +1,30 @@
+package com.empresa.gestionproveedores.bean;
+
+import com.empresa.gestionproveedores.jfr.InicializacionMedida;
+import com.empresa.gestionproveedores.stats.EstadisticasDashboard;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import lombok.Getter;
+
+/**
+ * Datos de la página de inicio. Toma una sola foto de los contadores por
+ * petición para que todas las tarjetas muestren el mismo instante.
+ */
+@Named("dashboardBean")
+@RequestScoped
+@InicializacionMedida
+public class DashboardBean {
+
+    @Inject
+    private EstadisticasDashboard estadisticas;
+
+    @Getter
+    private EstadisticasDashboard.Resumen resumen;
+
+    @PostConstruct
+    public void init() {
+        resumen = estadisticas.getResumen();
+    }
+}
@@ -0,0 +1,176 @@
+package com.empresa.gestionproveedores.bean;
+
+import com.empresa.gestionproveedores.config.ApiConfig;
+import com.empresa.gestionproveedores.dto.ProveedorDTO;
+import com.empresa.gestionproveedores.importacion.ImportacionProductos;
+import com.empresa.gestionproveedores.resilience.ResilienciaBackend;
+import com.empresa.gestionproveedores.service.ProductoService;
+import com.empresa.gestionproveedores.service.ProveedorService;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.SessionScoped;
+import jakarta.faces.application.FacesMessage;
+import jakarta.faces.context.FacesContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.primefaces.event.FileUploadEvent;
+import org.primefaces.model.DefaultStreamedContent;
+import org.primefaces.model.StreamedContent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Importación de productos desde CSV. Es de sesión porque la importación
+ * sigue en segundo plano aunque el usuario cambie de página; al volver ve el
+ * progreso y puede descargar el informe de errores.
+ */
+@Named("importacionBean")
+@SessionScoped
+@Slf4j
+public class ImportacionProductosBean implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Inject
+    private ProductoService productoService;
+
+    @Inject
+    private ProveedorService proveedorService;
+
+    @Inject
+    private ApiConfig apiConfig;
+
+    @Inject
+    private ResilienciaBackend resiliencia;
+
+    @Getter @Setter
+    private Long proveedorId;
+
+    @Getter
+    private String nombreArchivo;
+
+    // El hilo de la importación no viaja con la sesión
+    @Getter
+    private transient ImportacionProductos importacion;
+
+    public List<ProveedorDTO> getProveedoresDisponibles() {
+        try {
+            return proveedorService.listarActivos();
+        } catch (Exception e) {
+            log.error("Error al cargar proveedores para la importación", e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * El fichero subido se copia a un temporal propio (el del contenedor se
+     * borra al acabar la petición) y se procesa en segundo plano.
+     */
+    public void subir(FileUploadEvent event) {
+        if (isEnCurso()) {
+            mostrarMensajeAdvertencia("Ya hay una importación en curso");
+            return;
+        }
+        Path copia = null;
+        try (InputStream in = event.getFile().getInputStream()) {
+            copia = Files.createTempFile("importacion-productos-", ".csv");
+            Files.copy(in, copia, StandardCopyOption.REPLACE_EXISTING);
+            if (importacion != null) {
+                importacion.descartar();
+            }
+            importacion = new ImportacionProductos(productoService, copia, proveedorId,
+                    (int) apiConfig.leerLong("import.batch-size", 500),
+                    enCursoImportacion(),
+                    Duration.ofMillis(apiConfig.leerLong("import.batch-timeout", 120000)));
+            nombreArchivo = event.getFile().getFileName();
+            importacion.iniciar();
+            mostrarMensajeExito("Importando " + nombreArchivo);
+        } catch (IOException e) {
+            log.error("Error al recibir el archivo de importación", e);
+            borrar(copia);
+            mostrarMensajeError("No se pudo leer el archivo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Altas simultáneas de la importación: import.max-in-flight, sin pasar del
+     * compartimento de productos, que rechazaría las que sobren.
+     */
+    private int enCursoImportacion() {
+        return (int) Math.min(apiConfig.leerLong("import.max-in-flight", 4),
+                resiliencia.getMaxConcurrentes("productos"));
+    }
+
+    public void cancelar() {
+        if (isEnCurso()) {
+            importacion.cancelar();
+            mostrarMensajeAdvertencia("Se detendrá al terminar el lote en curso");
+        }
+    }
+
+    public boolean isEnCurso() {
+        return importacion != null && importacion.isEnCurso();
+    }
+
+    public boolean isInformeDisponible() {
+        return importacion != null && !importacion.isEnCurso() && importacion.getConError() > 0;
+    }
+
+    public StreamedContent getInformeErrores() {
+        Path informe = importacion.getInforme();
+        return DefaultStreamedContent.builder()
+                .name("errores-importacion-productos.csv")
+                .contentType("text/csv; charset=UTF-8")
+                .stream(() -> {
+                    try {
+                        return Files.newInputStream(informe);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Informe de errores no disponible", e);
+                    }
+                })
+                .build();
+    }
+
+    @PreDestroy
+    public void destruir() {
+        if (importacion != null) {
+            importacion.descartar();
+        }
+    }
+
+    private static void borrar(Path ruta) {
+        if (ruta == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(ruta);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el temporal {}", ruta, e);
+        }
+    }
+
+    private void mostrarMensajeExito(String mensaje) {
+        FacesContext.getCurrentInstance().addMessage(null,
+                new FacesMessage(FacesMessage.SEVERITY_INFO, "Éxito", mensaje));
+    }
+
+    private void mostrarMensajeError(String mensaje) {
+        FacesContext.getCurrentInstance().addMessage(null,
+                new FacesMessage(FacesMessage.SEVERITY_ERROR, "Error", mensaje));
+    }
+
+    private void mostrarMensajeAdvertencia(String mensaje) {
+        FacesContext.getCurrentInstance().addMessage(null,
+                new FacesMessage(FacesMessage.SEVERITY_WARN, "Advertencia", mensaje));
+    }
+}
@@ -0,0 +1,231 @@
+package com.empresa.gestionproveedores.bean;
+
+import com.empresa.gestionproveedores.dto.ConsultaPaginada;
+import com.empresa.gestionproveedores.dto.PaginaDTO;
+import com.empresa.gestionproveedores.exception.ServiceException;
+import jakarta.faces.application.FacesMessage;
+import jakarta.faces.component.UIComponent;
+import jakarta.faces.context.FacesContext;
+import lombok.extern.slf4j.Slf4j;
+import org.primefaces.PrimeFaces;
+import org.primefaces.component.datatable.DataTable;
+import org.primefaces.model.FilterMeta;
+import org.primefaces.model.LazyDataModel;
+import org.primefaces.model.SortMeta;
+import org.primefaces.model.SortOrder;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * LazyDataModel que pide al backend solo la página visible de la tabla, ya
+ * ordenada y filtrada. El bean conserva únicamente esas filas, de modo que la
+ * memoria y el estado de la vista no crecen con el volumen de datos.
+ *
+ * <pre>
+ * productos = new ModeloPaginado&lt;&gt;(productoService::listarPaginado, ProductoDTO::getId,
+ *         () -&gt; Map.of("busqueda", criterioBusqueda));
+ * </pre>
+ */
+@Slf4j
+public class ModeloPaginado<T> extends LazyDataModel<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    @FunctionalInterface
+    public interface Consulta<T> extends Serializable {
+        PaginaDTO<T> cargar(ConsultaPaginada consulta);
+    }
+
+    @FunctionalInterface
+    public interface Clave<T> extends Serializable {
+        Object de(T fila);
+    }
+
+    /** Filtros que no vienen de la tabla, p. ej. el cuadro de búsqueda de la barra. */
+    @FunctionalInterface
+    public interface Filtros extends Serializable {
+        Map<String, String> actuales();
+    }
+
+    private final Consulta<T> consulta;
+    private final Clave<T> clave;
+    private final Filtros filtrosExternos;
+    private int totalConocido;
+
+    public ModeloPaginado(Consulta<T> consulta, Clave<T> clave, Filtros filtrosExternos) {
+        this.consulta = consulta;
+        this.clave = clave;
+        this.filtrosExternos = filtrosExternos;
+    }
+
+    /**
+     * PrimeFaces llama a count() antes de load(); para no pedir el total en una
+     * llamada aparte se devuelve el último conocido y load() lo corrige con el
+     * total que acompaña a la página.
+     */
+    @Override
+    public int count(Map<String, FilterMeta> filterBy) {
+        return totalConocido;
+    }
+
+    @Override
+    public List<T> load(int first, int pageSize, Map<String, SortMeta> sortBy, Map<String, FilterMeta> filterBy) {
+        ConsultaPaginada c = ConsultaPaginada.builder()
+                .pagina(pageSize > 0 ? first / pageSize : 0)
+                .tamanio(pageSize)
+                .filtros(filtros(filterBy))
+                .build();
+        sortBy.values().stream().findFirst().ifPresent(orden -> {
+            c.setOrden(orden.getField());
+            c.setDescendente(orden.getOrder() == SortOrder.DESCENDING);
+        });
+        try {
+            PaginaDTO<T> pagina = consulta.cargar(c);
+            totalConocido = (int) Math.min(pagina.getTotalElements(), Integer.MAX_VALUE);
+            setRowCount(totalConocido);
+            return pagina.getContent() != null ? pagina.getContent() : new ArrayList<>();
+        } catch (ServiceException e) {
+            log.error("Error al cargar la página {} de la tabla", c.getPagina(), e);
+            totalConocido = 0;
+            setRowCount(0);
+            FacesContext.getCurrentInstance().addMessage(null,
+                    new FacesMessage(FacesMessage.SEVERITY_ERROR, "Error", e.getMessage()));
+            return new ArrayList<>();
+        }
+    }
+
+    private Map<String, String> filtros(Map<String, FilterMeta> filterBy) {
+        Map<String, String> filtros = new LinkedHashMap<>();
+        filterBy.values().forEach(f -> {
+            if (f.getFilterValue() != null) {
+                filtros.put(f.getField(), f.getFilterValue().toString());
+            }
+        });
+        if (filtrosExternos != null) {
+            filtrosExternos.actuales().forEach((k, v) -> {
+                if (v != null) {
+                    filtros.put(k, v);
+                }
+            });
+        }
+        return filtros;
+    }
+
+    @Override
+    public String getRowKey(T fila) {
+        return String.valueOf(clave.de(fila));
+    }
+
+    @Override
+    public T getRowData(String rowKey) {
+        List<T> filas = getWrappedData();
+        if (filas == null) {
+            return null;
+        }
+        return filas.stream()
+                .filter(f -> Objects.equals(getRowKey(f), rowKey))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Filas de la página cargada actualmente.
+     */
+    public List<T> getFilasActuales() {
+        List<T> filas = getWrappedData();
+        return filas != null ? filas : List.of();
+    }
+
+    /**
+     * Sustituye en la página cargada la fila con la misma clave, sin volver a pedir la página.
+     *
+     * @return posición de la fila dentro de la página, o -1 si no está en la página cargada
+     */
+    public int reemplazarFila(T fila) {
+        List<T> filas = new ArrayList<>(getFilasActuales());
+        int posicion = posicionDe(getRowKey(fila));
+        if (posicion >= 0) {
+            filas.set(posicion, fila);
+            setWrappedData(filas);
+        }
+        return posicion;
+    }
+
+    /**
+     * @return posición dentro de la página cargada de la fila con esa clave, o -1 si no está
+     */
+    public int posicionDe(String rowKey) {
+        List<T> filas = getFilasActuales();
+        for (int i = 0; i < filas.size(); i++) {
+            if (Objects.equals(getRowKey(filas.get(i)), rowKey)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Vuelve a renderizar solo una fila de la página visible.
+     *
+     * @param idTabla  id de cliente absoluto de la tabla
+     * @param posicion posición de la fila dentro de la página, como la devuelve {@link #posicionDe(String)}
+     */
+    public static void actualizarFila(String idTabla, int posicion) {
+        UIComponent tabla = FacesContext.getCurrentInstance().getViewRoot().findComponent(idTabla);
+        if (tabla instanceof DataTable dataTable) {
+            PrimeFaces.current().ajax().update(idTabla + ":@row(" + (dataTable.getFirst() + posicion) + ")");
+        }
+    }
+
+    /**
+     * Vuelve a renderizar, en una sola respuesta, las filas de la página visible
+     * que correspondan a los elementos dados; el resto de la tabla no se toca.
+     */
+    public void actualizarFilas(String idTabla, Collection<T> filas) {
+        for (T fila : filas) {
+            int posicion = posicionDe(getRowKey(fila));
+            if (posicion >= 0) {
+                actualizarFila(idTabla, posicion);
+            }
+        }
+    }
+
+    /**
+     * Ordena en memoria por la columna que pidió la tabla, para páginas que no
+     * vienen ordenadas del backend (p. ej. las que salen del índice de búsqueda).
+     * Sin orden, o con un campo que no está en campos, se deja el orden recibido.
+     *
+     * @param campos valor de cada campo ordenable, por el nombre que usa sortBy en la vista
+     */
+    public static <T> List<T> ordenar(List<T> filas, ConsultaPaginada consulta,
+                                      Map<String, Function<T, String>> campos) {
+        Function<T, String> campo = consulta.getOrden() != null ? campos.get(consulta.getOrden()) : null;
+        if (campo == null) {
+            return filas;
+        }
+        Comparator<T> comparador = Comparator.comparing(campo, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+        List<T> ordenadas = new ArrayList<>(filas);
+        ordenadas.sort(consulta.isDescendente() ? comparador.reversed() : comparador);
+        return ordenadas;
+    }
+
+    /**
+     * Vuelve a la primera página, p. ej. tras cambiar el criterio de búsqueda.
+     *
+     * @param idTabla id de cliente absoluto de la tabla, p. ej. ":formProductos:tablaProductos"
+     */
+    public static void irAPrimeraPagina(String idTabla) {
+        UIComponent tabla = FacesContext.getCurrentInstance().getViewRoot().findComponent(idTabla);
+        if (tabla instanceof DataTable dataTable) {
+            dataTable.setFirst(0);
+        }
+    }
+}
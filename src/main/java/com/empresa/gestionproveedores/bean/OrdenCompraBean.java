@@ -1,13 +1,23 @@
 package com.empresa.gestionproveedores.bean;
 
+import com.empresa.gestionproveedores.config.ApiConfig;
 import com.empresa.gestionproveedores.dto.*;
+import com.empresa.gestionproveedores.event.CatalogoModificadoEvent;
 import com.empresa.gestionproveedores.exception.ServiceException;
+import com.empresa.gestionproveedores.jfr.InicializacionMedida;
+import com.empresa.gestionproveedores.push.NotificadorOrdenes;
+import com.empresa.gestionproveedores.search.IndiceCatalogo;
 import com.empresa.gestionproveedores.service.OrdenCompraService;
 import com.empresa.gestionproveedores.service.ProductoService;
 import com.empresa.gestionproveedores.service.ProveedorService;
+import com.empresa.gestionproveedores.servlet.ExportacionServlet;
+import com.empresa.gestionproveedores.util.CargaParalela;
+import com.empresa.gestionproveedores.util.LoteConcurrente;
 import jakarta.annotation.PostConstruct;
 import jakarta.faces.application.FacesMessage;
+import jakarta.faces.component.UIComponent;
 import jakarta.faces.context.FacesContext;
+import jakarta.faces.convert.Converter;
 import jakarta.faces.view.ViewScoped;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
@@ -21,10 +31,21 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Named("ordenCompraBean")
 @ViewScoped
+@InicializacionMedida
 @Slf4j
 public class OrdenCompraBean implements Serializable {
 
@@ -32,23 +53,29 @@ public class OrdenCompraBean implements Serializable {
 
     private static final BigDecimal IVA_PORCENTAJE = new BigDecimal("0.12");
     private static final DateTimeFormatter DF_DDMMYYYY = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final String TABLA = ":formOrdenes:tablaOrdenes";
 
     @Inject private OrdenCompraService ordenCompraService;
+    @Inject private NotificadorOrdenes notificadorOrdenes;
     @Inject private ProveedorService proveedorService;
     @Inject private ProductoService productoService;
+    @Inject private IndiceCatalogo indiceCatalogo;
+    @Inject private ApiConfig apiConfig;
 
-    @Getter @Setter
-    private List<OrdenCompraDTO> ordenes;
+    @Getter
+    private ModeloPaginado<OrdenCompraDTO> ordenes;
 
     @Getter @Setter
     private OrdenCompraDTO ordenSeleccionada;
 
     @Getter @Setter
-    private List<ProveedorDTO> proveedoresDisponibles;
+    private List<OrdenCompraDTO> seleccionadas = new ArrayList<>();
+
+    @Getter
+    private List<LoteConcurrente.Resultado<OrdenCompraDTO>> resultadosLote = List.of();
 
-    // Lista dinámica de productos según proveedor
     @Getter @Setter
-    private List<ProductoDTO> productosDisponibles;
+    private List<ProveedorDTO> proveedoresDisponibles;
 
     // Filtros
     @Getter @Setter
@@ -62,25 +89,53 @@ public class OrdenCompraBean implements Serializable {
 
     // Campos para agregar detalle (solo cantidad y producto)
     @Getter @Setter
-    private Long detalleProductoId;
+    private ProductoDTO detalleProducto;
 
     @Getter @Setter
     private Integer detalleCantidad;
 
+    // Selector de productos: solo se piden las coincidencias del texto tecleado
+    @Getter
+    private final Converter<ProductoDTO> conversorProducto = new ConversorProducto();
+    // Sugerencias mostradas en la última búsqueda, para resolver la selección sin ir al backend
+    private final Map<Long, ProductoDTO> sugeridos = new ConcurrentHashMap<>();
+    // Cada búsqueda incrementa la generación; la respuesta de una generación anterior se descarta
+    private final AtomicLong generacionSugerencias = new AtomicLong();
+    private transient volatile CompletableFuture<?> sugerenciaEnCurso;
+    private int maxSugerencias;
+    private long plazoSugerencias;
+
     @PostConstruct
     public void init() {
+        maxSugerencias = (int) apiConfig.leerLong("search.suggest.max-results", 15);
+        plazoSugerencias = apiConfig.leerLong("search.suggest.timeout", 3000);
+        // La tabla pide al backend solo la página visible al renderizarse
+        ordenes = new ModeloPaginado<>(ordenCompraService::listarPaginado, OrdenCompraDTO::getId,
+                this::filtrosBusqueda);
         try {
-            cargarOrdenes();
-            proveedoresDisponibles = proveedorService.listarActivos();
-            productosDisponibles = new ArrayList<>(); // Vacía hasta elegir proveedor
-            if (ordenSeleccionada == null) {
-                ordenSeleccionada = nuevaOrdenPorDefecto(true);
+            // Proveedores y número de orden son independientes: se lanzan a la vez con un plazo común
+            CargaParalela carga = new CargaParalela();
+            CargaParalela.Tarea<List<ProveedorDTO>> tProveedores =
+                    carga.lanzar("proveedores", proveedorService::listarActivos, ArrayList::new);
+            CargaParalela.Tarea<String> tNumero = ordenSeleccionada == null
+                    ? carga.lanzar("número de orden", ordenCompraService::generarNumeroOrden, () -> null)
+                    : null;
+            carga.esperar();
+
+            proveedoresDisponibles = tProveedores.resultado();
+            if (tNumero != null) {
+                ordenSeleccionada = nuevaOrdenPorDefecto(false);
+                ordenSeleccionada.setNumeroOrden(tNumero.resultado());
+                if (tNumero.isFallida()) {
+                    log.warn("No se pudo generar número automático", tNumero.getError());
+                }
+            }
+            if (tProveedores.isFallida()) {
+                mostrarMensajeError("Error al cargar datos iniciales");
             }
         } catch (Exception e) {
             log.error("Error al inicializar OrdenCompraBean", e);
-            ordenes = new ArrayList<>();
             proveedoresDisponibles = new ArrayList<>();
-            productosDisponibles = new ArrayList<>();
             mostrarMensajeError("Error al cargar datos iniciales");
         }
     }
@@ -105,8 +160,7 @@ public class OrdenCompraBean implements Serializable {
 
     public void prepararNuevo() {
         ordenSeleccionada = nuevaOrdenPorDefecto(true);
-        productosDisponibles = new ArrayList<>();
-        detalleProductoId = null;
+        detalleProducto = null;
         detalleCantidad = null;
     }
 
@@ -115,17 +169,20 @@ public class OrdenCompraBean implements Serializable {
             mostrarMensajeAdvertencia("Orden inválida");
             return;
         }
-        OrdenCompraDTO completa = ordenCompraService.buscarPorId(o.getId());
+        // Los productos del proveedor los busca el selector a medida que se teclea
+        OrdenCompraDTO completa = null;
+        try {
+            completa = ordenCompraService.buscarPorId(o.getId());
+        } catch (ServiceException e) {
+            log.error("Error al cargar la orden {}", o.getId(), e);
+            mostrarMensajeAdvertencia("No se pudo cargar: orden");
+        }
         ordenSeleccionada = (completa != null) ? completa : o;
         if (ordenSeleccionada.getDetalles() == null) {
             ordenSeleccionada.setDetalles(new ArrayList<>());
         }
-        // Cargar productos del proveedor actual (si tiene proveedor asignado)
-        if (ordenSeleccionada.getProveedorId() != null) {
-            productosDisponibles = productoService.buscarPorProveedor(ordenSeleccionada.getProveedorId());
-        } else {
-            productosDisponibles = new ArrayList<>();
-        }
+        detalleProducto = null;
+        detalleCantidad = null;
         recalcularTotales();
     }
 
@@ -140,7 +197,6 @@ public class OrdenCompraBean implements Serializable {
                 ordenSeleccionada = ordenCompraService.actualizar(ordenSeleccionada.getId(), ordenSeleccionada);
                 mostrarMensajeExito("Orden actualizada exitosamente");
             }
-            cargarOrdenes();
             PrimeFaces.current().executeScript("PF('dlgOrden').hide();");
         } catch (ServiceException e) {
             log.error("Error al guardar orden", e);
@@ -151,7 +207,6 @@ public class OrdenCompraBean implements Serializable {
     public void eliminar(OrdenCompraDTO o) {
         try {
             ordenCompraService.eliminar(o.getId());
-            cargarOrdenes();
             mostrarMensajeExito("Orden eliminada exitosamente");
         } catch (ServiceException e) {
             log.error("Error al eliminar orden", e);
@@ -163,6 +218,7 @@ public class OrdenCompraBean implements Serializable {
         try {
             ordenCompraService.cambiarEstado(o.getId(), nuevoEstado);
             o.setEstado(nuevoEstado);
+            actualizarFilaVisible(o.getId());
             mostrarMensajeExito("Estado cambiado a " + nuevoEstado);
         } catch (ServiceException e) {
             log.error("Error al cambiar estado", e);
@@ -170,82 +226,279 @@ public class OrdenCompraBean implements Serializable {
         }
     }
 
-    public void buscar() {
+    // ----------------- Operaciones masivas -----------------
+
+    /**
+     * Cambia el estado de las órdenes seleccionadas con llamadas concurrentes
+     * acotadas y, al final, parchea en memoria solo las filas aceptadas por el
+     * backend y las vuelve a renderizar, sin pedir de nuevo la página.
+     */
+    public void cambiarEstadoSeleccionadas(String nuevoEstado) {
+        List<OrdenCompraDTO> lote = loteSeleccionado();
+        if (lote.isEmpty()) {
+            return;
+        }
+        resultadosLote = new LoteConcurrente(apiConfig.getLoteMaxEnCurso())
+                .ejecutar(lote, OrdenCompraDTO::getNumeroOrden,
+                        o -> ordenCompraService.cambiarEstado(o.getId(), nuevoEstado));
+        List<OrdenCompraDTO> aceptadas = exitosos(resultadosLote);
+        aceptadas.forEach(o -> o.setEstado(nuevoEstado));
+        ordenes.actualizarFilas(TABLA, aceptadas);
+        informarLote("cambiadas a " + nuevoEstado);
+    }
+
+    /**
+     * Elimina las órdenes seleccionadas. Como cambian las filas que forman la
+     * página, al final se pide una sola vez la página visible.
+     */
+    public void eliminarSeleccionadas() {
+        List<OrdenCompraDTO> lote = loteSeleccionado();
+        if (lote.isEmpty()) {
+            return;
+        }
+        resultadosLote = new LoteConcurrente(apiConfig.getLoteMaxEnCurso())
+                .ejecutar(lote, OrdenCompraDTO::getNumeroOrden, o -> ordenCompraService.eliminar(o.getId()));
+        if (!exitosos(resultadosLote).isEmpty()) {
+            PrimeFaces.current().ajax().update(TABLA);
+        }
+        informarLote("eliminadas");
+    }
+
+    private List<OrdenCompraDTO> loteSeleccionado() {
+        if (seleccionadas == null || seleccionadas.isEmpty()) {
+            mostrarMensajeAdvertencia("Seleccione al menos una orden");
+            return List.of();
+        }
+        return new ArrayList<>(seleccionadas);
+    }
+
+    private static <T> List<T> exitosos(List<LoteConcurrente.Resultado<T>> resultados) {
+        return resultados.stream()
+                .filter(LoteConcurrente.Resultado::isExito)
+                .map(LoteConcurrente.Resultado::getElemento)
+                .toList();
+    }
+
+    /**
+     * Un solo mensaje con el resumen; si hubo fallos se abre el detalle por elemento.
+     */
+    private void informarLote(String accion) {
+        long correctas = resultadosLote.stream().filter(LoteConcurrente.Resultado::isExito).count();
+        long fallidas = resultadosLote.size() - correctas;
+        seleccionadas = new ArrayList<>();
+        if (fallidas == 0) {
+            mostrarMensajeExito(correctas + " " + accion);
+            return;
+        }
+        mostrarMensajeAdvertencia(correctas + " " + accion + ", " + fallidas + " con error");
+        PrimeFaces.current().ajax().update(":dialogResultadoLote");
+        PrimeFaces.current().executeScript("PF('dlgResultadoLote').show();");
+    }
+
+    /**
+     * Aplica un cambio difundido por el canal websocket de órdenes (ver
+     * NotificadorOrdenes). Los parámetros llegan del p:remoteCommand de la página.
+     * Solo se vuelve a renderizar la fila afectada, con la orden que conserva
+     * el notificador (sin una llamada al backend por vista); altas y bajas cambian qué
+     * filas forman la página y se resuelven pidiendo solo la página visible.
+     */
+    public void aplicarCambioRemoto() {
+        Map<String, String> params =
+                FacesContext.getCurrentInstance().getExternalContext().getRequestParameterMap();
+        Long id;
+        CatalogoModificadoEvent.Operacion operacion;
         try {
-            if (estadoFiltro != null && !estadoFiltro.isBlank()) {
-                ordenes = ordenCompraService.listarPorEstado(estadoFiltro);
-            } else if (fechaInicio != null && fechaFin != null) {
-                ordenes = ordenCompraService.listarPorRangoFechas(fechaInicio, fechaFin);
-            } else {
-                cargarOrdenes();
+            id = Long.valueOf(params.get("id"));
+            operacion = CatalogoModificadoEvent.Operacion.valueOf(params.get("operacion"));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.debug("Aviso de orden ignorado: {}", params);
+            return;
+        }
+        int posicion = ordenes.posicionDe(id.toString());
+        switch (operacion) {
+            case CREAR -> PrimeFaces.current().ajax().update(TABLA);
+            case ELIMINAR -> {
+                if (posicion >= 0) {
+                    PrimeFaces.current().ajax().update(TABLA);
+                }
+            }
+            case CAMBIAR_ESTADO -> {
+                String estado = params.get("estado");
+                if (posicion >= 0 && estado != null && !estado.isBlank()) {
+                    ordenes.getFilasActuales().get(posicion).setEstado(estado);
+                    ModeloPaginado.actualizarFila(TABLA, posicion);
+                }
+            }
+            case ACTUALIZAR -> {
+                if (posicion >= 0) {
+                    try {
+                        OrdenCompraDTO actual = notificadorOrdenes.ultimaVersion(id);
+                        if (actual != null && ordenes.reemplazarFila(actual) >= 0) {
+                            ModeloPaginado.actualizarFila(TABLA, posicion);
+                        }
+                    } catch (ServiceException e) {
+                        log.warn("No se pudo refrescar la orden {}: {}", id, e.getMessage());
+                    }
+                }
             }
-        } catch (ServiceException e) {
-            log.error("Error en búsqueda", e);
-            mostrarMensajeError("Error en búsqueda: " + e.getMessage());
         }
     }
 
+    private void actualizarFilaVisible(Long id) {
+        int posicion = ordenes.posicionDe(String.valueOf(id));
+        if (posicion >= 0) {
+            ModeloPaginado.actualizarFila(TABLA, posicion);
+        }
+    }
+
+    /**
+     * Estado y rango de fechas se combinan como filtros de la consulta paginada;
+     * solo hay que volver a la primera página.
+     */
+    public void buscar() {
+        ModeloPaginado.irAPrimeraPagina(TABLA);
+    }
+
     public void limpiarFiltros() {
         estadoFiltro = null;
         fechaInicio = null;
         fechaFin = null;
-        cargarOrdenes();
+        ModeloPaginado.irAPrimeraPagina(TABLA);
     }
 
-    public void cargarOrdenes() {
-        try {
-            ordenes = ordenCompraService.listarTodas();
-        } catch (ServiceException e) {
-            log.error("Error al cargar órdenes", e);
-            ordenes = new ArrayList<>();
-            mostrarMensajeError("Error al cargar órdenes: " + e.getMessage());
-        }
+    /**
+     * Descarga con los mismos filtros que la tabla (los aplicados con Buscar).
+     */
+    public String urlExportacion(String formato) {
+        return ExportacionServlet.ruta("ordenes." + formato, filtrosBusqueda());
+    }
+
+    private Map<String, String> filtrosBusqueda() {
+        Map<String, String> filtros = new LinkedHashMap<>();
+        filtros.put("estado", estadoFiltro);
+        filtros.put("fechaInicio", fechaInicio != null ? fechaInicio.toString() : null);
+        filtros.put("fechaFin", fechaFin != null ? fechaFin.toString() : null);
+        return filtros;
     }
 
     // ----------------- Dinámica de productos según proveedor -----------------
     public void onProveedorChange() {
+        detalleProducto = null;
+        detalleCantidad = null;
         if (ordenSeleccionada.getProveedorId() == null) {
-            productosDisponibles = new ArrayList<>();
             ordenSeleccionada.getDetalles().clear();
-            detalleProductoId = null;
-            detalleCantidad = null;
             recalcularTotales();
-            return;
         }
+    }
+
+    /**
+     * Sugerencias del selector de productos: coincidencias del proveedor de la
+     * orden, como mucho search.suggest.max-results. Salen del índice en memoria
+     * o, mientras no está listo, de una página del backend.
+     * Una búsqueda nueva cancela la que siga en curso; si aun así termina
+     * después, su resultado se descarta (el navegador tampoco lo mostraría).
+     */
+    public List<ProductoDTO> completarProducto(String texto) {
+        long generacion = generacionSugerencias.incrementAndGet();
+        CompletableFuture<?> anterior = sugerenciaEnCurso;
+        if (anterior != null) {
+            anterior.cancel(true);
+        }
+        Long proveedorId = ordenSeleccionada != null ? ordenSeleccionada.getProveedorId() : null;
+        if (proveedorId == null || texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        List<ProductoDTO> encontrados = indiceCatalogo.isListo()
+                ? indiceCatalogo.buscarProductosDeProveedor(proveedorId, texto, maxSugerencias)
+                : sugerenciasDelBackend(proveedorId, texto);
+        if (generacion != generacionSugerencias.get()) {
+            return List.of();
+        }
+        sugeridos.clear();
+        encontrados.forEach(p -> sugeridos.put(p.getId(), p));
+        return encontrados;
+    }
+
+    private List<ProductoDTO> sugerenciasDelBackend(Long proveedorId, String texto) {
+        Map<String, String> filtros = new LinkedHashMap<>();
+        filtros.put("proveedorId", proveedorId.toString());
+        filtros.put("busqueda", texto.trim());
+        CompletableFuture<PaginaDTO<ProductoDTO>> futuro = productoService.listarPaginadoAsync(
+                ConsultaPaginada.builder().tamanio(maxSugerencias).orden("nombre").filtros(filtros).build());
+        sugerenciaEnCurso = futuro;
         try {
-            productosDisponibles = productoService.buscarPorProveedor(ordenSeleccionada.getProveedorId());
-            detalleProductoId = null;
-            detalleCantidad = null;
-        } catch (ServiceException e) {
-            log.error("Error al cargar productos del proveedor", e);
-            productosDisponibles = new ArrayList<>();
-            mostrarMensajeError("Error al cargar productos del proveedor");
+            PaginaDTO<ProductoDTO> pagina = futuro.get(plazoSugerencias, TimeUnit.MILLISECONDS);
+            return pagina != null && pagina.getContent() != null ? pagina.getContent() : List.of();
+        } catch (CancellationException e) {
+            // Una pulsación posterior la sustituyó
+            return List.of();
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            log.warn("La búsqueda de productos '{}' superó {} ms", texto, plazoSugerencias);
+            return List.of();
+        } catch (ExecutionException e) {
+            log.error("Error al buscar productos del proveedor", e.getCause());
+            return List.of();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futuro.cancel(true);
+            return List.of();
+        }
+    }
+
+    /**
+     * Convierte entre el producto elegido y su id en el formulario.
+     */
+    private class ConversorProducto implements Converter<ProductoDTO>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public ProductoDTO getAsObject(FacesContext context, UIComponent component, String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            Long id;
+            try {
+                id = Long.valueOf(value);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            ProductoDTO sugerido = sugeridos.get(id);
+            if (sugerido != null) {
+                return sugerido;
+            }
+            if (detalleProducto != null && id.equals(detalleProducto.getId())) {
+                return detalleProducto;
+            }
+            return productoService.buscarPorId(id);
+        }
+
+        @Override
+        public String getAsString(FacesContext context, UIComponent component, ProductoDTO value) {
+            return value != null && value.getId() != null ? value.getId().toString() : "";
         }
     }
 
     // ----------------- Detalles -----------------
     public void agregarDetalle() {
-        if (detalleProductoId == null) {
+        ProductoDTO prod = detalleProducto;
+        if (prod == null) {
             mostrarMensajeAdvertencia("Seleccione un producto"); return;
         }
         if (detalleCantidad == null || detalleCantidad < 1) {
             mostrarMensajeAdvertencia("La cantidad debe ser mayor a 0"); return;
         }
 
-        ProductoDTO prod = productosDisponibles.stream()
-                .filter(p -> p.getId().equals(detalleProductoId))
-                .findFirst()
-                .orElse(null);
-
-        if (prod == null) {
-            mostrarMensajeAdvertencia("Producto no encontrado");
+        if (!Objects.equals(prod.getProveedorId(), ordenSeleccionada.getProveedorId())) {
+            mostrarMensajeAdvertencia("El producto no pertenece al proveedor seleccionado");
             return;
         }
 
         BigDecimal precioUnitario = prod.getPrecio() != null ? prod.getPrecio() : BigDecimal.ZERO;
 
         DetalleOrdenDTO det = new DetalleOrdenDTO();
-        det.setProductoId(detalleProductoId);
+        det.setProductoId(prod.getId());
         det.setCantidad(detalleCantidad);
         det.setPrecioUnitario(precioUnitario);
         det.setSubtotal(precioUnitario.multiply(new BigDecimal(detalleCantidad)));
@@ -261,7 +514,7 @@ public class OrdenCompraBean implements Serializable {
 
         ordenSeleccionada.getDetalles().add(det);
 
-        detalleProductoId = null;
+        detalleProducto = null;
         detalleCantidad = null;
         recalcularTotales();
     }
@@ -1,10 +1,19 @@
 package com.empresa.gestionproveedores.bean;
 
+import com.empresa.gestionproveedores.config.ApiConfig;
+import com.empresa.gestionproveedores.dto.ConsultaPaginada;
+import com.empresa.gestionproveedores.dto.PaginaDTO;
 import com.empresa.gestionproveedores.dto.ProductoDTO;
 import com.empresa.gestionproveedores.dto.ProveedorDTO;
 import com.empresa.gestionproveedores.exception.ServiceException;
+import com.empresa.gestionproveedores.jfr.InicializacionMedida;
+import com.empresa.gestionproveedores.search.IndiceCatalogo;
 import com.empresa.gestionproveedores.service.ProductoService;
 import com.empresa.gestionproveedores.service.ProveedorService;
+import com.empresa.gestionproveedores.servlet.ExportacionServlet;
+import com.empresa.gestionproveedores.stats.EstadisticasDashboard;
+import com.empresa.gestionproveedores.util.LoteConcurrente;
+import com.empresa.gestionproveedores.util.ValidadorProducto;
 import jakarta.annotation.PostConstruct;
 import jakarta.faces.application.FacesMessage;
 import jakarta.faces.context.FacesContext;
@@ -19,23 +28,44 @@ import org.primefaces.PrimeFaces;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Named("productoBean")
 @ViewScoped
+@InicializacionMedida
 @Slf4j
 public class ProductoBean implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    private static final String TABLA = ":formProductos:tablaProductos";
+
+    /** Columnas ordenables de la tabla, para las páginas que salen del índice de búsqueda. */
+    private static final Map<String, Function<ProductoDTO, String>> ORDEN_INDICE = Map.of(
+            "codigo", ProductoDTO::getCodigo,
+            "nombre", ProductoDTO::getNombre,
+            "proveedorRazonSocial", ProductoDTO::getProveedorRazonSocial);
+
     @Inject
     private ProductoService productoService;
 
     @Inject
     private ProveedorService proveedorService;
 
-    @Getter @Setter
-    private List<ProductoDTO> productos;
+    @Inject
+    private IndiceCatalogo indiceCatalogo;
+
+    @Inject
+    private EstadisticasDashboard estadisticas;
+
+    @Inject
+    private ApiConfig apiConfig;
+
+    @Getter
+    private ModeloPaginado<ProductoDTO> productos;
 
     @Getter @Setter
     private ProductoDTO productoSeleccionado;
@@ -46,10 +76,18 @@ public class ProductoBean implements Serializable {
     @Getter @Setter
     private String criterioBusqueda;
 
+    @Getter @Setter
+    private List<ProductoDTO> seleccionados = new ArrayList<>();
+
+    @Getter
+    private List<LoteConcurrente.Resultado<ProductoDTO>> resultadosLote = List.of();
+
     @PostConstruct
     public void init() {
+        // La tabla pide al backend solo la página visible al renderizarse
+        productos = new ModeloPaginado<>(this::consultarPagina, ProductoDTO::getId,
+                () -> Collections.singletonMap("busqueda", criterioBusqueda));
         try {
-            cargarProductos();
             proveedoresDisponibles = proveedorService.listarActivos();
             if (productoSeleccionado == null) {
                 productoSeleccionado = new ProductoDTO();
@@ -59,7 +97,6 @@ public class ProductoBean implements Serializable {
             log.info("ProductoBean inicializado correctamente");
         } catch (Exception e) {
             log.error("Error al inicializar ProductoBean", e);
-            productos = new ArrayList<>();
             proveedoresDisponibles = new ArrayList<>();
             mostrarMensajeError("Error al cargar datos iniciales");
         }
@@ -98,7 +135,6 @@ public class ProductoBean implements Serializable {
                 productoService.actualizar(productoSeleccionado.getId(), productoSeleccionado);
                 mostrarMensajeExito("Producto actualizado exitosamente");
             }
-            cargarProductos();
             PrimeFaces.current().executeScript("PF('dlgProducto').hide();");
         } catch (ServiceException e) {
             log.error("Error al guardar producto", e);
@@ -109,7 +145,6 @@ public class ProductoBean implements Serializable {
     public void eliminar(ProductoDTO producto) {
         try {
             productoService.eliminar(producto.getId());
-            cargarProductos();
             mostrarMensajeExito("Producto eliminado exitosamente");
         } catch (ServiceException e) {
             log.error("Error al eliminar producto", e);
@@ -129,42 +164,132 @@ public class ProductoBean implements Serializable {
         }
     }
 
-    public void buscar() {
-        try {
-            if (criterioBusqueda != null && !criterioBusqueda.trim().isEmpty()) {
-                productos = productoService.buscarPorNombre(criterioBusqueda.trim());
-            } else {
-                cargarProductos();
-            }
-        } catch (ServiceException e) {
-            log.error("Error al buscar productos", e);
-            mostrarMensajeError("Error en búsqueda: " + e.getMessage());
+    // ----------------- Operaciones masivas -----------------
+
+    public void activarSeleccionados() {
+        cambiarEstadoSeleccionados(true);
+    }
+
+    public void desactivarSeleccionados() {
+        cambiarEstadoSeleccionados(false);
+    }
+
+    /**
+     * Cambia el estado de las filas seleccionadas con llamadas concurrentes
+     * acotadas y, al final, parchea en memoria solo las filas aceptadas por el
+     * backend y las vuelve a renderizar, sin pedir de nuevo la página.
+     */
+    private void cambiarEstadoSeleccionados(boolean activo) {
+        List<ProductoDTO> lote = loteSeleccionado();
+        if (lote.isEmpty()) {
+            return;
         }
+        resultadosLote = new LoteConcurrente(apiConfig.getLoteMaxEnCurso())
+                .ejecutar(lote, ProductoBean::etiqueta, p -> productoService.cambiarEstado(p.getId(), activo));
+        List<ProductoDTO> aceptados = exitosos(resultadosLote);
+        aceptados.forEach(p -> p.setActivo(activo));
+        productos.actualizarFilas(TABLA, aceptados);
+        informarLote(activo ? "activados" : "desactivados");
+    }
+
+    /**
+     * Elimina las filas seleccionadas. Como cambian las filas que forman la
+     * página, al final se pide una sola vez la página visible.
+     */
+    public void eliminarSeleccionados() {
+        List<ProductoDTO> lote = loteSeleccionado();
+        if (lote.isEmpty()) {
+            return;
+        }
+        resultadosLote = new LoteConcurrente(apiConfig.getLoteMaxEnCurso())
+                .ejecutar(lote, ProductoBean::etiqueta, p -> productoService.eliminar(p.getId()));
+        if (!exitosos(resultadosLote).isEmpty()) {
+            PrimeFaces.current().ajax().update(TABLA);
+        }
+        informarLote("eliminados");
+    }
+
+    private List<ProductoDTO> loteSeleccionado() {
+        if (seleccionados == null || seleccionados.isEmpty()) {
+            mostrarMensajeAdvertencia("Seleccione al menos un producto");
+            return List.of();
+        }
+        return new ArrayList<>(seleccionados);
+    }
+
+    private static String etiqueta(ProductoDTO p) {
+        return p.getCodigo() + " - " + p.getNombre();
+    }
+
+    private static <T> List<T> exitosos(List<LoteConcurrente.Resultado<T>> resultados) {
+        return resultados.stream()
+                .filter(LoteConcurrente.Resultado::isExito)
+                .map(LoteConcurrente.Resultado::getElemento)
+                .toList();
+    }
+
+    /**
+     * Un solo mensaje con el resumen; si hubo fallos se abre el detalle por elemento.
+     */
+    private void informarLote(String accion) {
+        long correctos = resultadosLote.stream().filter(LoteConcurrente.Resultado::isExito).count();
+        long fallidos = resultadosLote.size() - correctos;
+        seleccionados = new ArrayList<>();
+        if (fallidos == 0) {
+            mostrarMensajeExito(correctos + " " + accion);
+            return;
+        }
+        mostrarMensajeAdvertencia(correctos + " " + accion + ", " + fallidos + " con error");
+        PrimeFaces.current().ajax().update(":dialogResultadoLote");
+        PrimeFaces.current().executeScript("PF('dlgResultadoLote').show();");
+    }
+
+    /**
+     * El criterio viaja como filtro de la consulta paginada; solo hay que volver a la primera página.
+     */
+    public void buscar() {
+        ModeloPaginado.irAPrimeraPagina(TABLA);
     }
 
     public void limpiarBusqueda() {
         criterioBusqueda = "";
-        cargarProductos();
+        ModeloPaginado.irAPrimeraPagina(TABLA);
     }
 
-    public void cargarProductos() {
-        try {
-            productos = productoService.listarTodos();
-        } catch (ServiceException e) {
-            log.error("Error al cargar productos", e);
-            productos = new ArrayList<>();
-            mostrarMensajeError("Error al cargar productos: " + e.getMessage());
+    /**
+     * Descarga con el criterio de búsqueda aplicado en la tabla.
+     */
+    public String urlExportacion(String formato) {
+        return ExportacionServlet.ruta("productos." + formato,
+                Collections.singletonMap("busqueda", criterioBusqueda));
+    }
+
+    /**
+     * Con criterio de búsqueda y el índice cargado, la página sale del índice en
+     * memoria, ordenada por la columna elegida. Sin índice, o si la búsqueda
+     * coincide con más filas de las que el índice devuelve, sale del backend.
+     */
+    private PaginaDTO<ProductoDTO> consultarPagina(ConsultaPaginada consulta) {
+        String criterio = consulta.getFiltros().get("busqueda");
+        if (criterio != null && !criterio.isBlank() && indiceCatalogo.isListo()) {
+            List<ProductoDTO> encontrados = indiceCatalogo.buscarProductos(criterio);
+            if (encontrados != null) {
+                return PaginaDTO.de(ModeloPaginado.ordenar(encontrados, consulta, ORDEN_INDICE),
+                        consulta.getPagina(), consulta.getTamanio());
+            }
         }
+        return productoService.listarPaginado(consulta);
     }
 
     public int getTotalProductos() {
-        return productos != null ? productos.size() : 0;
+        return productos != null ? productos.getRowCount() : 0;
     }
 
+    /**
+     * Sale de los contadores de la aplicación, sin ir al backend.
+     */
     public long getTotalProductosActivos() {
-        return productos != null
-                ? productos.stream().filter(p -> Boolean.TRUE.equals(p.getActivo())).count()
-                : 0;
+        return estadisticas.getResumen().getProductosActivos();
     }
 
     public String getTituloDialogo() {
@@ -174,21 +299,10 @@ public class ProductoBean implements Serializable {
     }
 
     private boolean validarProducto() {
-        if (productoSeleccionado.getCodigo() == null || productoSeleccionado.getCodigo().isBlank()) {
-            mostrarMensajeAdvertencia("El código es obligatorio"); return false;
-        }
-        if (productoSeleccionado.getNombre() == null || productoSeleccionado.getNombre().isBlank()) {
-            mostrarMensajeAdvertencia("El nombre es obligatorio"); return false;
-        }
-        if (productoSeleccionado.getUnidadMedida() == null || productoSeleccionado.getUnidadMedida().isBlank()) {
-            mostrarMensajeAdvertencia("La unidad de medida es obligatoria"); return false;
-        }
-        if (productoSeleccionado.getPrecio() == null ||
-                productoSeleccionado.getPrecio().compareTo(BigDecimal.valueOf(0.01)) < 0) {
-            mostrarMensajeAdvertencia("El precio debe ser mayor a 0"); return false;
-        }
-        if (productoSeleccionado.getProveedorId() == null) {
-            mostrarMensajeAdvertencia("Debe seleccionar un proveedor"); return false;
+        String error = ValidadorProducto.validar(productoSeleccionado);
+        if (error != null) {
+            mostrarMensajeAdvertencia(error);
+            return false;
         }
         return true;
     }
@@ -3,8 +3,10 @@ package com.empresa.gestionproveedores.bean;
 import com.empresa.gestionproveedores.dto.ProductoDTO;
 import com.empresa.gestionproveedores.dto.ProveedorDTO;
 import com.empresa.gestionproveedores.exception.ServiceException;
+import com.empresa.gestionproveedores.jfr.InicializacionMedida;
 import com.empresa.gestionproveedores.service.ProductoService;
 import com.empresa.gestionproveedores.service.ProveedorService;
+import com.empresa.gestionproveedores.util.ValidadorProducto;
 import jakarta.annotation.PostConstruct;
 import jakarta.faces.application.FacesMessage;
 import jakarta.faces.context.FacesContext;
@@ -27,6 +29,7 @@ import java.util.Map;
  */
 @Named("productoDialogView")
 @ViewScoped
+@InicializacionMedida
 @Slf4j
 public class ProductoDialogView implements Serializable {
 
@@ -147,31 +150,11 @@ public class ProductoDialogView implements Serializable {
     }
 
     private boolean validarProducto() {
-        if (producto.getCodigo() == null || producto.getCodigo().trim().isEmpty()) {
-            mostrarMensajeAdvertencia("El código es obligatorio");
+        String error = ValidadorProducto.validar(producto);
+        if (error != null) {
+            mostrarMensajeAdvertencia(error);
             return false;
         }
-
-        if (producto.getNombre() == null || producto.getNombre().trim().isEmpty()) {
-            mostrarMensajeAdvertencia("El nombre es obligatorio");
-            return false;
-        }
-
-        if (producto.getUnidadMedida() == null || producto.getUnidadMedida().trim().isEmpty()) {
-            mostrarMensajeAdvertencia("La unidad de medida es obligatoria");
-            return false;
-        }
-
-        if (producto.getPrecio() == null || producto.getPrecio().compareTo(BigDecimal.ZERO) <= 0) {
-            mostrarMensajeAdvertencia("El precio debe ser mayor a 0");
-            return false;
-        }
-
-        if (producto.getProveedorId() == null) {
-            mostrarMensajeAdvertencia("Debe seleccionar un proveedor");
-            return false;
-        }
-
         return true;
     }
 
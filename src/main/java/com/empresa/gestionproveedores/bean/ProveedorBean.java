@@ -1,8 +1,15 @@
 package com.empresa.gestionproveedores.bean;
 
+import com.empresa.gestionproveedores.config.ApiConfig;
+import com.empresa.gestionproveedores.dto.ConsultaPaginada;
+import com.empresa.gestionproveedores.dto.PaginaDTO;
 import com.empresa.gestionproveedores.dto.ProveedorDTO;
 import com.empresa.gestionproveedores.exception.ServiceException;
+import com.empresa.gestionproveedores.jfr.InicializacionMedida;
+import com.empresa.gestionproveedores.search.IndiceCatalogo;
 import com.empresa.gestionproveedores.service.ProveedorService;
+import com.empresa.gestionproveedores.stats.EstadisticasDashboard;
+import com.empresa.gestionproveedores.util.LoteConcurrente;
 import jakarta.annotation.PostConstruct;
 import jakarta.faces.application.FacesMessage;
 import jakarta.faces.context.FacesContext;
@@ -17,20 +24,40 @@ import org.primefaces.PrimeFaces;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Named("proveedorBean")
 @ViewScoped
+@InicializacionMedida
 @Slf4j
 public class ProveedorBean implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    private static final String TABLA = ":formProveedores:tablaProveedores";
+
+    /** Columnas ordenables de la tabla, para las páginas que salen del índice de búsqueda. */
+    private static final Map<String, Function<ProveedorDTO, String>> ORDEN_INDICE = Map.of(
+            "ruc", ProveedorDTO::getRuc,
+            "razonSocial", ProveedorDTO::getRazonSocial);
+
     @Inject
     private ProveedorService proveedorService;
 
-    @Getter @Setter
-    private List<ProveedorDTO> proveedores;
+    @Inject
+    private IndiceCatalogo indiceCatalogo;
+
+    @Inject
+    private EstadisticasDashboard estadisticas;
+
+    @Inject
+    private ApiConfig apiConfig;
+
+    @Getter
+    private ModeloPaginado<ProveedorDTO> proveedores;
 
     @Getter @Setter
     private ProveedorDTO proveedorSeleccionado;
@@ -41,10 +68,18 @@ public class ProveedorBean implements Serializable {
     @Getter
     private List<String> funcionalidades;
 
+    @Getter @Setter
+    private List<ProveedorDTO> seleccionados = new ArrayList<>();
+
+    @Getter
+    private List<LoteConcurrente.Resultado<ProveedorDTO>> resultadosLote = List.of();
+
     @PostConstruct
     public void init() {
+        // La tabla pide al backend solo la página visible al renderizarse
+        proveedores = new ModeloPaginado<>(this::consultarPagina, ProveedorDTO::getId,
+                () -> Collections.singletonMap("razonSocial", criterioBusqueda));
         try {
-            cargarProveedores();
             funcionalidades = Arrays.asList(
                     "Gestión completa de proveedores (CRUD)",
                     "Búsqueda y filtros avanzados",
@@ -60,7 +95,6 @@ public class ProveedorBean implements Serializable {
         } catch (Exception e) {
             log.error("Error al inicializar ProveedorBean", e);
             mostrarMensajeError("Error al cargar datos iniciales");
-            proveedores = new ArrayList<>();
         }
     }
 
@@ -98,7 +132,6 @@ public class ProveedorBean implements Serializable {
                 proveedorService.actualizar(proveedorSeleccionado.getId(), proveedorSeleccionado);
                 mostrarMensajeExito("Proveedor actualizado exitosamente");
             }
-            cargarProveedores();
             PrimeFaces.current().executeScript("PF('dlgProveedor').hide();");
         } catch (ServiceException e) {
             log.error("Error al guardar proveedor", e);
@@ -109,7 +142,6 @@ public class ProveedorBean implements Serializable {
     public void eliminar(ProveedorDTO proveedor) {
         try {
             proveedorService.eliminar(proveedor.getId());
-            cargarProveedores();
             mostrarMensajeExito("Proveedor eliminado exitosamente");
             log.info("Proveedor eliminado ID: {}", proveedor.getId());
         } catch (ServiceException e) {
@@ -130,42 +162,121 @@ public class ProveedorBean implements Serializable {
         }
     }
 
-    public void buscar() {
-        try {
-            if (criterioBusqueda != null && !criterioBusqueda.trim().isEmpty()) {
-                proveedores = proveedorService.buscarPorRazonSocial(criterioBusqueda.trim());
-            } else {
-                cargarProveedores();
-            }
-        } catch (ServiceException e) {
-            log.error("Error al buscar proveedores", e);
-            mostrarMensajeError("Error en búsqueda: " + e.getMessage());
+    // ----------------- Operaciones masivas -----------------
+
+    public void activarSeleccionados() {
+        cambiarEstadoSeleccionados(true);
+    }
+
+    public void desactivarSeleccionados() {
+        cambiarEstadoSeleccionados(false);
+    }
+
+    /**
+     * Cambia el estado de las filas seleccionadas con llamadas concurrentes
+     * acotadas y, al final, parchea en memoria solo las filas aceptadas por el
+     * backend y las vuelve a renderizar, sin pedir de nuevo la página.
+     */
+    private void cambiarEstadoSeleccionados(boolean activo) {
+        List<ProveedorDTO> lote = loteSeleccionado();
+        if (lote.isEmpty()) {
+            return;
+        }
+        resultadosLote = new LoteConcurrente(apiConfig.getLoteMaxEnCurso())
+                .ejecutar(lote, ProveedorDTO::getRazonSocial,
+                        p -> proveedorService.cambiarEstado(p.getId(), activo));
+        List<ProveedorDTO> aceptados = exitosos(resultadosLote);
+        aceptados.forEach(p -> p.setActivo(activo));
+        proveedores.actualizarFilas(TABLA, aceptados);
+        informarLote(activo ? "activados" : "desactivados");
+    }
+
+    /**
+     * Elimina las filas seleccionadas. Como cambian las filas que forman la
+     * página, al final se pide una sola vez la página visible.
+     */
+    public void eliminarSeleccionados() {
+        List<ProveedorDTO> lote = loteSeleccionado();
+        if (lote.isEmpty()) {
+            return;
+        }
+        resultadosLote = new LoteConcurrente(apiConfig.getLoteMaxEnCurso())
+                .ejecutar(lote, ProveedorDTO::getRazonSocial, p -> proveedorService.eliminar(p.getId()));
+        if (!exitosos(resultadosLote).isEmpty()) {
+            PrimeFaces.current().ajax().update(TABLA);
+        }
+        informarLote("eliminados");
+    }
+
+    private List<ProveedorDTO> loteSeleccionado() {
+        if (seleccionados == null || seleccionados.isEmpty()) {
+            mostrarMensajeAdvertencia("Seleccione al menos un proveedor");
+            return List.of();
+        }
+        return new ArrayList<>(seleccionados);
+    }
+
+    private static <T> List<T> exitosos(List<LoteConcurrente.Resultado<T>> resultados) {
+        return resultados.stream()
+                .filter(LoteConcurrente.Resultado::isExito)
+                .map(LoteConcurrente.Resultado::getElemento)
+                .toList();
+    }
+
+    /**
+     * Un solo mensaje con el resumen; si hubo fallos se abre el detalle por elemento.
+     */
+    private void informarLote(String accion) {
+        long correctos = resultadosLote.stream().filter(LoteConcurrente.Resultado::isExito).count();
+        long fallidos = resultadosLote.size() - correctos;
+        seleccionados = new ArrayList<>();
+        if (fallidos == 0) {
+            mostrarMensajeExito(correctos + " " + accion);
+            return;
         }
+        mostrarMensajeAdvertencia(correctos + " " + accion + ", " + fallidos + " con error");
+        PrimeFaces.current().ajax().update(":dialogResultadoLote");
+        PrimeFaces.current().executeScript("PF('dlgResultadoLote').show();");
+    }
+
+    /**
+     * El criterio viaja como filtro de la consulta paginada; solo hay que volver a la primera página.
+     */
+    public void buscar() {
+        ModeloPaginado.irAPrimeraPagina(TABLA);
     }
 
     public void limpiarBusqueda() {
         criterioBusqueda = "";
-        cargarProveedores();
+        ModeloPaginado.irAPrimeraPagina(TABLA);
     }
 
-    public void cargarProveedores() {
-        try {
-            proveedores = proveedorService.listarTodos();
-        } catch (ServiceException e) {
-            log.error("Error al cargar proveedores", e);
-            proveedores = new ArrayList<>();
-            mostrarMensajeError("Error al cargar proveedores: " + e.getMessage());
+    /**
+     * Con criterio de búsqueda y el índice cargado, la página sale del índice en
+     * memoria, ordenada por la columna elegida. Sin índice, o si la búsqueda
+     * coincide con más filas de las que el índice devuelve, sale del backend.
+     */
+    private PaginaDTO<ProveedorDTO> consultarPagina(ConsultaPaginada consulta) {
+        String criterio = consulta.getFiltros().get("razonSocial");
+        if (criterio != null && !criterio.isBlank() && indiceCatalogo.isListo()) {
+            List<ProveedorDTO> encontrados = indiceCatalogo.buscarProveedores(criterio);
+            if (encontrados != null) {
+                return PaginaDTO.de(ModeloPaginado.ordenar(encontrados, consulta, ORDEN_INDICE),
+                        consulta.getPagina(), consulta.getTamanio());
+            }
         }
+        return proveedorService.listarPaginado(consulta);
     }
 
-    public int getTotalProveedores() {
-        return proveedores != null ? proveedores.size() : 0;
+    /**
+     * Los totales salen de los contadores de la aplicación, sin ir al backend.
+     */
+    public long getTotalProveedores() {
+        return estadisticas.getResumen().getProveedores();
     }
 
     public long getTotalProveedoresActivos() {
-        return proveedores != null
-                ? proveedores.stream().filter(p -> Boolean.TRUE.equals(p.getActivo())).count()
-                : 0;
+        return estadisticas.getResumen().getProveedoresActivos();
     }
 
     public String getTituloDialogo() {
@@ -2,6 +2,7 @@ package com.empresa.gestionproveedores.bean;
 
 import com.empresa.gestionproveedores.dto.ProveedorDTO;
 import com.empresa.gestionproveedores.exception.ServiceException;
+import com.empresa.gestionproveedores.jfr.InicializacionMedida;
 import com.empresa.gestionproveedores.service.ProveedorService;
 import jakarta.annotation.PostConstruct;
 import jakarta.faces.application.FacesMessage;
@@ -22,6 +23,7 @@ import java.util.Map;
  */
 @Named("proveedorDialogView")
 @ViewScoped
+@InicializacionMedida
 @Slf4j
 public class ProveedorDialogView implements Serializable {
 
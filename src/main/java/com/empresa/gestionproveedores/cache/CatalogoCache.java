@@ -0,0 +1,98 @@
+package com.empresa.gestionproveedores.cache;
+
+import com.empresa.gestionproveedores.config.ApiConfig;
+import com.empresa.gestionproveedores.dto.ProductoDTO;
+import com.empresa.gestionproveedores.dto.ProveedorDTO;
+import com.empresa.gestionproveedores.event.CatalogoModificadoEvent;
+import com.empresa.gestionproveedores.jfr.InicializacionMedida;
+import com.empresa.gestionproveedores.metrics.MetricSource;
+import com.empresa.gestionproveedores.metrics.MetricsWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Caché compartida de los catálogos que alimentan los combos de selección
+ * (proveedores activos y productos por proveedor). Se invalida sola cuando
+ * un servicio confirma una escritura mediante CatalogoModificadoEvent.
+ */
+@ApplicationScoped
+@InicializacionMedida
+@Slf4j
+public class CatalogoCache implements MetricSource {
+
+    private static final String ACTIVOS = "activos";
+
+    @Inject
+    private ApiConfig apiConfig;
+
+    private TtlCache<String, List<ProveedorDTO>> proveedores;
+    private TtlCache<String, List<ProductoDTO>> productos;
+
+    @PostConstruct
+    public void init() {
+        long ttl = apiConfig.leerLong("cache.catalogo.ttl", 300000);
+        int maxEntradas = (int) apiConfig.leerLong("cache.catalogo.max-entries", 500);
+        proveedores = new TtlCache<>("proveedores", ttl, maxEntradas);
+        productos = new TtlCache<>("productos", ttl, maxEntradas);
+    }
+
+    /**
+     * Las listas se guardan inmodificables y se entrega una copia a cada llamador.
+     */
+    public List<ProveedorDTO> proveedoresActivos(Supplier<List<ProveedorDTO>> cargador) {
+        return new ArrayList<>(proveedores.obtener(ACTIVOS, () -> List.copyOf(cargador.get())));
+    }
+
+    public List<ProductoDTO> productosActivos(Supplier<List<ProductoDTO>> cargador) {
+        return new ArrayList<>(productos.obtener(ACTIVOS, () -> List.copyOf(cargador.get())));
+    }
+
+    public List<ProductoDTO> productosPorProveedor(Long proveedorId, Supplier<List<ProductoDTO>> cargador) {
+        return new ArrayList<>(productos.obtener("proveedor:" + proveedorId, () -> List.copyOf(cargador.get())));
+    }
+
+    void alModificarCatalogo(@Observes CatalogoModificadoEvent evento) {
+        switch (evento.getCatalogo()) {
+            case PROVEEDOR -> {
+                // La razón social del proveedor viaja también dentro de cada producto
+                proveedores.invalidarTodo();
+                productos.invalidarTodo();
+            }
+            case PRODUCTO -> productos.invalidarTodo();
+        }
+        log.debug("Caché de catálogo invalidada por {} {} id={}",
+                evento.getOperacion(), evento.getCatalogo(), evento.getId());
+    }
+
+    @Override
+    public void exportar(MetricsWriter w) {
+        List<TtlCache<?, ?>> caches = List.of(proveedores, productos);
+        w.familia("gp_cache_hits_total", "counter", "Lecturas servidas desde la caché");
+        for (TtlCache<?, ?> c : caches) {
+            w.muestra("gp_cache_hits_total", etiqueta(c), c.getAciertos());
+        }
+        w.familia("gp_cache_misses_total", "counter", "Lecturas que tuvieron que ir al backend");
+        for (TtlCache<?, ?> c : caches) {
+            w.muestra("gp_cache_misses_total", etiqueta(c), c.getFallos());
+        }
+        w.familia("gp_cache_evictions_total", "counter", "Entradas expulsadas por TTL o por tamaño");
+        for (TtlCache<?, ?> c : caches) {
+            w.muestra("gp_cache_evictions_total", etiqueta(c), c.getExpulsiones());
+        }
+        w.familia("gp_cache_size", "gauge", "Entradas vigentes en la caché");
+        for (TtlCache<?, ?> c : caches) {
+            w.muestra("gp_cache_size", etiqueta(c), c.getTamanio());
+        }
+    }
+
+    private static String etiqueta(TtlCache<?, ?> cache) {
+        return MetricsWriter.etiqueta("cache", cache.getNombre());
+    }
+}
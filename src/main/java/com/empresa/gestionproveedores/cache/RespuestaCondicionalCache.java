@@ -0,0 +1,101 @@
+package com.empresa.gestionproveedores.cache;
+
+import com.empresa.gestionproveedores.config.ApiConfig;
+import com.empresa.gestionproveedores.dto.ApiResponseDTO;
+import com.empresa.gestionproveedores.metrics.MetricSource;
+import com.empresa.gestionproveedores.metrics.MetricsWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Guarda, por URL, los validadores HTTP (ETag y Last-Modified) de la última
+ * respuesta de lista junto con su cuerpo ya deserializado. Permite enviar un GET
+ * condicional y, si el backend contesta 304, reutilizar la lista sin volver a
+ * transferirla ni a parsearla.
+ * No caduca por tiempo: cada lectura se revalida contra el backend.
+ */
+@ApplicationScoped
+public class RespuestaCondicionalCache implements MetricSource {
+
+    @Inject
+    private ApiConfig apiConfig;
+
+    private int maxEntradas;
+    private LinkedHashMap<String, Entrada> entradas;
+
+    private final LongAdder noModificadas = new LongAdder();
+    private final LongAdder modificadas = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        maxEntradas = (int) apiConfig.leerLong("cache.condicional.max-entries", 200);
+        entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                return size() > maxEntradas;
+            }
+        };
+    }
+
+    public synchronized Entrada obtener(String clave) {
+        return entradas.get(clave);
+    }
+
+    /**
+     * Guarda la respuesta si trae al menos un validador; si no, descarta la anterior.
+     */
+    public void guardar(String clave, String etag, String ultimaModificacion, ApiResponseDTO<? extends List<?>> api) {
+        modificadas.increment();
+        if (etag == null && ultimaModificacion == null) {
+            synchronized (this) {
+                entradas.remove(clave);
+            }
+            return;
+        }
+        List<?> data = api.getData() != null ? List.copyOf(api.getData()) : null;
+        Entrada entrada = new Entrada(etag, ultimaModificacion,
+                new ApiResponseDTO<>(api.isSuccess(), api.getMessage(), data, api.getError()));
+        synchronized (this) {
+            entradas.put(clave, entrada);
+        }
+    }
+
+    public void registrarNoModificada() {
+        noModificadas.increment();
+    }
+
+    @Override
+    public void exportar(MetricsWriter w) {
+        w.gauge("gp_conditional_cache_entries", "Respuestas con validadores guardadas", tamanio());
+        w.counter("gp_conditional_not_modified_total", "GET condicionales resueltos con 304",
+                noModificadas.sum());
+        w.counter("gp_conditional_modified_total", "GET de lista que devolvieron un cuerpo nuevo",
+                modificadas.sum());
+    }
+
+    private synchronized int tamanio() {
+        return entradas.size();
+    }
+
+    /**
+     * @param respuesta respuesta guardada; su lista es inmodificable y se comparte
+     */
+    public record Entrada(String etag, String ultimaModificacion, ApiResponseDTO<? extends List<?>> respuesta) {
+
+        /**
+         * Copia de la respuesta guardada con una lista propia para el llamador.
+         */
+        @SuppressWarnings("unchecked")
+        public <T> ApiResponseDTO<List<T>> copia() {
+            List<T> data = respuesta.getData() != null ? new ArrayList<>((List<T>) respuesta.getData()) : null;
+            return new ApiResponseDTO<>(respuesta.isSuccess(), respuesta.getMessage(), data, respuesta.getError());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.empresa.gestionproveedores.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria acotada por tamaño (LRU) y por tiempo de vida de cada entrada.
+ * La carga de un valor ausente se hace fuera del bloqueo para no serializar
+ * las llamadas al backend.
+ */
+public class TtlCache<K, V> {
+
+    private final String nombre;
+    private final long ttlNanos;
+    private final int maxEntradas;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+
+    /** Se incrementa en cada invalidación para descartar cargas que empezaron antes. */
+    private volatile long generacion;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder expulsiones = new LongAdder();
+
+    public TtlCache(String nombre, long ttlMillis, int maxEntradas) {
+        this.nombre = nombre;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxEntradas = maxEntradas;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Devuelve el valor vigente o lo carga con el proveedor indicado.
+     * Si la carga lanza una excepción no se guarda nada.
+     */
+    public V obtener(K clave, Supplier<V> cargador) {
+        long ahora = System.nanoTime();
+        synchronized (this) {
+            Entrada<V> entrada = entradas.get(clave);
+            if (entrada != null && entrada.expira - ahora > 0) {
+                aciertos.increment();
+                return entrada.valor;
+            }
+            if (entrada != null) {
+                entradas.remove(clave);
+                expulsiones.increment();
+            }
+        }
+        fallos.increment();
+        long version = generacion;
+        V valor = cargador.get();
+        guardar(clave, valor, version);
+        return valor;
+    }
+
+    private synchronized void guardar(K clave, V valor, long version) {
+        // Si hubo una invalidación durante la carga, el valor puede ser anterior a ella
+        if (version != generacion) {
+            return;
+        }
+        entradas.put(clave, new Entrada<>(valor, System.nanoTime() + ttlNanos));
+        Iterator<Map.Entry<K, Entrada<V>>> it = entradas.entrySet().iterator();
+        while (entradas.size() > maxEntradas && it.hasNext()) {
+            it.next();
+            it.remove();
+            expulsiones.increment();
+        }
+    }
+
+    /**
+     * Guarda un valor ya conocido, p. ej. el que devolvió el backend al escribir.
+     */
+    public void poner(K clave, V valor) {
+        guardar(clave, valor, generacion);
+    }
+
+    public synchronized void invalidar(K clave) {
+        generacion++;
+        entradas.remove(clave);
+    }
+
+    public synchronized void invalidarTodo() {
+        generacion++;
+        entradas.clear();
+    }
+
+    public synchronized int getTamanio() {
+        return entradas.size();
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    public long getExpulsiones() {
+        return expulsiones.sum();
+    }
+
+    private record Entrada<V>(V valor, long expira) {
+    }
+}
@@ -1,20 +1,124 @@
 package com.empresa.gestionproveedores.config;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Properties;
 
 /**
- * Configuración de la API REST
+ * Configuración de la API REST.
+ * Los valores se leen de application.properties y pueden sobrescribirse en el
+ * despliegue con una propiedad de sistema (-Dapi.pool.max-total=200) o una
+ * variable de entorno (API_POOL_MAX_TOTAL=200), en ese orden de prioridad.
  */
 @ApplicationScoped
 @Getter
+@Slf4j
 public class ApiConfig {
 
-    private final String baseUrl = "http://localhost:8081/api";
+    private static final String ARCHIVO = "application.properties";
+
     private final String proveedoresEndpoint = "/proveedores";
     private final String productosEndpoint = "/productos";
     private final String ordenesEndpoint = "/ordenes-compra";
 
+    private String baseUrl;
+
+    // Timeouts (milisegundos)
+    private Timeout connectTimeout;
+    private Timeout socketTimeout;
+    private Timeout responseTimeout;
+    private Timeout connectionRequestTimeout;
+
+    // Pool de conexiones
+    private int poolMaxTotal;
+    private int poolMaxPerRoute;
+    private TimeValue validateAfterInactivity;
+    private TimeValue timeToLive;
+    private TimeValue evictIdleInterval;
+    private TimeValue maxKeepAlive;
+
+    // Paginación
+    private int paginaPorDefecto;
+    private int paginaMaxima;
+
+    // Operaciones masivas: llamadas simultáneas por lote
+    private int loteMaxEnCurso;
+
+    @Getter(AccessLevel.NONE)
+    private final Properties propiedades = new Properties();
+
+    @PostConstruct
+    public void init() {
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(ARCHIVO)) {
+            if (in != null) {
+                propiedades.load(in);
+            } else {
+                log.warn("No se encontró {}, se usarán valores por defecto", ARCHIVO);
+            }
+        } catch (IOException e) {
+            log.error("Error al leer {}", ARCHIVO, e);
+        }
+
+        baseUrl = leer("api.base.url", "http://localhost:8081/api");
+
+        connectTimeout = Timeout.ofMilliseconds(leerLong("api.timeout.connection", 30000));
+        socketTimeout = Timeout.ofMilliseconds(leerLong("api.timeout.socket", 30000));
+        responseTimeout = Timeout.ofMilliseconds(leerLong("api.timeout.response", 30000));
+        connectionRequestTimeout = Timeout.ofMilliseconds(leerLong("api.timeout.request", 5000));
+
+        poolMaxTotal = (int) leerLong("api.pool.max-total", 100);
+        poolMaxPerRoute = (int) leerLong("api.pool.max-per-route", 20);
+        validateAfterInactivity = TimeValue.ofMilliseconds(leerLong("api.pool.validate-after-inactivity", 2000));
+        timeToLive = TimeValue.ofMilliseconds(leerLong("api.pool.time-to-live", 300000));
+        evictIdleInterval = TimeValue.ofMilliseconds(leerLong("api.pool.evict-idle", 30000));
+        maxKeepAlive = TimeValue.ofMilliseconds(leerLong("api.pool.keep-alive", 30000));
+
+        paginaPorDefecto = (int) leerLong("api.paging.default-size", 20);
+        paginaMaxima = (int) leerLong("api.paging.max-size", 500);
+
+        loteMaxEnCurso = (int) leerLong("api.bulk.max-in-flight", 4);
+
+        log.info("API configurada: baseUrl={}, pool={}/{} por ruta, connect={}, response={}",
+                baseUrl, poolMaxTotal, poolMaxPerRoute, connectTimeout, responseTimeout);
+    }
+
+    /**
+     * Lee una clave respetando la prioridad: propiedad de sistema, variable de
+     * entorno y por último application.properties.
+     */
+    public String leer(String clave, String defecto) {
+        String valor = System.getProperty(clave);
+        if (valor == null) {
+            valor = System.getenv(clave.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_'));
+        }
+        if (valor == null) {
+            valor = propiedades.getProperty(clave);
+        }
+        return valor != null && !valor.isBlank() ? valor.trim() : defecto;
+    }
+
+    public long leerLong(String clave, long defecto) {
+        String valor = leer(clave, null);
+        if (valor == null) {
+            return defecto;
+        }
+        try {
+            return Long.parseLong(valor);
+        } catch (NumberFormatException e) {
+            log.warn("Valor inválido para {}: '{}', se usa {}", clave, valor, defecto);
+            return defecto;
+        }
+    }
+
     public String getProveedoresUrl() {
         return baseUrl + proveedoresEndpoint;
     }
@@ -26,4 +130,4 @@ public class ApiConfig {
     public String getOrdenesUrl() {
         return baseUrl + ordenesEndpoint;
     }
-}
\ No newline at end of file
+}
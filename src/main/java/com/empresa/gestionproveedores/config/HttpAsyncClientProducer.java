@@ -0,0 +1,50 @@
+package com.empresa.gestionproveedores.config;
+
+import com.empresa.gestionproveedores.metrics.BackendMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+
+/**
+ * Producer CDI para Apache HttpAsyncClient (llamadas no bloqueantes).
+ * Comparte con HttpClientProducer la configuración de pool y timeouts.
+ */
+@ApplicationScoped
+public class HttpAsyncClientProducer {
+
+    /**
+     * Se produce como @Singleton: CloseableHttpAsyncClient declara métodos
+     * final y no puede ser envuelto en un proxy de alcance normal.
+     */
+    @Produces
+    @Singleton
+    public CloseableHttpAsyncClient produceHttpAsyncClient(ApiConfig config, BackendMetrics metricas) {
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(config.getPoolMaxTotal())
+                .setMaxConnPerRoute(config.getPoolMaxPerRoute())
+                .setDefaultConnectionConfig(HttpClientProducer.connectionConfig(config))
+                .build();
+        metricas.registrarPool("async", connectionManager);
+
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(HttpClientProducer.requestConfig(config))
+                .setKeepAliveStrategy(HttpClientProducer.keepAliveAcotado(config.getMaxKeepAlive()))
+                .evictExpiredConnections()
+                .evictIdleConnections(config.getEvictIdleInterval())
+                .addRequestInterceptorFirst(HttpClientProducer.propagarIdentificadores())
+                .build();
+        client.start();
+        return client;
+    }
+
+    public void closeHttpAsyncClient(@Disposes CloseableHttpAsyncClient client) {
+        client.close(CloseMode.GRACEFUL);
+    }
+}
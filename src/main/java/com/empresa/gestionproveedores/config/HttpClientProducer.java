@@ -1,28 +1,139 @@
 package com.empresa.gestionproveedores.config;
 
+import com.empresa.gestionproveedores.logging.ContextoLog;
+import com.empresa.gestionproveedores.metrics.BackendMetrics;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
 import jakarta.enterprise.inject.Produces;
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.HttpRequestRetryStrategy;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
-import org.apache.hc.core5.util.Timeout;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpRequestInterceptor;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Producer CDI para Apache HttpClient
+ * Producer CDI para Apache HttpClient.
+ * El tamaño del pool, los timeouts y la política de expulsión se toman de ApiConfig.
  */
 @ApplicationScoped
 public class HttpClientProducer {
 
+    /** Atributo de contexto que pide no reintentar la petición. */
+    public static final String INTENTO_UNICO = "gestionproveedores.intento-unico";
+
     @Produces
     @ApplicationScoped
-    public CloseableHttpClient produceHttpClient() {
-        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
-        connectionManager.setMaxTotal(100);
-        connectionManager.setDefaultMaxPerRoute(20);
+    public CloseableHttpClient produceHttpClient(ApiConfig config, BackendMetrics metricas) {
+        PoolingHttpClientConnectionManager connectionManager = new InstrumentedConnectionManager(metricas);
+        connectionManager.setMaxTotal(config.getPoolMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(config.getPoolMaxPerRoute());
+        connectionManager.setDefaultConnectionConfig(connectionConfig(config));
+        metricas.registrarPool("classic", connectionManager);
 
         return HttpClients.custom()
                 .setConnectionManager(connectionManager)
-                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(requestConfig(config))
+                .setKeepAliveStrategy(keepAliveAcotado(config.getMaxKeepAlive()))
+                .setRetryStrategy(reintentoSalvoIntentoUnico())
+                .evictExpiredConnections()
+                .evictIdleConnections(config.getEvictIdleInterval())
+                .addRequestInterceptorFirst(propagarIdentificadores())
+                .build();
+    }
+
+    public void closeHttpClient(@Disposes CloseableHttpClient client) {
+        client.close(CloseMode.GRACEFUL);
+    }
+
+    static ConnectionConfig connectionConfig(ApiConfig config) {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(config.getConnectTimeout())
+                .setSocketTimeout(config.getSocketTimeout())
+                .setValidateAfterInactivity(config.getValidateAfterInactivity())
+                .setTimeToLive(config.getTimeToLive())
+                .build();
+    }
+
+    static RequestConfig requestConfig(ApiConfig config) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(config.getConnectionRequestTimeout())
+                .setResponseTimeout(config.getResponseTimeout())
+                .setConnectionKeepAlive(config.getMaxKeepAlive())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * La política de reintento por defecto del cliente, salvo para las peticiones
+     * ejecutadas con {@link #INTENTO_UNICO} en el contexto: repite los GET y, en
+     * un GET con efectos en el backend, eso también repetiría el efecto.
+     */
+    static HttpRequestRetryStrategy reintentoSalvoIntentoUnico() {
+        return new DefaultHttpRequestRetryStrategy() {
+            @Override
+            public boolean retryRequest(HttpRequest request, IOException exception, int execCount,
+                                        HttpContext context) {
+                return context.getAttribute(INTENTO_UNICO) == null
+                        && super.retryRequest(request, exception, execCount, context);
+            }
+
+            @Override
+            public boolean retryRequest(HttpResponse response, int execCount, HttpContext context) {
+                return context.getAttribute(INTENTO_UNICO) == null
+                        && super.retryRequest(response, execCount, context);
+            }
+        };
+    }
+
+    /**
+     * Envía al backend el identificador de la petición y la traza del MDC
+     * (X-Request-Id y traceparent con un span nuevo por llamada), para poder
+     * cruzar sus logs con los nuestros.
+     */
+    static HttpRequestInterceptor propagarIdentificadores() {
+        return (request, entity, context) -> identificar(request);
+    }
+
+    /**
+     * Pone en la petición las cabeceras de {@link #propagarIdentificadores()}
+     * leyendo el MDC del hilo actual. No pisa las que ya trae: el cliente
+     * asíncrono las fija en el hilo que llama, porque el interceptor puede
+     * ejecutarse en el reactor de E/S, donde el MDC está vacío.
+     */
+    public static void identificar(HttpRequest request) {
+        String requestId = MDC.get(ContextoLog.REQUEST_ID);
+        if (requestId != null && !request.containsHeader("X-Request-Id")) {
+            request.setHeader("X-Request-Id", requestId);
+        }
+        String traceId = MDC.get(ContextoLog.TRACE_ID);
+        if (traceId != null && !request.containsHeader("traceparent")) {
+            String span = HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong());
+            request.setHeader("traceparent", "00-" + traceId + "-" + span + "-01");
+        }
+    }
+
+    /**
+     * Respeta la cabecera Keep-Alive del servidor, pero nunca mantiene una
+     * conexión ociosa más tiempo que el máximo configurado.
+     */
+    static ConnectionKeepAliveStrategy keepAliveAcotado(TimeValue maximo) {
+        return (response, context) -> {
+            TimeValue servidor = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return TimeValue.isPositive(servidor) && servidor.compareTo(maximo) < 0 ? servidor : maximo;
+        };
+    }
+}
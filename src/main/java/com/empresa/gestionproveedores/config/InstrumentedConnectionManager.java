@@ -0,0 +1,45 @@
+package com.empresa.gestionproveedores.config;
+
+import com.empresa.gestionproveedores.metrics.BackendMetrics;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pool de conexiones que mide cuánto espera cada petición por una conexión libre.
+ */
+class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final BackendMetrics metricas;
+
+    InstrumentedConnectionManager(BackendMetrics metricas) {
+        this.metricas = metricas;
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest delegado = super.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                long inicio = System.nanoTime();
+                try {
+                    return delegado.get(timeout);
+                } finally {
+                    metricas.registrarEsperaLease(System.nanoTime() - inicio);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return delegado.cancel();
+            }
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.empresa.gestionproveedores.config;
+
+import com.empresa.gestionproveedores.dto.*;
+import com.empresa.gestionproveedores.metrics.MetricSource;
+import com.empresa.gestionproveedores.metrics.MetricsWriter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Componente JSON único de la aplicación.
+ * Construye el ObjectMapper una sola vez, precalienta serializadores y
+ * deserializadores de todos los DTO al arrancar y cachea ObjectReader /
+ * ObjectWriter por tipo para que el camino caliente no los reconstruya.
+ */
+@ApplicationScoped
+@Slf4j
+public class JsonCodec implements MetricSource {
+
+    /** DTO que viajan en el cuerpo de las peticiones y respuestas del backend. */
+    private static final List<Class<?>> DTOS = List.of(
+            ProveedorDTO.class, ProductoDTO.class, OrdenCompraDTO.class, DetalleOrdenDTO.class,
+            ProductoResponseDTO.class, ProveedorResponseDTO.class);
+
+    @Inject
+    private ApiConfig apiConfig;
+
+    private ObjectMapper mapper;
+    private boolean blackbird;
+
+    private final Map<Type, ObjectReader> lectores = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> escritores = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        blackbird = Boolean.parseBoolean(apiConfig.leer("json.blackbird.enabled", "true"));
+        mapper = crearMapper(blackbird);
+
+        long inicio = System.nanoTime();
+        precalentar();
+        log.info("JsonCodec listo en {} ms (blackbird={}, lectores={}, escritores={})",
+                (System.nanoTime() - inicio) / 1_000_000, blackbird, lectores.size(), escritores.size());
+    }
+
+    /**
+     * Configuración del ObjectMapper de la aplicación. Pública para que los
+     * benchmarks (módulo rendimiento) midan exactamente lo mismo que producción.
+     */
+    public static ObjectMapper crearMapper(boolean blackbird) {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.enable(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT);
+
+        // Blackbird genera accesores con LambdaMetafactory en lugar de reflexión
+        if (blackbird) {
+            mapper.registerModule(new BlackbirdModule());
+        }
+        return mapper;
+    }
+
+    /**
+     * Fuerza la creación del bean al arrancar la aplicación y no en la primera petición.
+     */
+    void alIniciar(@Observes @Initialized(ApplicationScoped.class) Object evento) {
+        log.debug("JsonCodec inicializado con {} lectores", lectores.size());
+    }
+
+    public ObjectMapper getMapper() {
+        return mapper;
+    }
+
+    /**
+     * ObjectReader inmutable y seguro entre hilos; se construye una sola vez por tipo.
+     */
+    public ObjectReader lector(TypeReference<?> tipo) {
+        return lector(tipo.getType());
+    }
+
+    public ObjectReader lector(Type tipo) {
+        return lectores.computeIfAbsent(tipo, t -> mapper.readerFor(mapper.getTypeFactory().constructType(t)));
+    }
+
+    public ObjectWriter escritor(Class<?> tipo) {
+        return escritores.computeIfAbsent(tipo, mapper::writerFor);
+    }
+
+    public byte[] escribir(Object valor) throws IOException {
+        return escritor(valor.getClass()).writeValueAsBytes(valor);
+    }
+
+    private void precalentar() {
+        var tipos = mapper.getTypeFactory();
+        for (Class<?> dto : DTOS) {
+            JavaType uno = tipos.constructParametricType(ApiResponseDTO.class, dto);
+            JavaType lista = tipos.constructParametricType(ApiResponseDTO.class,
+                    tipos.constructCollectionType(List.class, dto));
+            JavaType pagina = tipos.constructParametricType(ApiResponseDTO.class,
+                    tipos.constructParametricType(PaginaDTO.class, dto));
+            try {
+                // Ida y vuelta con una instancia vacía para resolver serializadores y deserializadores
+                Object vacio = dto.getDeclaredConstructor().newInstance();
+                String json = new String(escribir(vacio), StandardCharsets.UTF_8);
+                lector(dto).readValue(json);
+                lector(uno).readValue("{\"data\":" + json + "}");
+                lector(lista).readValue("{\"data\":[" + json + "]}");
+                lector(pagina).readValue("{\"data\":{\"content\":[" + json + "]}}");
+            } catch (ReflectiveOperationException | IOException e) {
+                log.warn("No se pudo precalentar la serialización de {}", dto.getSimpleName(), e);
+            }
+        }
+        lector(tipos.constructParametricType(ApiResponseDTO.class, String.class));
+    }
+
+    @Override
+    public void exportar(MetricsWriter w) {
+        w.gauge("gp_json_readers_cached", "ObjectReader precompilados en caché", lectores.size());
+        w.gauge("gp_json_writers_cached", "ObjectWriter precompilados en caché", escritores.size());
+        if (mapper.getSerializerProvider() instanceof DefaultSerializerProvider provider) {
+            w.gauge("gp_json_serializers_cached", "Serializadores en la caché de Jackson",
+                    provider.cachedSerializersCount());
+        }
+        w.gauge("gp_json_blackbird_enabled", "1 si el módulo Blackbird está registrado", blackbird ? 1 : 0);
+    }
+}
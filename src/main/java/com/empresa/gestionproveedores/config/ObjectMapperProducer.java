@@ -1,22 +1,18 @@
 package com.empresa.gestionproveedores.config;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import jakarta.enterprise.context.Dependent;
 import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
 
+/**
+ * Expone el ObjectMapper único de JsonCodec. Antes era @Dependent y cada
+ * servicio construía el suyo, repitiendo registro de módulos y cachés.
+ */
 public class ObjectMapperProducer {
 
     @Produces
-    @Dependent
-    public ObjectMapper produceObjectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-        mapper.enable(DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT);
-        return mapper;
+    @Singleton
+    public ObjectMapper produceObjectMapper(JsonCodec codec) {
+        return codec.getMapper();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package com.empresa.gestionproveedores.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Parámetros de una consulta paginada: página (base 0), tamaño, orden y filtros.
+ * Se traduce a los parámetros de Spring Data: page, size y sort=campo,asc|desc;
+ * cada filtro viaja como un parámetro más.
+ * Con despuesDe se pide la página por clave (keyset): filas con id mayor al
+ * indicado, ordenadas por id, sin desplazamiento.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ConsultaPaginada implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int pagina;
+    private int tamanio;
+    private String orden;
+    private boolean descendente;
+    private Long despuesDe;
+
+    @Builder.Default
+    private Map<String, String> filtros = new LinkedHashMap<>();
+
+    /**
+     * Copia con el tamaño de página limitado a [1, maximo]; un tamaño no
+     * positivo se sustituye por el tamaño por defecto.
+     */
+    public ConsultaPaginada acotada(int porDefecto, int maximo) {
+        int tamanioValido = tamanio > 0 ? Math.min(tamanio, maximo) : Math.min(porDefecto, maximo);
+        return toBuilder().tamanio(tamanioValido).filtros(new LinkedHashMap<>(filtros)).build();
+    }
+
+    /**
+     * Query string ya codificada, sin el '?' inicial. Los filtros vacíos se omiten.
+     */
+    public String aQueryString() {
+        StringJoiner query = new StringJoiner("&");
+        agregar(query, "page", despuesDe != null ? "0" : String.valueOf(pagina));
+        agregar(query, "size", String.valueOf(tamanio));
+        if (orden != null && !orden.isBlank()) {
+            agregar(query, "sort", orden + (descendente ? ",desc" : ",asc"));
+        }
+        if (despuesDe != null) {
+            agregar(query, "despuesDeId", String.valueOf(despuesDe));
+        }
+        filtros.forEach((clave, valor) -> {
+            if (valor != null && !valor.isBlank()) {
+                agregar(query, clave, valor.trim());
+            }
+        });
+        return query.toString();
+    }
+
+    private static void agregar(StringJoiner query, String clave, String valor) {
+        query.add(URLEncoder.encode(clave, StandardCharsets.UTF_8) + "="
+                + URLEncoder.encode(valor, StandardCharsets.UTF_8));
+    }
+}
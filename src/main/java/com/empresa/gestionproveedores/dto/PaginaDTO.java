@@ -0,0 +1,40 @@
+package com.empresa.gestionproveedores.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Página de resultados devuelta por los endpoints paginados del backend
+ * (mismos nombres de campo que org.springframework.data.domain.Page).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PaginaDTO<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<T> content = new ArrayList<>();
+    private long totalElements;
+    private int totalPages;
+    private int number;
+    private int size;
+
+    /**
+     * Recorta en memoria una lista ya completa a la página pedida.
+     */
+    public static <T> PaginaDTO<T> de(List<T> todos, int pagina, int tamanio) {
+        int desde = Math.min(pagina * tamanio, todos.size());
+        int hasta = Math.min(desde + tamanio, todos.size());
+        int paginas = tamanio > 0 ? (todos.size() + tamanio - 1) / tamanio : 0;
+        List<T> contenido = new ArrayList<>(todos.subList(desde, hasta));
+        return new PaginaDTO<>(contenido, todos.size(), paginas, pagina, tamanio);
+    }
+}
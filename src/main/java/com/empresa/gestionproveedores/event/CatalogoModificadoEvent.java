@@ -0,0 +1,23 @@
+package com.empresa.gestionproveedores.event;
+
+import lombok.Value;
+
+/**
+ * Evento CDI que los servicios disparan cuando una escritura en el backend
+ * termina correctamente. Lo observan los componentes que mantienen copias
+ * locales de los datos (cachés, índices, contadores).
+ */
+@Value
+public class CatalogoModificadoEvent {
+
+    public enum Catalogo { PROVEEDOR, PRODUCTO }
+
+    public enum Operacion { CREAR, ACTUALIZAR, ELIMINAR, CAMBIAR_ESTADO }
+
+    Catalogo catalogo;
+    Operacion operacion;
+    Long id;
+
+    /** DTO devuelto por el backend, si la operación lo devuelve; null en eliminaciones. */
+    Object entidad;
+}
@@ -0,0 +1,21 @@
+package com.empresa.gestionproveedores.event;
+
+import com.empresa.gestionproveedores.dto.OrdenCompraDTO;
+import lombok.Value;
+
+/**
+ * Evento CDI que OrdenCompraService dispara cuando el backend confirma una
+ * escritura sobre una orden de compra.
+ */
+@Value
+public class OrdenModificadaEvent {
+
+    CatalogoModificadoEvent.Operacion operacion;
+    Long id;
+
+    /** Orden devuelta por el backend en altas y modificaciones; null en el resto. */
+    OrdenCompraDTO orden;
+
+    /** Estado nuevo en CAMBIAR_ESTADO; null en el resto. */
+    String estado;
+}
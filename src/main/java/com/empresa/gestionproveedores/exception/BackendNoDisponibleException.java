@@ -0,0 +1,14 @@
+package com.empresa.gestionproveedores.exception;
+
+/**
+ * La llamada se rechazó sin contactar al backend: el circuito del grupo está
+ * abierto o su compartimento no tiene capacidad libre.
+ */
+public class BackendNoDisponibleException extends ServiceException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BackendNoDisponibleException(String message) {
+        super(message);
+    }
+}
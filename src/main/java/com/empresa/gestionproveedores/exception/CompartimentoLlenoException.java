@@ -0,0 +1,15 @@
+package com.empresa.gestionproveedores.exception;
+
+/**
+ * El compartimento del grupo no tuvo un hueco libre dentro de la espera
+ * máxima. A diferencia del circuito abierto, es una saturación pasajera: la
+ * llamada no llegó al backend y se puede reintentar al poco.
+ */
+public class CompartimentoLlenoException extends BackendNoDisponibleException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CompartimentoLlenoException(String message) {
+        super(message);
+    }
+}
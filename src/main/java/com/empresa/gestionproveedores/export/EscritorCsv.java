@@ -0,0 +1,111 @@
+package com.empresa.gestionproveedores.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * CSV según RFC 4180 (coma, comillas dobles, CRLF) en UTF-8 con BOM para que
+ * Excel reconozca los acentos al abrirlo con doble clic. El texto que Excel
+ * tomaría por una fórmula se escribe con una comilla simple delante.
+ */
+public class EscritorCsv implements EscritorFilas {
+
+    private static final DateTimeFormatter FECHA_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Writer out;
+
+    public EscritorCsv(OutputStream salida) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 16 * 1024);
+        out.write('\uFEFF');
+    }
+
+    @Override
+    public void cabecera(List<String> columnas) throws IOException {
+        fila(columnas.toArray());
+    }
+
+    @Override
+    public void fila(Object... valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            escribirCampo(texto(valores[i]));
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void terminar() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * No vacía el buffer: sin {@link #terminar()} la exportación falló, y enviar
+     * lo pendiente confirmaría la respuesta e impediría responder con un error.
+     */
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String getTipoContenido() {
+        return "text/csv; charset=UTF-8";
+    }
+
+    @Override
+    public String getExtension() {
+        return "csv";
+    }
+
+    private void escribirCampo(String campo) throws IOException {
+        boolean entreComillas = campo.indexOf(',') >= 0 || campo.indexOf('"') >= 0
+                || campo.indexOf('\n') >= 0 || campo.indexOf('\r') >= 0;
+        if (!entreComillas) {
+            out.write(campo);
+            return;
+        }
+        out.write('"');
+        out.write(campo.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static String texto(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (valor instanceof LocalDateTime fechaHora) {
+            return FECHA_HORA.format(fechaHora);
+        }
+        if (valor instanceof LocalDate fecha) {
+            return fecha.toString();
+        }
+        if (valor instanceof Boolean b) {
+            return b ? "Sí" : "No";
+        }
+        return valor instanceof Number ? valor.toString() : neutralizar(valor.toString());
+    }
+
+    /**
+     * Excel toma como fórmula el texto que empieza por =, +, - o @ (y por
+     * tabulador o retorno de carro); con una comilla simple delante lo muestra tal cual.
+     */
+    private static String neutralizar(String texto) {
+        if (!texto.isEmpty() && "=+-@\t\r".indexOf(texto.charAt(0)) >= 0) {
+            return "'" + texto;
+        }
+        return texto;
+    }
+}
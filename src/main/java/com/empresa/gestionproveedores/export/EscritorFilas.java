@@ -0,0 +1,36 @@
+package com.empresa.gestionproveedores.export;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destino de una exportación que se escribe fila a fila. Cada implementación
+ * vuelca al flujo de salida a medida que recibe filas y no las acumula, así
+ * que la memoria no crece con el número de filas.
+ * <p>
+ * Valores admitidos en {@link #fila}: String, Number (BigDecimal incluido),
+ * Boolean, LocalDate, LocalDateTime y null (celda vacía).
+ */
+public interface EscritorFilas extends AutoCloseable {
+
+    void cabecera(List<String> columnas) throws IOException;
+
+    void fila(Object... valores) throws IOException;
+
+    /**
+     * Vacía lo pendiente en la salida. No cierra el flujo, que pertenece al contenedor.
+     */
+    void terminar() throws IOException;
+
+    /**
+     * Libera los recursos propios (temporales, buffers); se llama también si la
+     * exportación falla a medias.
+     */
+    @Override
+    default void close() throws IOException {
+    }
+
+    String getTipoContenido();
+
+    String getExtension();
+}
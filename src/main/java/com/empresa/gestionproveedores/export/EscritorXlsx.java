@@ -0,0 +1,122 @@
+package com.empresa.gestionproveedores.export;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Excel con SXSSF: solo las últimas {@value #VENTANA_FILAS} filas quedan en
+ * memoria; las anteriores se vuelcan a un temporal comprimido que se copia a
+ * la salida al terminar y se borra.
+ * <p>
+ * Los estilos se crean una sola vez: un estilo por celda agota el límite de
+ * 64 000 estilos del formato y cuesta memoria en cada fila.
+ */
+public class EscritorXlsx implements EscritorFilas {
+
+    static final int VENTANA_FILAS = 100;
+
+    private final OutputStream salida;
+    private final SXSSFWorkbook libro;
+    private final SXSSFSheet hoja;
+    private final CellStyle estiloCabecera;
+    private final CellStyle estiloFecha;
+    private final CellStyle estiloFechaHora;
+    private final CellStyle estiloImporte;
+    private int siguienteFila;
+
+    public EscritorXlsx(OutputStream salida, String nombreHoja) {
+        this.salida = salida;
+        this.libro = new SXSSFWorkbook(VENTANA_FILAS);
+        libro.setCompressTempFiles(true);
+        this.hoja = libro.createSheet(nombreHoja);
+
+        Font negrita = libro.createFont();
+        negrita.setBold(true);
+        estiloCabecera = libro.createCellStyle();
+        estiloCabecera.setFont(negrita);
+
+        estiloFecha = libro.createCellStyle();
+        estiloFecha.setDataFormat(libro.createDataFormat().getFormat("dd/mm/yyyy"));
+
+        estiloFechaHora = libro.createCellStyle();
+        estiloFechaHora.setDataFormat(libro.createDataFormat().getFormat("dd/mm/yyyy hh:mm"));
+
+        estiloImporte = libro.createCellStyle();
+        estiloImporte.setDataFormat(libro.createDataFormat().getFormat("#,##0.00"));
+    }
+
+    @Override
+    public void cabecera(List<String> columnas) {
+        Row fila = hoja.createRow(siguienteFila++);
+        for (int i = 0; i < columnas.size(); i++) {
+            Cell celda = fila.createCell(i);
+            celda.setCellValue(columnas.get(i));
+            celda.setCellStyle(estiloCabecera);
+        }
+        hoja.createFreezePane(0, 1);
+    }
+
+    @Override
+    public void fila(Object... valores) {
+        Row fila = hoja.createRow(siguienteFila++);
+        for (int i = 0; i < valores.length; i++) {
+            Object valor = valores[i];
+            if (valor == null) {
+                continue;
+            }
+            Cell celda = fila.createCell(i);
+            if (valor instanceof BigDecimal decimal) {
+                celda.setCellValue(decimal.doubleValue());
+                celda.setCellStyle(estiloImporte);
+            } else if (valor instanceof Number numero) {
+                celda.setCellValue(numero.doubleValue());
+            } else if (valor instanceof Boolean b) {
+                celda.setCellValue(b ? "Sí" : "No");
+            } else if (valor instanceof LocalDateTime fechaHora) {
+                celda.setCellValue(fechaHora);
+                celda.setCellStyle(estiloFechaHora);
+            } else if (valor instanceof LocalDate fecha) {
+                celda.setCellValue(fecha);
+                celda.setCellStyle(estiloFecha);
+            } else {
+                celda.setCellValue(valor.toString());
+            }
+        }
+    }
+
+    @Override
+    public void terminar() throws IOException {
+        libro.write(salida);
+        salida.flush();
+    }
+
+    /**
+     * Borra los temporales también cuando la exportación se corta a medias.
+     */
+    @Override
+    public void close() throws IOException {
+        libro.dispose();
+        libro.close();
+    }
+
+    @Override
+    public String getTipoContenido() {
+        return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    }
+
+    @Override
+    public String getExtension() {
+        return "xlsx";
+    }
+}
@@ -1,6 +1,7 @@
 package com.empresa.gestionproveedores.filter;
 
 import com.empresa.gestionproveedores.bean.AuthBean;
+import com.empresa.gestionproveedores.config.ApiConfig;
 import jakarta.inject.Inject;
 import jakarta.servlet.*;
 import jakarta.servlet.annotation.WebFilter;
@@ -10,20 +11,35 @@ import jakarta.servlet.http.HttpSession;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 
 /**
  * Filtro de Autenticación
- * Protege las páginas que requieren login
+ * Protege las páginas que requieren login y el endpoint /metrics.
+ * A /metrics también se accede sin sesión con la cabecera
+ * "Authorization: Bearer &lt;metrics.token&gt;", que es lo que envía Prometheus;
+ * sin token configurado solo lo ve un usuario con sesión.
  */
-@WebFilter(filterName = "AuthFilter", urlPatterns = {"*.xhtml"})
+@WebFilter(filterName = "AuthFilter", urlPatterns = {"*.xhtml", "/exportar/*", "/metrics"})
 @Slf4j
 public class AuthFilter implements Filter {
 
+    private static final String RUTA_METRICAS = "/metrics";
+    private static final String PREFIJO_BEARER = "Bearer ";
+
     @Inject
     private AuthBean authBean;
 
+    @Inject
+    private ApiConfig apiConfig;
+
+    private byte[] tokenMetricas;
+
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
+        String token = apiConfig.leer("metrics.token", null);
+        tokenMetricas = token != null ? token.getBytes(StandardCharsets.UTF_8) : null;
         log.info("Filtro de autenticación inicializado");
     }
 
@@ -45,9 +61,16 @@ public class AuthFilter implements Filter {
         // Verificar autenticación
         boolean autenticado = session != null && authBean != null && authBean.isAutenticado();
 
-        if (isPaginaPublica || autenticado) {
+        boolean isMetricas = RUTA_METRICAS.equals(httpRequest.getServletPath());
+
+        if (isPaginaPublica || autenticado || (isMetricas && tokenMetricasValido(httpRequest))) {
             // Permitir acceso
             chain.doFilter(request, response);
+        } else if (isMetricas) {
+            // Un scraper no sigue la redirección al login
+            log.warn("Acceso no autorizado a: {}", requestURI);
+            httpResponse.setHeader("WWW-Authenticate", "Bearer");
+            httpResponse.sendError(HttpServletResponse.SC_UNAUTHORIZED);
         } else {
             // Redirigir al login
             log.warn("Acceso no autorizado a: {}", requestURI);
@@ -55,6 +78,15 @@ public class AuthFilter implements Filter {
         }
     }
 
+    private boolean tokenMetricasValido(HttpServletRequest request) {
+        String cabecera = request.getHeader("Authorization");
+        if (tokenMetricas == null || cabecera == null || !cabecera.startsWith(PREFIJO_BEARER)) {
+            return false;
+        }
+        byte[] recibido = cabecera.substring(PREFIJO_BEARER.length()).trim().getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(tokenMetricas, recibido);
+    }
+
     @Override
     public void destroy() {
         log.info("Filtro de autenticación destruido");
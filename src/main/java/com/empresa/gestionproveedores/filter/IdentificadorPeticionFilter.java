@@ -0,0 +1,70 @@
+package com.empresa.gestionproveedores.filter;
+
+import com.empresa.gestionproveedores.logging.ContextoLog;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pone en el MDC el identificador de la petición y el de la traza, para que
+ * todos los logs de la petición se puedan agrupar.
+ * <p>
+ * La traza se toma de la cabecera W3C traceparent si viene de un proxy o de
+ * otro servicio; si no, se crea una. El identificador de la petición se toma
+ * de X-Request-Id o se genera, y se devuelve en la misma cabecera.
+ * Se declara en web.xml para que vaya antes que el resto de filtros.
+ */
+public class IdentificadorPeticionFilter implements Filter {
+
+    public static final String CABECERA_REQUEST_ID = "X-Request-Id";
+    public static final String CABECERA_TRACEPARENT = "traceparent";
+
+    private static final Pattern TRACEPARENT = Pattern.compile("^[0-9a-f]{2}-([0-9a-f]{32})-[0-9a-f]{16}-[0-9a-f]{2}$");
+    private static final Pattern REQUEST_ID_VALIDO = Pattern.compile("^[A-Za-z0-9._-]{1,64}$");
+    private static final String TRAZA_NULA = "0".repeat(32);
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        String traceId = traza(httpRequest.getHeader(CABECERA_TRACEPARENT));
+        String requestId = httpRequest.getHeader(CABECERA_REQUEST_ID);
+        // Lo que viene de fuera acaba en los logs: solo se acepta si tiene forma de identificador
+        if (requestId == null || !REQUEST_ID_VALIDO.matcher(requestId).matches()) {
+            requestId = aleatorio(8);
+        }
+        ((HttpServletResponse) response).setHeader(CABECERA_REQUEST_ID, requestId);
+
+        MDC.put(ContextoLog.REQUEST_ID, requestId);
+        MDC.put(ContextoLog.TRACE_ID, traceId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(ContextoLog.REQUEST_ID);
+            MDC.remove(ContextoLog.TRACE_ID);
+        }
+    }
+
+    private static String traza(String traceparent) {
+        if (traceparent != null) {
+            Matcher m = TRACEPARENT.matcher(traceparent.trim());
+            if (m.matches() && !m.group(1).equals(TRAZA_NULA)) {
+                return m.group(1);
+            }
+        }
+        return aleatorio(16);
+    }
+
+    private static String aleatorio(int bytes) {
+        byte[] valor = new byte[bytes];
+        ThreadLocalRandom.current().nextBytes(valor);
+        return HexFormat.of().formatHex(valor);
+    }
+}
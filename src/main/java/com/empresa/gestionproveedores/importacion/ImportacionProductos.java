@@ -0,0 +1,423 @@
+package com.empresa.gestionproveedores.importacion;
+
+import com.empresa.gestionproveedores.dto.ProductoDTO;
+import com.empresa.gestionproveedores.exception.BackendNoDisponibleException;
+import com.empresa.gestionproveedores.exception.CompartimentoLlenoException;
+import com.empresa.gestionproveedores.exception.ServiceException;
+import com.empresa.gestionproveedores.export.EscritorCsv;
+import com.empresa.gestionproveedores.service.ProductoService;
+import com.empresa.gestionproveedores.util.LoteConcurrente;
+import com.empresa.gestionproveedores.util.ValidadorProducto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Alta masiva de productos desde un CSV, pensada para cargar el catálogo de un
+ * proveedor nuevo. Corre en un hilo propio y en cada momento solo tiene en
+ * memoria un lote de filas:
+ * <ol>
+ *   <li>lee el fichero registro a registro ({@link LectorCsv});</li>
+ *   <li>valida cada fila con las mismas reglas que el formulario
+ *       ({@link ValidadorProducto}) y descarta códigos repetidos en el fichero;</li>
+ *   <li>cada {@code tamanioLote} filas válidas las envía con
+ *       {@link LoteConcurrente}, como mucho {@code maxEnCurso} altas a la vez;</li>
+ *   <li>las filas rechazadas, localmente o por el backend, se escriben al
+ *       informe de errores según se conocen.</li>
+ * </ol>
+ * Columnas reconocidas en la cabecera (sin distinguir mayúsculas ni acentos):
+ * codigo, nombre, descripcion, unidad / unidadMedida, precio, proveedorId y
+ * activo. Son las mismas que genera la exportación de productos, salvo el
+ * proveedor, que se elige al importar si el fichero no trae proveedorId.
+ * <p>
+ * Si el backend deja de estar disponible (circuito abierto) la importación se
+ * detiene en lugar de apuntar como error cada fila restante. Si el
+ * compartimento de productos está lleno (otras pantallas lo están usando) el
+ * alta se reintenta con espera creciente, porque no llegó al backend.
+ */
+@Slf4j
+public class ImportacionProductos implements Runnable {
+
+    public enum Estado { EN_CURSO, TERMINADA, CANCELADA, INTERRUMPIDA }
+
+    private static final List<String> COLUMNAS_INFORME = List.of("Línea", "Código", "Nombre", "Error");
+    private static final List<String> OBLIGATORIAS = List.of("codigo", "nombre", "unidad", "precio");
+    private static final int INTENTOS_SATURADO = 6;
+    private static final long ESPERA_SATURADO_MILLIS = 100;
+
+    private final ProductoService productoService;
+    private final Path archivo;
+    private final long tamanioArchivo;
+    private final Long proveedorPorDefecto;
+    private final int tamanioLote;
+    private final int maxEnCurso;
+    private final Duration plazoLote;
+    private final Path informe;
+
+    private final AtomicLong bytesLeidos = new AtomicLong();
+    private final AtomicLong filasLeidas = new AtomicLong();
+    private final AtomicLong creadas = new AtomicLong();
+    private final AtomicLong rechazadas = new AtomicLong();
+    private final AtomicLong fallidas = new AtomicLong();
+    private final Instant inicio = Instant.now();
+
+    private volatile Estado estado = Estado.EN_CURSO;
+    private volatile String motivo;
+    private volatile Instant fin;
+    private volatile boolean cancelar;
+    private volatile boolean backendCaido;
+
+    /**
+     * @param archivo copia local del CSV subido; se borra al terminar
+     */
+    public ImportacionProductos(ProductoService productoService, Path archivo, Long proveedorPorDefecto,
+                                int tamanioLote, int maxEnCurso, Duration plazoLote) throws IOException {
+        this.productoService = productoService;
+        this.archivo = archivo;
+        this.tamanioArchivo = Files.size(archivo);
+        this.proveedorPorDefecto = proveedorPorDefecto;
+        this.tamanioLote = Math.max(1, tamanioLote);
+        this.maxEnCurso = maxEnCurso;
+        this.plazoLote = plazoLote;
+        this.informe = Files.createTempFile("importacion-productos-errores-", ".csv");
+    }
+
+    public void iniciar() {
+        Thread.ofVirtual().name("importacion-productos").start(this);
+    }
+
+    /**
+     * Se atiende al acabar el lote en curso; lo ya enviado no se deshace.
+     */
+    public void cancelar() {
+        cancelar = true;
+    }
+
+    @Override
+    public void run() {
+        log.info("Importación de productos iniciada ({} bytes)", tamanioArchivo);
+        try (InputStream entrada = new ContadorBytes(Files.newInputStream(archivo), bytesLeidos);
+             LectorCsv lector = new LectorCsv(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+             OutputStream salidaInforme = Files.newOutputStream(informe);
+             EscritorCsv errores = new EscritorCsv(salidaInforme)) {
+            errores.cabecera(COLUMNAS_INFORME);
+            procesar(lector, errores);
+            errores.terminar();
+        } catch (Exception e) {
+            log.error("Importación de productos abortada", e);
+            motivo = "Importación interrumpida: " + e.getMessage();
+            estado = Estado.INTERRUMPIDA;
+        } finally {
+            fin = Instant.now();
+            borrar(archivo);
+            log.info("Importación de productos {}: {} filas, {} creadas, {} rechazadas, {} con error en {} s",
+                    estado, filasLeidas, creadas, rechazadas, fallidas, getSegundos());
+        }
+    }
+
+    private void procesar(LectorCsv lector, EscritorCsv errores) throws IOException {
+        Map<String, Integer> columnas = columnas(lector.siguiente());
+        for (String obligatoria : OBLIGATORIAS) {
+            if (!columnas.containsKey(obligatoria)) {
+                terminarCon(Estado.INTERRUMPIDA, "Falta la columna \"" + obligatoria + "\" en la cabecera");
+                return;
+            }
+        }
+        if (!columnas.containsKey("proveedorid") && proveedorPorDefecto == null) {
+            terminarCon(Estado.INTERRUMPIDA, "Seleccione un proveedor o incluya la columna proveedorId");
+            return;
+        }
+
+        Set<String> codigosVistos = new HashSet<>();
+        List<Fila> lote = new ArrayList<>(tamanioLote);
+        List<String> campos;
+        while (!cancelar && !backendCaido && (campos = lector.siguiente()) != null) {
+            filasLeidas.incrementAndGet();
+            Fila fila = new Fila(lector.getLinea(), new ProductoDTO());
+            String error = leerFila(campos, columnas, fila.producto);
+            if (error == null) {
+                error = ValidadorProducto.validar(fila.producto);
+            }
+            if (error == null && !codigosVistos.add(fila.producto.getCodigo().toLowerCase(Locale.ROOT))) {
+                error = "Código repetido en el archivo";
+            }
+            if (error != null) {
+                rechazadas.incrementAndGet();
+                errores.fila(fila.linea, fila.producto.getCodigo(), fila.producto.getNombre(), error);
+                continue;
+            }
+            lote.add(fila);
+            if (lote.size() == tamanioLote) {
+                enviar(lote, errores);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty() && !cancelar && !backendCaido) {
+            enviar(lote, errores);
+        }
+
+        if (backendCaido) {
+            terminarCon(Estado.INTERRUMPIDA,
+                    "El backend dejó de estar disponible; las filas restantes no se enviaron");
+        } else if (cancelar) {
+            terminarCon(Estado.CANCELADA, "Cancelada por el usuario");
+        } else {
+            terminarCon(Estado.TERMINADA, null);
+        }
+    }
+
+    private void enviar(List<Fila> lote, EscritorCsv errores) throws IOException {
+        List<LoteConcurrente.Resultado<Fila>> resultados = new LoteConcurrente(maxEnCurso, plazoLote)
+                .ejecutar(lote, f -> f.producto.getCodigo(), this::crear);
+        for (LoteConcurrente.Resultado<Fila> r : resultados) {
+            if (r.isExito()) {
+                creadas.incrementAndGet();
+            } else {
+                fallidas.incrementAndGet();
+                Fila f = r.getElemento();
+                errores.fila(f.linea, f.producto.getCodigo(), f.producto.getNombre(), r.getError());
+            }
+        }
+    }
+
+    private void crear(Fila f) {
+        for (int intento = 1; ; intento++) {
+            try {
+                // Un 4xx del backend (p. ej. código duplicado) no lanza: llega sin producto creado
+                if (productoService.crear(f.producto) == null) {
+                    throw new ServiceException("El backend rechazó el producto");
+                }
+                return;
+            } catch (CompartimentoLlenoException e) {
+                if (intento == INTENTOS_SATURADO || cancelar) {
+                    throw e;
+                }
+                esperar(intento);
+            } catch (BackendNoDisponibleException e) {
+                backendCaido = true;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Espera exponencial con variación aleatoria, para que las altas
+     * rechazadas a la vez no vuelvan a la vez.
+     */
+    private static void esperar(int intento) {
+        long espera = ESPERA_SATURADO_MILLIS << (intento - 1);
+        try {
+            Thread.sleep(espera + ThreadLocalRandom.current().nextLong(espera));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Importación interrumpida");
+        }
+    }
+
+    /**
+     * Vuelca los campos a la columna que corresponde; solo falla si un número no se puede leer.
+     */
+    private String leerFila(List<String> campos, Map<String, Integer> columnas, ProductoDTO p) {
+        p.setCodigo(valor(campos, columnas, "codigo"));
+        p.setNombre(valor(campos, columnas, "nombre"));
+        p.setDescripcion(valor(campos, columnas, "descripcion"));
+        p.setUnidadMedida(valor(campos, columnas, "unidad"));
+        p.setActivo(leerActivo(valor(campos, columnas, "activo")));
+
+        String precio = valor(campos, columnas, "precio");
+        if (precio != null) {
+            try {
+                // Admite coma decimal si no hay punto: "12,50"
+                p.setPrecio(new BigDecimal(precio.indexOf('.') < 0 ? precio.replace(',', '.') : precio));
+            } catch (NumberFormatException e) {
+                return "Precio no válido: " + precio;
+            }
+        }
+        String proveedor = valor(campos, columnas, "proveedorid");
+        if (proveedor == null) {
+            p.setProveedorId(proveedorPorDefecto);
+        } else {
+            try {
+                p.setProveedorId(Long.valueOf(proveedor));
+            } catch (NumberFormatException e) {
+                return "Proveedor no válido: " + proveedor;
+            }
+        }
+        return null;
+    }
+
+    private static Boolean leerActivo(String valor) {
+        if (valor == null) {
+            return true;
+        }
+        return switch (normalizar(valor)) {
+            case "no", "false", "0", "n", "inactivo" -> false;
+            default -> true;
+        };
+    }
+
+    private static String valor(List<String> campos, Map<String, Integer> columnas, String columna) {
+        Integer i = columnas.get(columna);
+        if (i == null || i >= campos.size()) {
+            return null;
+        }
+        String v = campos.get(i).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    private static Map<String, Integer> columnas(List<String> cabecera) {
+        Map<String, Integer> columnas = new HashMap<>();
+        if (cabecera == null) {
+            return columnas;
+        }
+        for (int i = 0; i < cabecera.size(); i++) {
+            String nombre = normalizar(cabecera.get(i)).replace(" ", "");
+            if (nombre.equals("unidadmedida") || nombre.equals("unidaddemedida")) {
+                nombre = "unidad";
+            }
+            columnas.putIfAbsent(nombre, i);
+        }
+        return columnas;
+    }
+
+    private static String normalizar(String texto) {
+        return Normalizer.normalize(texto.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private void terminarCon(Estado estadoFinal, String motivoFinal) {
+        motivo = motivoFinal;
+        estado = estadoFinal;
+    }
+
+    private static void borrar(Path ruta) {
+        try {
+            Files.deleteIfExists(ruta);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el temporal {}", ruta, e);
+        }
+    }
+
+    /**
+     * Borra el informe de errores; llamar cuando ya no se vaya a descargar.
+     */
+    public void descartar() {
+        cancelar = true;
+        borrar(informe);
+    }
+
+    // ----------------- Progreso (se lee desde otros hilos) -----------------
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public boolean isEnCurso() {
+        return estado == Estado.EN_CURSO;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    /**
+     * Porcentaje del fichero leído: se conoce sin contar antes las filas.
+     */
+    public int getPorcentaje() {
+        if (!isEnCurso()) {
+            return 100;
+        }
+        return tamanioArchivo == 0 ? 0 : (int) Math.min(99, bytesLeidos.get() * 100 / tamanioArchivo);
+    }
+
+    public long getFilasLeidas() {
+        return filasLeidas.get();
+    }
+
+    public long getCreadas() {
+        return creadas.get();
+    }
+
+    public long getRechazadas() {
+        return rechazadas.get();
+    }
+
+    public long getFallidas() {
+        return fallidas.get();
+    }
+
+    public long getConError() {
+        return rechazadas.get() + fallidas.get();
+    }
+
+    public long getSegundos() {
+        return Duration.between(inicio, fin != null ? fin : Instant.now()).toSeconds();
+    }
+
+    /**
+     * Altas por segundo desde el inicio.
+     */
+    public long getRitmo() {
+        long segundos = getSegundos();
+        return segundos == 0 ? creadas.get() : creadas.get() / segundos;
+    }
+
+    public Path getInforme() {
+        return informe;
+    }
+
+    private record Fila(long linea, ProductoDTO producto) {
+    }
+
+    /**
+     * Cuenta lo consumido del fichero para calcular el progreso.
+     */
+    private static final class ContadorBytes extends FilterInputStream {
+
+        private final AtomicLong contador;
+
+        ContadorBytes(InputStream in, AtomicLong contador) {
+            super(in);
+            this.contador = contador;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                contador.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                contador.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
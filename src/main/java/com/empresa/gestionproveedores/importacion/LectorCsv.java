@@ -0,0 +1,134 @@
+package com.empresa.gestionproveedores.importacion;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lee un CSV registro a registro sin cargarlo entero: comillas dobles con
+ * comillas escapadas ("") y saltos de línea dentro de un campo, BOM inicial y
+ * finales de línea CRLF o LF (RFC 4180).
+ * <p>
+ * El separador se deduce de la cabecera: coma o punto y coma, que es lo que
+ * guarda Excel con configuración regional en español.
+ */
+public class LectorCsv implements Closeable {
+
+    private static final int FIN = -1;
+
+    private final BufferedReader in;
+    private final char separador;
+    private final StringBuilder campo = new StringBuilder();
+    private long linea = 1;
+    private long lineaRegistro;
+
+    public LectorCsv(Reader origen) throws IOException {
+        this.in = origen instanceof BufferedReader b ? b : new BufferedReader(origen, 64 * 1024);
+        in.mark(1);
+        if (in.read() != '\uFEFF') {
+            in.reset();
+        }
+        this.separador = detectarSeparador();
+    }
+
+    /**
+     * @return los campos del siguiente registro, o null al final del fichero.
+     *         Las líneas en blanco se saltan.
+     */
+    public List<String> siguiente() throws IOException {
+        List<String> campos = new ArrayList<>();
+        lineaRegistro = linea;
+        campo.setLength(0);
+        boolean entreComillas = false;
+        boolean algoLeido = false;
+        int c;
+        while ((c = in.read()) != FIN) {
+            algoLeido = true;
+            if (entreComillas) {
+                if (c == '"') {
+                    in.mark(1);
+                    if (in.read() == '"') {
+                        campo.append('"');
+                    } else {
+                        in.reset();
+                        entreComillas = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        linea++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.isEmpty()) {
+                entreComillas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    in.mark(1);
+                    if (in.read() != '\n') {
+                        in.reset();
+                    }
+                }
+                linea++;
+                if (campos.isEmpty() && campo.isEmpty()) {
+                    lineaRegistro = linea;
+                    continue;
+                }
+                break;
+            } else {
+                campo.append((char) c);
+            }
+        }
+        if (!algoLeido || (c == FIN && campos.isEmpty() && campo.isEmpty())) {
+            return null;
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    /**
+     * Línea del fichero (desde 1) en la que empieza el último registro leído.
+     */
+    public long getLinea() {
+        return lineaRegistro;
+    }
+
+    public char getSeparador() {
+        return separador;
+    }
+
+    /**
+     * Cuenta separadores fuera de comillas en la primera línea y vuelve al inicio.
+     */
+    private char detectarSeparador() throws IOException {
+        in.mark(64 * 1024);
+        int comas = 0;
+        int puntosYComa = 0;
+        boolean entreComillas = false;
+        int leidos = 0;
+        int c;
+        while ((c = in.read()) != FIN && ++leidos < 64 * 1024) {
+            if (c == '"') {
+                entreComillas = !entreComillas;
+            } else if (!entreComillas && (c == '\n' || c == '\r')) {
+                break;
+            } else if (!entreComillas && c == ',') {
+                comas++;
+            } else if (!entreComillas && c == ';') {
+                puntosYComa++;
+            }
+        }
+        in.reset();
+        return puntosYComa > comas ? ';' : ',';
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
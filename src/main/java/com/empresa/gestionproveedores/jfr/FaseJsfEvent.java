@@ -0,0 +1,34 @@
+package com.empresa.gestionproveedores.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Evento JFR de una fase del ciclo de vida JSF (restaurar vista, aplicar
+ * valores, validar, actualizar modelo, invocar la aplicación, renderizar).
+ * Hay seis por petición, así que por defecto solo se graban las que pasan
+ * de 5 ms; se cambia con {@code com.empresa.gestionproveedores.FaseJsf#threshold}
+ * en el fichero .jfc de la grabación.
+ */
+@Name("com.empresa.gestionproveedores.FaseJsf")
+@Label("Fase JSF")
+@Category({"Gestión de Proveedores", "JSF"})
+@Description("Una fase del ciclo de vida JSF de una petición")
+@StackTrace(false)
+@Threshold("5 ms")
+public class FaseJsfEvent extends jdk.jfr.Event {
+
+    @Label("Fase")
+    String fase;
+
+    @Label("Vista")
+    String vista;
+
+    @Label("Ajax")
+    @Description("Petición parcial (ajax) de PrimeFaces o f:ajax")
+    boolean ajax;
+}
@@ -0,0 +1,50 @@
+package com.empresa.gestionproveedores.jfr;
+
+import jakarta.faces.context.FacesContext;
+import jakarta.faces.event.PhaseEvent;
+import jakarta.faces.event.PhaseId;
+import jakarta.faces.event.PhaseListener;
+
+/**
+ * Registra cada fase JSF como evento JFR FaseJsf. El evento en curso se guarda
+ * en los atributos del FacesContext, que solo viven lo que la petición; JSF
+ * llama a afterPhase aunque la fase termine con excepción.
+ * Se declara en faces-config.xml.
+ */
+public class FasesJsfListener implements PhaseListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String ATRIBUTO = FasesJsfListener.class.getName();
+
+    @Override
+    public void beforePhase(PhaseEvent event) {
+        FaseJsfEvent evento = new FaseJsfEvent();
+        if (!evento.isEnabled()) {
+            return;
+        }
+        evento.begin();
+        event.getFacesContext().getAttributes().put(ATRIBUTO, evento);
+    }
+
+    @Override
+    public void afterPhase(PhaseEvent event) {
+        FacesContext contexto = event.getFacesContext();
+        FaseJsfEvent evento = (FaseJsfEvent) contexto.getAttributes().remove(ATRIBUTO);
+        if (evento == null) {
+            return;
+        }
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.fase = event.getPhaseId().getName();
+            evento.vista = contexto.getViewRoot() != null ? contexto.getViewRoot().getViewId() : null;
+            evento.ajax = contexto.getPartialViewContext().isAjaxRequest();
+            evento.commit();
+        }
+    }
+
+    @Override
+    public PhaseId getPhaseId() {
+        return PhaseId.ANY_PHASE;
+    }
+}
@@ -0,0 +1,30 @@
+package com.empresa.gestionproveedores.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR con la duración del {@code @PostConstruct} de un bean marcado
+ * con {@link InicializacionMedida}. Las llamadas al backend hechas durante la
+ * inicialización aparecen como eventos LlamadaBackend dentro de su intervalo.
+ */
+@Name("com.empresa.gestionproveedores.InicializacionBean")
+@Label("Inicialización de bean")
+@Category({"Gestión de Proveedores", "CDI"})
+@Description("Ejecución del método @PostConstruct de un bean")
+@StackTrace(false)
+public class InicializacionBeanEvent extends jdk.jfr.Event {
+
+    @Label("Bean")
+    String bean;
+
+    @Label("Vista")
+    @Description("Vista JSF que provocó la creación del bean, si la hay")
+    String vista;
+
+    @Label("Error")
+    String error;
+}
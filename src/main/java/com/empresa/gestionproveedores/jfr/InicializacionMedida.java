@@ -0,0 +1,18 @@
+package com.empresa.gestionproveedores.jfr;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca los beans cuyo {@code @PostConstruct} se registra como evento JFR
+ * InicializacionBean.
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface InicializacionMedida {
+}
@@ -0,0 +1,55 @@
+package com.empresa.gestionproveedores.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.faces.context.FacesContext;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.io.Serializable;
+
+/**
+ * Mide el {@code @PostConstruct} de los beans con {@link InicializacionMedida}.
+ * Es serializable porque se aplica también a beans de vista y de sesión.
+ */
+@Interceptor
+@InicializacionMedida
+@Priority(Interceptor.Priority.APPLICATION)
+public class InicializacionMedidaInterceptor implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @PostConstruct
+    public Object medir(InvocationContext contexto) throws Exception {
+        InicializacionBeanEvent evento = new InicializacionBeanEvent();
+        evento.begin();
+        try {
+            return contexto.proceed();
+        } catch (Exception | Error e) {
+            evento.error = e.toString();
+            throw e;
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.bean = nombreBean(contexto.getTarget().getClass());
+                evento.vista = vistaActual();
+                evento.commit();
+            }
+        }
+    }
+
+    /**
+     * Weld intercepta sobre una subclase generada; interesa la clase del bean.
+     */
+    private static String nombreBean(Class<?> clase) {
+        while (clase.isSynthetic() || clase.getName().contains("$$")) {
+            clase = clase.getSuperclass();
+        }
+        return clase.getName();
+    }
+
+    private static String vistaActual() {
+        FacesContext faces = FacesContext.getCurrentInstance();
+        return faces != null && faces.getViewRoot() != null ? faces.getViewRoot().getViewId() : null;
+    }
+}
@@ -0,0 +1,115 @@
+package com.empresa.gestionproveedores.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.util.regex.Pattern;
+
+/**
+ * Evento JFR de una llamada HTTP al backend: desde que se pide permiso al
+ * compartimento hasta tener el DTO deserializado. Cada intento de una petición
+ * con cobertura o reintento es un evento distinto.
+ * <p>
+ * Los eventos de la aplicación están activos por defecto; basta con arrancar
+ * Tomcat con una grabación continua, p. ej.
+ * {@code -XX:StartFlightRecording=disk=true,maxage=6h,dumponexit=true,filename=/var/log/gestion-proveedores/}
+ * y abrirla con JDK Mission Control o {@code jfr print --events LlamadaBackend}.
+ * <p>
+ * Los campos se rellenan solo si el evento se va a grabar: con JFR apagado el
+ * coste es el de crear un objeto de vida muy corta.
+ */
+@Name("com.empresa.gestionproveedores.LlamadaBackend")
+@Label("Llamada al backend")
+@Category({"Gestión de Proveedores", "Backend"})
+@Description("Petición HTTP a la API del backend, incluida la decodificación JSON")
+@StackTrace(false)
+public class LlamadaBackendEvent extends jdk.jfr.Event {
+
+    private static final Pattern ID = Pattern.compile("/\\d+(?=/|$)");
+    private static final Pattern ESTADO = Pattern.compile("/estado/[^/]+$");
+
+    @Label("Operación")
+    @Description("Operación del servicio, p. ej. productos.listarTodos")
+    String operacion;
+
+    @Label("Método")
+    String metodo;
+
+    @Label("Plantilla de URL")
+    @Description("Ruta sin query string y con los identificadores sustituidos, p. ej. /api/productos/{id}")
+    String plantilla;
+
+    @Label("Estado HTTP")
+    @Description("0 si no llegó respuesta")
+    int estado;
+
+    @Label("Bytes recibidos")
+    @DataAmount
+    long bytes;
+
+    @Label("Decodificación JSON")
+    @Timespan
+    long decodificacion;
+
+    @Label("Error")
+    String error;
+
+    /**
+     * Crea el evento y empieza a medir.
+     */
+    public static LlamadaBackendEvent iniciar() {
+        LlamadaBackendEvent evento = new LlamadaBackendEvent();
+        evento.begin();
+        return evento;
+    }
+
+    public void estado(int estado) {
+        this.estado = estado;
+    }
+
+    public void decodificacion(long nanos) {
+        this.decodificacion = nanos;
+    }
+
+    public void bytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public void fallo(String error) {
+        this.error = error;
+    }
+
+    /**
+     * Termina la medida y graba el evento si supera el umbral configurado.
+     *
+     * @param ruta ruta de la petición, con o sin query string
+     */
+    public void terminar(String operacion, String metodo, String ruta) {
+        end();
+        if (shouldCommit()) {
+            this.operacion = operacion;
+            this.metodo = metodo;
+            this.plantilla = plantilla(ruta);
+            commit();
+        }
+    }
+
+    /**
+     * Quita la query string y cambia los identificadores numéricos y el valor
+     * de /estado/... por marcadores, para poder agrupar por endpoint.
+     */
+    static String plantilla(String ruta) {
+        if (ruta == null) {
+            return null;
+        }
+        int query = ruta.indexOf('?');
+        String path = query >= 0 ? ruta.substring(0, query) : ruta;
+        path = ID.matcher(path).replaceAll("/{id}");
+        return ESTADO.matcher(path).replaceFirst("/estado/{estado}");
+    }
+}
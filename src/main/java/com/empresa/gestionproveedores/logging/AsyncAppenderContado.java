@@ -0,0 +1,30 @@
+package com.empresa.gestionproveedores.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * AsyncAppender de logback que cuenta lo que descarta. Con neverBlock el hilo
+ * de la petición nunca espera a la E/S del log: si la cola está llena el evento
+ * se pierde, y por encima del umbral de descarte se pierden también los
+ * DEBUG/INFO. Logback no lleva la cuenta de ninguno de los dos casos.
+ * <p>
+ * La comprobación se hace antes de encolar y sin bloqueo, así que en una
+ * carrera puede perderse algún evento sin contar; para una alarma basta.
+ */
+public class AsyncAppenderContado extends AsyncAppender {
+
+    @Override
+    protected void append(ILoggingEvent evento) {
+        int libres = getRemainingCapacity();
+        if (libres < getDiscardingThreshold() && isDiscardable(evento)) {
+            DescartesLog.registrar(DescartesLog.UMBRAL, getName());
+            return;
+        }
+        if (libres == 0 && isNeverBlock()) {
+            DescartesLog.registrar(DescartesLog.COLA_LLENA, getName());
+            return;
+        }
+        super.append(evento);
+    }
+}
@@ -0,0 +1,55 @@
+package com.empresa.gestionproveedores.logging;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Claves del MDC con las que se correlacionan los logs de una petición y
+ * utilidades para llevarlas a los hilos virtuales que lanza la petición
+ * (CargaParalela, LoteConcurrente, Hedging): el MDC es por hilo y no se hereda.
+ */
+public final class ContextoLog {
+
+    /** Identificador de la petición HTTP; se devuelve en la cabecera X-Request-Id. */
+    public static final String REQUEST_ID = "requestId";
+    /** Traza W3C (traceparent) a la que pertenece la petición. */
+    public static final String TRACE_ID = "traceId";
+
+    private ContextoLog() {
+    }
+
+    /**
+     * Envuelve la tarea para que se ejecute con el MDC del hilo que la crea.
+     */
+    public static <T> Callable<T> conMdc(Callable<T> tarea) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        if (mdc == null) {
+            return tarea;
+        }
+        return () -> {
+            MDC.setContextMap(mdc);
+            try {
+                return tarea.call();
+            } finally {
+                MDC.clear();
+            }
+        };
+    }
+
+    public static Runnable conMdc(Runnable tarea) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        if (mdc == null) {
+            return tarea;
+        }
+        return () -> {
+            MDC.setContextMap(mdc);
+            try {
+                tarea.run();
+            } finally {
+                MDC.clear();
+            }
+        };
+    }
+}
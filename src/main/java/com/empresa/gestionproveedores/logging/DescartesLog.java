@@ -0,0 +1,41 @@
+package com.empresa.gestionproveedores.logging;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de eventos de log que no se escribieron. Los componentes de
+ * logback los crea Joran al leer logback.xml, fuera de CDI, así que los
+ * contadores son estáticos; LogMetrics los publica en /metrics.
+ */
+public final class DescartesLog {
+
+    /** Cola del appender asíncrono llena. */
+    public static final String COLA_LLENA = "cola_llena";
+    /** Evento DEBUG/INFO/TRACE descartado porque la cola pasó del umbral. */
+    public static final String UMBRAL = "umbral";
+    /** Evento no elegido por el muestreo. */
+    public static final String MUESTREO = "muestreo";
+    /** Mensaje por encima de su límite por segundo. */
+    public static final String LIMITE = "limite";
+
+    private static final Map<String, LongAdder> CONTADORES = new ConcurrentHashMap<>();
+
+    private DescartesLog() {
+    }
+
+    static void registrar(String motivo, String origen) {
+        CONTADORES.computeIfAbsent(motivo + '|' + origen, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * @return totales por "motivo|origen"; el origen es el appender o el logger
+     */
+    public static Map<String, Long> totales() {
+        Map<String, Long> totales = new TreeMap<>();
+        CONTADORES.forEach((clave, n) -> totales.put(clave, n.sum()));
+        return totales;
+    }
+}
@@ -0,0 +1,104 @@
+package com.empresa.gestionproveedores.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.event.KeyValuePair;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Escribe cada evento como una línea JSON:
+ * <pre>
+ * {"@timestamp":"2026-01-15T10:42:07.123Z","level":"ERROR","logger":"com.empresa.gestionproveedores.bean.OrdenCompraBean",
+ *  "thread":"http-nio-8080-exec-4","message":"Error al guardar orden","requestId":"9f2c...","traceId":"4bf9...",
+ *  "mdc":{...},"kv":{...},"error":{"type":"...","message":"...","stack":"..."}}
+ * </pre>
+ * requestId y traceId salen del MDC (ContextoLog); el resto
+ * del MDC va en "mdc" y los pares clave-valor de la API fluida de SLF4J en "kv".
+ * <p>
+ * Usa el generador de jackson-core, que ya está en el classpath, sin
+ * ObjectMapper. Es seguro entre hilos: OutputStreamAppender llama a encode
+ * fuera de su cerrojo.
+ */
+public class JsonLogEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final byte[] VACIO = new byte[0];
+    private static final JsonFactory FABRICA = JsonFactory.builder().build();
+
+    @Override
+    public byte[] headerBytes() {
+        return VACIO;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent evento) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(512);
+        try (JsonGenerator json = FABRICA.createGenerator(salida)) {
+            json.writeStartObject();
+            json.writeStringField("@timestamp", evento.getInstant().toString());
+            json.writeStringField("level", evento.getLevel().toString());
+            json.writeStringField("logger", evento.getLoggerName());
+            json.writeStringField("thread", evento.getThreadName());
+            json.writeStringField("message", evento.getFormattedMessage());
+
+            Map<String, String> mdc = evento.getMDCPropertyMap();
+            campo(json, ContextoLog.REQUEST_ID, mdc.get(ContextoLog.REQUEST_ID));
+            campo(json, ContextoLog.TRACE_ID, mdc.get(ContextoLog.TRACE_ID));
+            boolean conMdc = false;
+            for (Map.Entry<String, String> e : mdc.entrySet()) {
+                if (e.getKey().equals(ContextoLog.REQUEST_ID)
+                        || e.getKey().equals(ContextoLog.TRACE_ID)) {
+                    continue;
+                }
+                if (!conMdc) {
+                    json.writeObjectFieldStart("mdc");
+                    conMdc = true;
+                }
+                json.writeStringField(e.getKey(), e.getValue());
+            }
+            if (conMdc) {
+                json.writeEndObject();
+            }
+
+            if (evento.getKeyValuePairs() != null && !evento.getKeyValuePairs().isEmpty()) {
+                json.writeObjectFieldStart("kv");
+                for (KeyValuePair par : evento.getKeyValuePairs()) {
+                    json.writeStringField(par.key, String.valueOf(par.value));
+                }
+                json.writeEndObject();
+            }
+
+            IThrowableProxy error = evento.getThrowableProxy();
+            if (error != null) {
+                json.writeObjectFieldStart("error");
+                json.writeStringField("type", error.getClassName());
+                campo(json, "message", error.getMessage());
+                json.writeStringField("stack", ThrowableProxyUtil.asString(error));
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        salida.write('\n');
+        return salida.toByteArray();
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return VACIO;
+    }
+
+    private static void campo(JsonGenerator json, String nombre, String valor) throws IOException {
+        if (valor != null) {
+            json.writeStringField(nombre, valor);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.empresa.gestionproveedores.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AsyncAppenderBase;
+import com.empresa.gestionproveedores.metrics.MetricSource;
+import com.empresa.gestionproveedores.metrics.MetricsWriter;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Publica en /metrics los eventos de log descartados y la ocupación de las
+ * colas de los appenders asíncronos. Una cola que se mantiene llena o un
+ * contador de descartes que crece indican que el log no da abasto.
+ */
+@ApplicationScoped
+public class LogMetrics implements MetricSource {
+
+    @Override
+    public void exportar(MetricsWriter w) {
+        w.familia("gp_log_dropped_total", "counter", "Eventos de log no escritos, por motivo y origen");
+        DescartesLog.totales().forEach((clave, n) -> {
+            int separador = clave.indexOf('|');
+            w.muestra("gp_log_dropped_total", MetricsWriter.etiqueta("reason", clave.substring(0, separador))
+                    + "," + MetricsWriter.etiqueta("source", clave.substring(separador + 1)), n);
+        });
+
+        List<AsyncAppenderBase<?>> asincronos = asincronos();
+        w.familia("gp_log_queue_events", "gauge", "Eventos esperando en la cola del appender asíncrono");
+        asincronos.forEach(a -> w.muestra("gp_log_queue_events",
+                MetricsWriter.etiqueta("appender", a.getName()), a.getNumberOfElementsInQueue()));
+        w.familia("gp_log_queue_capacity", "gauge", "Tamaño de la cola del appender asíncrono");
+        asincronos.forEach(a -> w.muestra("gp_log_queue_capacity",
+                MetricsWriter.etiqueta("appender", a.getName()), a.getQueueSize()));
+    }
+
+    private static List<AsyncAppenderBase<?>> asincronos() {
+        List<AsyncAppenderBase<?>> asincronos = new ArrayList<>();
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext contexto) {
+            Iterator<? extends Appender<?>> appenders =
+                    contexto.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+            while (appenders.hasNext()) {
+                if (appenders.next() instanceof AsyncAppenderBase<?> asincrono) {
+                    asincronos.add(asincrono);
+                }
+            }
+        }
+        return asincronos;
+    }
+}
@@ -0,0 +1,112 @@
+package com.empresa.gestionproveedores.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Muestreo y límite por segundo de los mensajes frecuentes, antes de crear el
+ * evento de log (un TurboFilter actúa antes que el nivel y los appenders).
+ * <pre>
+ * &lt;turboFilter class="com.empresa.gestionproveedores.logging.MuestreoTurboFilter"&gt;
+ *     &lt;muestreo&gt;&lt;logger&gt;com.empresa.gestionproveedores&lt;/logger&gt;&lt;nivel&gt;DEBUG&lt;/nivel&gt;&lt;fraccion&gt;0.1&lt;/fraccion&gt;&lt;/muestreo&gt;
+ *     &lt;limite&gt;&lt;logger&gt;com.empresa.gestionproveedores&lt;/logger&gt;&lt;nivel&gt;ERROR&lt;/nivel&gt;&lt;porSegundo&gt;20&lt;/porSegundo&gt;&lt;/limite&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ * Para cada logger vale la regla de cada tipo con el prefijo más largo. El
+ * límite cuenta por plantilla del mensaje (el texto con {}), de modo que una
+ * ráfaga del mismo error no tapa los demás. Lo descartado se cuenta en
+ * DescartesLog.
+ */
+public class MuestreoTurboFilter extends TurboFilter {
+
+    /** Plantillas distintas que se siguen a la vez; al pasar se empieza de cero. */
+    private static final int MAX_VENTANAS = 10_000;
+
+    private final List<ReglaLog> muestreos = new ArrayList<>();
+    private final List<ReglaLog> limites = new ArrayList<>();
+    private final Map<String, Reglas> porLogger = new ConcurrentHashMap<>();
+    private final Map<String, Ventana> ventanas = new ConcurrentHashMap<>();
+
+    public void addMuestreo(ReglaLog regla) {
+        muestreos.add(regla);
+    }
+
+    public void addLimite(ReglaLog regla) {
+        limites.add(regla);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // Sin plantilla es una comprobación isXxxEnabled(); un nivel desactivado lo descarta el propio logger
+        if (!isStarted() || format == null || level.levelInt < logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+        Reglas reglas = porLogger.computeIfAbsent(logger.getName(), this::resolver);
+        if (reglas.muestreo != null && reglas.muestreo.aplica(level)
+                && ThreadLocalRandom.current().nextDouble() >= reglas.muestreo.getFraccion()) {
+            DescartesLog.registrar(DescartesLog.MUESTREO, reglas.muestreo.getLogger());
+            return FilterReply.DENY;
+        }
+        if (reglas.limite != null && reglas.limite.aplica(level) && !admitir(logger.getName(), format, reglas.limite)) {
+            DescartesLog.registrar(DescartesLog.LIMITE, reglas.limite.getLogger());
+            return FilterReply.DENY;
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private boolean admitir(String logger, String plantilla, ReglaLog regla) {
+        if (regla.getPorSegundo() <= 0) {
+            return true;
+        }
+        if (ventanas.size() > MAX_VENTANAS) {
+            ventanas.clear();
+        }
+        Ventana ventana = ventanas.computeIfAbsent(logger + '|' + plantilla, k -> new Ventana());
+        return ventana.admitir(System.nanoTime() / 1_000_000_000L, regla.getPorSegundo());
+    }
+
+    private Reglas resolver(String logger) {
+        return new Reglas(masEspecifica(muestreos, logger), masEspecifica(limites, logger));
+    }
+
+    private static ReglaLog masEspecifica(List<ReglaLog> reglas, String logger) {
+        ReglaLog elegida = null;
+        for (ReglaLog regla : reglas) {
+            if (regla.aplica(logger) && (elegida == null || regla.getLogger().length() > elegida.getLogger().length())) {
+                elegida = regla;
+            }
+        }
+        return elegida;
+    }
+
+    private record Reglas(ReglaLog muestreo, ReglaLog limite) {
+    }
+
+    /**
+     * Cuenta de eventos en el segundo en curso. En el cambio de segundo dos
+     * hilos pueden reiniciarla a la vez; se admite algún evento de más.
+     */
+    private static final class Ventana {
+
+        private volatile long segundo;
+        private final AtomicInteger eventos = new AtomicInteger();
+
+        boolean admitir(long ahora, int maximo) {
+            if (ahora != segundo) {
+                segundo = ahora;
+                eventos.set(0);
+            }
+            return eventos.incrementAndGet() <= maximo;
+        }
+    }
+}
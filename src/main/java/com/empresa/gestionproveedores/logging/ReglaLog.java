@@ -0,0 +1,43 @@
+package com.empresa.gestionproveedores.logging;
+
+import ch.qos.logback.classic.Level;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Regla de MuestreoTurboFilter para los loggers que empiezan por
+ * {@code logger}. Se aplica a los eventos de nivel {@code nivel} o menos
+ * graves; los más graves pasan siempre. La escribe Joran desde logback.xml,
+ * de ahí los setters.
+ */
+@Getter
+@Setter
+public class ReglaLog {
+
+    /** Prefijo del nombre del logger; vacío para todos. */
+    private String logger = "";
+
+    /** Nivel más grave al que se aplica la regla. */
+    private Level nivel = Level.DEBUG;
+
+    /** En muestreo: fracción de eventos que se escriben, entre 0 y 1. */
+    private double fraccion = 1.0;
+
+    /** En límite: eventos por segundo de un mismo mensaje (misma plantilla); 0 sin límite. */
+    private int porSegundo;
+
+    /**
+     * Joran pasa el nivel como texto.
+     */
+    public void setNivel(String nivel) {
+        this.nivel = Level.toLevel(nivel, Level.DEBUG);
+    }
+
+    boolean aplica(String nombreLogger) {
+        return nombreLogger.startsWith(logger);
+    }
+
+    boolean aplica(Level nivelEvento) {
+        return nivelEvento.levelInt <= nivel.levelInt;
+    }
+}
@@ -0,0 +1,113 @@
+package com.empresa.gestionproveedores.metrics;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de las llamadas al backend y de los pools de conexiones HTTP.
+ * Las latencias se registran por operación de servicio (p. ej. "productos.listarTodos").
+ */
+@ApplicationScoped
+public class BackendMetrics implements MetricSource {
+
+    private static final String SIN_OPERACION = "desconocida";
+
+    /** Operación en curso en el hilo, para atribuir la espera por una conexión del pool. */
+    private static final ThreadLocal<String> OPERACION_ACTUAL = new ThreadLocal<>();
+
+    private final Map<String, Histogram> peticion = new ConcurrentSkipListMap<>();
+    private final Map<String, Histogram> primerByte = new ConcurrentSkipListMap<>();
+    private final Map<String, Histogram> deserializacion = new ConcurrentSkipListMap<>();
+    private final Map<String, Histogram> esperaLease = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> errores = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> compartidas = new ConcurrentSkipListMap<>();
+    private final Map<String, ConnPoolControl<HttpRoute>> pools = new ConcurrentHashMap<>();
+
+    public void registrarPool(String cliente, ConnPoolControl<HttpRoute> pool) {
+        pools.put(cliente, pool);
+    }
+
+    public void iniciarOperacion(String operacion) {
+        OPERACION_ACTUAL.set(operacion);
+    }
+
+    public void finalizarOperacion() {
+        OPERACION_ACTUAL.remove();
+    }
+
+    /**
+     * @param totalNanos          desde el envío hasta tener el DTO deserializado
+     * @param primerByteNanos     desde el envío hasta recibir la cabecera de la respuesta
+     * @param deserializacionNanos tiempo de lectura del cuerpo y conversión JSON
+     */
+    public void registrarPeticion(String operacion, long totalNanos, long primerByteNanos, long deserializacionNanos) {
+        histograma(peticion, operacion).registrar(totalNanos);
+        if (primerByteNanos >= 0) {
+            histograma(primerByte, operacion).registrar(primerByteNanos);
+        }
+        if (deserializacionNanos >= 0) {
+            histograma(deserializacion, operacion).registrar(deserializacionNanos);
+        }
+    }
+
+    public void registrarError(String operacion) {
+        errores.computeIfAbsent(operacion, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Llamada que no llegó al backend porque se unió a otra idéntica en curso.
+     */
+    public void registrarCompartida(String operacion) {
+        compartidas.computeIfAbsent(operacion, k -> new LongAdder()).increment();
+    }
+
+    public void registrarEsperaLease(long nanos) {
+        String operacion = OPERACION_ACTUAL.get();
+        histograma(esperaLease, operacion != null ? operacion : SIN_OPERACION).registrar(nanos);
+    }
+
+    public Histogram getHistogramaPeticion(String operacion) {
+        return peticion.get(operacion);
+    }
+
+    private static Histogram histograma(Map<String, Histogram> mapa, String operacion) {
+        return mapa.computeIfAbsent(operacion, k -> new Histogram());
+    }
+
+    @Override
+    public void exportar(MetricsWriter w) {
+        w.familia("gp_http_pool_connections", "gauge", "Conexiones del pool HTTP por estado");
+        pools.forEach((cliente, pool) -> {
+            PoolStats stats = pool.getTotalStats();
+            String base = MetricsWriter.etiqueta("client", cliente);
+            w.muestra("gp_http_pool_connections", base + ",state=\"leased\"", stats.getLeased());
+            w.muestra("gp_http_pool_connections", base + ",state=\"pending\"", stats.getPending());
+            w.muestra("gp_http_pool_connections", base + ",state=\"available\"", stats.getAvailable());
+            w.muestra("gp_http_pool_connections", base + ",state=\"max\"", stats.getMax());
+        });
+
+        w.histogramas("gp_http_pool_lease_wait_seconds",
+                "Espera por una conexión libre del pool", "operation", esperaLease);
+        w.histogramas("gp_backend_request_seconds",
+                "Duración total de la llamada al backend", "operation", peticion);
+        w.histogramas("gp_backend_first_byte_seconds",
+                "Tiempo hasta recibir la cabecera de la respuesta", "operation", primerByte);
+        w.histogramas("gp_backend_deserialization_seconds",
+                "Lectura del cuerpo y deserialización JSON", "operation", deserializacion);
+
+        w.familia("gp_backend_errors_total", "counter", "Llamadas al backend fallidas");
+        errores.forEach((operacion, n) ->
+                w.muestra("gp_backend_errors_total", MetricsWriter.etiqueta("operation", operacion), n.sum()));
+
+        w.familia("gp_backend_coalesced_total", "counter", "Llamadas atendidas por otra idéntica ya en curso");
+        compartidas.forEach((operacion, n) ->
+                w.muestra("gp_backend_coalesced_total", MetricsWriter.etiqueta("operation", operacion), n.sum()));
+    }
+}
@@ -0,0 +1,77 @@
+package com.empresa.gestionproveedores.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma acumulativo de duraciones con cubetas fijas (en segundos),
+ * compatible con el formato de exposición de Prometheus.
+ * Registrar una muestra no bloquea: cada cubeta es un LongAdder.
+ */
+public class Histogram {
+
+    static final double[] CUBETAS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private final LongAdder[] conteos = new LongAdder[CUBETAS.length];
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumaNanos = new LongAdder();
+
+    public Histogram() {
+        for (int i = 0; i < conteos.length; i++) {
+            conteos[i] = new LongAdder();
+        }
+    }
+
+    public void registrar(long nanos) {
+        double segundos = nanos / 1_000_000_000d;
+        for (int i = 0; i < CUBETAS.length; i++) {
+            if (segundos <= CUBETAS[i]) {
+                conteos[i].increment();
+                break;
+            }
+        }
+        total.increment();
+        sumaNanos.add(nanos);
+    }
+
+    /**
+     * Conteo acumulado de muestras menores o iguales a la cubeta i.
+     */
+    public long acumulado(int i) {
+        long suma = 0;
+        for (int j = 0; j <= i; j++) {
+            suma += conteos[j].sum();
+        }
+        return suma;
+    }
+
+    /**
+     * Estimación del percentil q (0..1) en segundos, interpolando dentro de la
+     * cubeta como hace histogram_quantile. Devuelve infinito si cae por encima
+     * de la última cubeta y NaN si no hay muestras.
+     */
+    public double percentil(double q) {
+        long conteo = getConteo();
+        if (conteo == 0) {
+            return Double.NaN;
+        }
+        double objetivo = q * conteo;
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS.length; i++) {
+            long enCubeta = conteos[i].sum();
+            if (acumulado + enCubeta >= objetivo && enCubeta > 0) {
+                double desde = i == 0 ? 0 : CUBETAS[i - 1];
+                return desde + (CUBETAS[i] - desde) * (objetivo - acumulado) / enCubeta;
+            }
+            acumulado += enCubeta;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    public long getConteo() {
+        return total.sum();
+    }
+
+    public double getSumaSegundos() {
+        return sumaNanos.sum() / 1_000_000_000d;
+    }
+}
@@ -0,0 +1,10 @@
+package com.empresa.gestionproveedores.metrics;
+
+/**
+ * Componente que publica métricas en el endpoint /metrics.
+ * Basta con que un bean CDI implemente esta interfaz para ser incluido.
+ */
+public interface MetricSource {
+
+    void exportar(MetricsWriter writer);
+}
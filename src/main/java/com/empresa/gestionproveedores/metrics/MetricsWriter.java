@@ -0,0 +1,71 @@
+package com.empresa.gestionproveedores.metrics;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Escribe métricas en el formato de texto de Prometheus (versión 0.0.4).
+ */
+public class MetricsWriter {
+
+    private final PrintWriter out;
+
+    public MetricsWriter(PrintWriter out) {
+        this.out = out;
+    }
+
+    /**
+     * Cabecera HELP/TYPE de una familia; debe escribirse una sola vez antes de sus muestras.
+     */
+    public void familia(String nombre, String tipo, String ayuda) {
+        out.append("# HELP ").append(nombre).append(' ').append(ayuda).append('\n');
+        out.append("# TYPE ").append(nombre).append(' ').append(tipo).append('\n');
+    }
+
+    public void muestra(String nombre, String etiquetas, double valor) {
+        out.append(nombre);
+        if (etiquetas != null && !etiquetas.isEmpty()) {
+            out.append('{').append(etiquetas).append('}');
+        }
+        out.append(' ').append(formatear(valor)).append('\n');
+    }
+
+    public void gauge(String nombre, String ayuda, double valor) {
+        familia(nombre, "gauge", ayuda);
+        muestra(nombre, null, valor);
+    }
+
+    public void counter(String nombre, String ayuda, double valor) {
+        familia(nombre, "counter", ayuda);
+        muestra(nombre, null, valor);
+    }
+
+    /**
+     * Escribe una familia de histogramas, uno por valor de la etiqueta indicada.
+     */
+    public void histogramas(String nombre, String ayuda, String etiqueta, Map<String, Histogram> porValor) {
+        familia(nombre, "histogram", ayuda);
+        porValor.forEach((valor, h) -> {
+            String base = etiqueta(etiqueta, valor);
+            for (int i = 0; i < Histogram.CUBETAS.length; i++) {
+                muestra(nombre + "_bucket", base + ",le=\"" + formatear(Histogram.CUBETAS[i]) + "\"", h.acumulado(i));
+            }
+            muestra(nombre + "_bucket", base + ",le=\"+Inf\"", h.getConteo());
+            muestra(nombre + "_sum", base, h.getSumaSegundos());
+            muestra(nombre + "_count", base, h.getConteo());
+        });
+    }
+
+    public static String etiqueta(String nombre, String valor) {
+        String escapado = valor.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return nombre + "=\"" + escapado + "\"";
+    }
+
+    private static String formatear(double valor) {
+        if (valor == Math.rint(valor) && !Double.isInfinite(valor)) {
+            return Long.toString((long) valor);
+        }
+        return String.format(Locale.ROOT, "%s", valor);
+    }
+}
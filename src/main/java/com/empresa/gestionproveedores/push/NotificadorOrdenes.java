@@ -0,0 +1,89 @@
+package com.empresa.gestionproveedores.push;
+
+import com.empresa.gestionproveedores.cache.TtlCache;
+import com.empresa.gestionproveedores.dto.OrdenCompraDTO;
+import com.empresa.gestionproveedores.event.CatalogoModificadoEvent;
+import com.empresa.gestionproveedores.event.OrdenModificadaEvent;
+import com.empresa.gestionproveedores.exception.ServiceException;
+import com.empresa.gestionproveedores.service.OrdenCompraService;
+import com.empresa.gestionproveedores.util.SingleFlight;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.faces.push.Push;
+import jakarta.faces.push.PushContext;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Difunde por el canal websocket "ordenes" cada escritura de órdenes
+ * confirmada por el backend, para que las tablas abiertas actualicen solo la
+ * fila afectada en lugar de recargarse.
+ * El mensaje es pequeño (operación, id y estado nuevo); cada vista decide si
+ * la orden está en su página. Para refrescar la fila, las vistas piden la
+ * orden con {@link #ultimaVersion(Long)}: se guarda la que devolvió el backend
+ * al escribir, de modo que un aviso no cuesta una llamada por sesión abierta.
+ */
+@ApplicationScoped
+@Slf4j
+public class NotificadorOrdenes {
+
+    public static final String CANAL = "ordenes";
+
+    /** Basta con cubrir el tiempo que tardan las vistas abiertas en pedir la orden tras el aviso. */
+    private static final long VIGENCIA_MILLIS = 60_000;
+    private static final int MAX_ORDENES = 200;
+
+    @Inject
+    private OrdenCompraService ordenCompraService;
+
+    private final TtlCache<Long, OrdenCompraDTO> recientes =
+            new TtlCache<>("ordenes-difundidas", VIGENCIA_MILLIS, MAX_ORDENES);
+    private final SingleFlight<Long, OrdenCompraDTO> cargas = new SingleFlight<>();
+
+    @Inject
+    @Push(channel = CANAL)
+    private PushContext canal;
+
+    void alModificarOrden(@Observes OrdenModificadaEvent evento) {
+        recientes.invalidar(evento.getId());
+        if (evento.getOrden() != null && evento.getOperacion() != CatalogoModificadoEvent.Operacion.ELIMINAR) {
+            recientes.poner(evento.getId(), evento.getOrden().toBuilder().build());
+        }
+        Map<String, Object> mensaje = new LinkedHashMap<>();
+        mensaje.put("operacion", evento.getOperacion().name());
+        mensaje.put("id", evento.getId());
+        String estado = evento.getEstado() != null ? evento.getEstado()
+                : evento.getOrden() != null ? evento.getOrden().getEstado() : null;
+        if (estado != null) {
+            mensaje.put("estado", estado);
+        }
+        try {
+            canal.send(mensaje);
+        } catch (RuntimeException e) {
+            // La escritura ya se confirmó: un fallo del aviso no debe llegar al usuario
+            log.warn("No se pudo difundir el cambio de la orden {}: {}", evento.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Orden tal como quedó tras el último aviso, para refrescar una fila. Si no
+     * se conserva, se pide al backend una sola vez aunque la pidan a la vez
+     * todas las vistas abiertas. Cada llamador recibe su propia copia.
+     */
+    public OrdenCompraDTO ultimaVersion(Long id) {
+        OrdenCompraDTO orden = recientes.obtener(id, () -> cargar(id));
+        return orden != null ? orden.toBuilder().build() : null;
+    }
+
+    private OrdenCompraDTO cargar(Long id) {
+        try {
+            return cargas.ejecutar(id, () -> ordenCompraService.buscarPorId(id)).valor();
+        } catch (IOException e) {
+            throw new ServiceException("Error al buscar la orden de compra", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.empresa.gestionproveedores.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita las llamadas concurrentes de un grupo de endpoints para que un backend
+ * lento no acapare las conexiones que necesitan los demás grupos.
+ */
+public class Bulkhead {
+
+    private final int limite;
+    private final long maxEsperaNanos;
+    private final Semaphore permisos;
+
+    public Bulkhead(int limite, long maxEsperaMillis) {
+        this.limite = limite;
+        this.maxEsperaNanos = TimeUnit.MILLISECONDS.toNanos(maxEsperaMillis);
+        this.permisos = new Semaphore(limite, true);
+    }
+
+    /**
+     * @return false si no se liberó un hueco dentro de la espera máxima
+     */
+    public boolean entrar() {
+        try {
+            return permisos.tryAcquire(maxEsperaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void salir() {
+        permisos.release();
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public int getEnUso() {
+        return limite - permisos.availablePermits();
+    }
+}
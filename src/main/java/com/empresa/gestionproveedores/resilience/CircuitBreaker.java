@@ -0,0 +1,157 @@
+package com.empresa.gestionproveedores.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuito por cuenta de las últimas N llamadas. Se abre cuando la tasa de
+ * fallos o de llamadas lentas supera su umbral; tras el tiempo de apertura
+ * deja pasar unas pocas llamadas de prueba (semiabierto) y se cierra si todas
+ * salen bien o se vuelve a abrir al primer fallo.
+ */
+public class CircuitBreaker {
+
+    public enum Estado { CERRADO, ABIERTO, SEMIABIERTO }
+
+    /** Resultado de pedir paso: las llamadas de prueba se contabilizan aparte. */
+    public enum Acceso { DENEGADO, NORMAL, PRUEBA }
+
+    private static final byte OK = 0;
+    private static final byte FALLO = 1;
+    private static final byte LENTA = 2;
+
+    private final int minLlamadas;
+    private final int tasaFallos;
+    private final int tasaLentas;
+    private final long lentaNanos;
+    private final long aperturaNanos;
+    private final int llamadasPrueba;
+
+    private final byte[] ventana;
+    private int posicion;
+    private int llamadas;
+    private int fallos;
+    private int lentas;
+
+    private Estado estado = Estado.CERRADO;
+    private long reabrirEn;
+    private int pruebasEnCurso;
+    private int pruebasExitosas;
+    private long aperturas;
+
+    /**
+     * @param tasaFallos porcentaje de fallos en la ventana que abre el circuito
+     * @param tasaLentas porcentaje de llamadas más lentas que lentaMillis que abre el circuito
+     */
+    public CircuitBreaker(int tamanioVentana, int minLlamadas, int tasaFallos, int tasaLentas,
+                          long lentaMillis, long aperturaMillis, int llamadasPrueba) {
+        this.ventana = new byte[tamanioVentana];
+        this.minLlamadas = Math.min(minLlamadas, tamanioVentana);
+        this.tasaFallos = tasaFallos;
+        this.tasaLentas = tasaLentas;
+        this.lentaNanos = TimeUnit.MILLISECONDS.toNanos(lentaMillis);
+        this.aperturaNanos = TimeUnit.MILLISECONDS.toNanos(aperturaMillis);
+        this.llamadasPrueba = llamadasPrueba;
+    }
+
+    public synchronized Acceso permitir() {
+        if (estado == Estado.ABIERTO) {
+            if (System.nanoTime() - reabrirEn < 0) {
+                return Acceso.DENEGADO;
+            }
+            estado = Estado.SEMIABIERTO;
+            pruebasEnCurso = 0;
+            pruebasExitosas = 0;
+        }
+        if (estado == Estado.SEMIABIERTO) {
+            if (pruebasEnCurso >= llamadasPrueba) {
+                return Acceso.DENEGADO;
+            }
+            pruebasEnCurso++;
+            return Acceso.PRUEBA;
+        }
+        return Acceso.NORMAL;
+    }
+
+    /**
+     * Registra el resultado de una llamada que obtuvo paso con {@link #permitir()}.
+     */
+    public synchronized void registrar(Acceso acceso, boolean fallo, long nanos) {
+        byte resultado = fallo ? FALLO : nanos >= lentaNanos ? LENTA : OK;
+        if (acceso == Acceso.PRUEBA) {
+            if (estado != Estado.SEMIABIERTO) {
+                return;
+            }
+            pruebasEnCurso--;
+            if (resultado != OK) {
+                abrir();
+            } else if (++pruebasExitosas >= llamadasPrueba) {
+                cerrar();
+            }
+            return;
+        }
+        // Llamadas que empezaron antes de abrirse el circuito no cuentan
+        if (acceso != Acceso.NORMAL || estado != Estado.CERRADO) {
+            return;
+        }
+        anotar(resultado);
+        if (llamadas >= minLlamadas
+                && (fallos * 100 >= tasaFallos * llamadas || lentas * 100 >= tasaLentas * llamadas)) {
+            abrir();
+        }
+    }
+
+    /**
+     * Devuelve una prueba concedida cuya llamada se canceló antes de conocer el
+     * resultado, para que otra llamada pueda hacer de prueba.
+     */
+    public synchronized void liberar(Acceso acceso) {
+        if (acceso == Acceso.PRUEBA && estado == Estado.SEMIABIERTO) {
+            pruebasEnCurso--;
+        }
+    }
+
+    private void anotar(byte resultado) {
+        if (llamadas == ventana.length) {
+            descontar(ventana[posicion]);
+        } else {
+            llamadas++;
+        }
+        ventana[posicion] = resultado;
+        if (resultado == FALLO) {
+            fallos++;
+        } else if (resultado == LENTA) {
+            lentas++;
+        }
+        posicion = (posicion + 1) % ventana.length;
+    }
+
+    private void descontar(byte resultado) {
+        if (resultado == FALLO) {
+            fallos--;
+        } else if (resultado == LENTA) {
+            lentas--;
+        }
+    }
+
+    private void abrir() {
+        estado = Estado.ABIERTO;
+        reabrirEn = System.nanoTime() + aperturaNanos;
+        aperturas++;
+    }
+
+    private void cerrar() {
+        estado = Estado.CERRADO;
+        posicion = 0;
+        llamadas = 0;
+        fallos = 0;
+        lentas = 0;
+    }
+
+    public synchronized Estado getEstado() {
+        return estado;
+    }
+
+    public synchronized long getAperturas() {
+        return aperturas;
+    }
+}
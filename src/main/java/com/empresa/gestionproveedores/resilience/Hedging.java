@@ -0,0 +1,224 @@
+package com.empresa.gestionproveedores.resilience;
+
+import com.empresa.gestionproveedores.config.ApiConfig;
+import com.empresa.gestionproveedores.logging.ContextoLog;
+import com.empresa.gestionproveedores.metrics.BackendMetrics;
+import com.empresa.gestionproveedores.metrics.Histogram;
+import com.empresa.gestionproveedores.metrics.MetricSource;
+import com.empresa.gestionproveedores.metrics.MetricsWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reintentos y peticiones de cobertura (hedging) para GET idempotentes.
+ * <ul>
+ *   <li>Si el primer intento no respondió tras el p95 observado de la operación,
+ *       se lanza un segundo en paralelo; gana la primera respuesta correcta y la
+ *       otra se cancela.</li>
+ *   <li>Si el primer intento falla por un error de conexión, se reintenta una vez.</li>
+ * </ul>
+ * Cada intento extra consume del {@link PresupuestoReintentos} global; sin
+ * presupuesto la llamada se queda con un único intento.
+ */
+@ApplicationScoped
+@Slf4j
+public class Hedging implements MetricSource {
+
+    @FunctionalInterface
+    public interface Llamada<T> {
+        T ejecutar(HttpGet request) throws IOException;
+    }
+
+    @Inject
+    private ApiConfig apiConfig;
+
+    @Inject
+    private BackendMetrics metricas;
+
+    private boolean habilitado;
+    private long retardoMinNanos;
+    private long retardoMaxNanos;
+    private long retardoInicialNanos;
+    private long minMuestras;
+    private PresupuestoReintentos presupuesto;
+    private ExecutorService executor;
+
+    private final LongAdder coberturas = new LongAdder();
+    private final LongAdder coberturasGanadoras = new LongAdder();
+    private final LongAdder reintentos = new LongAdder();
+    private final LongAdder sinPresupuesto = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        habilitado = Boolean.parseBoolean(apiConfig.leer("resilience.hedge.enabled", "true"));
+        retardoMinNanos = TimeUnit.MILLISECONDS.toNanos(apiConfig.leerLong("resilience.hedge.min-delay", 50));
+        retardoMaxNanos = TimeUnit.MILLISECONDS.toNanos(apiConfig.leerLong("resilience.hedge.max-delay", 2000));
+        retardoInicialNanos = TimeUnit.MILLISECONDS.toNanos(
+                apiConfig.leerLong("resilience.hedge.initial-delay", 500));
+        minMuestras = apiConfig.leerLong("resilience.hedge.min-samples", 20);
+        presupuesto = new PresupuestoReintentos(
+                (int) apiConfig.leerLong("resilience.retry.budget-percent", 10),
+                (int) apiConfig.leerLong("resilience.retry.budget-max", 20));
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+
+    public <T> T ejecutar(String operacion, HttpGet request, Llamada<T> llamada) throws IOException {
+        if (!habilitado) {
+            return llamada.ejecutar(request);
+        }
+        presupuesto.depositar();
+
+        LinkedBlockingQueue<Intento<T>> terminados = new LinkedBlockingQueue<>();
+        List<HttpGet> lanzados = new ArrayList<>(2);
+        lanzar(request, llamada, lanzados, terminados);
+        int pendientes = 1;
+        boolean extraUsado = false;
+        long limite = System.nanoTime() + retardo(operacion);
+        Throwable error = null;
+        try {
+            while (true) {
+                Intento<T> intento = extraUsado
+                        ? terminados.take()
+                        : terminados.poll(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (intento == null) {
+                    // El primer intento superó el retardo: petición de cobertura
+                    extraUsado = true;
+                    if (presupuesto.retirar()) {
+                        coberturas.increment();
+                        lanzar(copia(request), llamada, lanzados, terminados);
+                        pendientes++;
+                    } else {
+                        sinPresupuesto.increment();
+                    }
+                    continue;
+                }
+                pendientes--;
+                if (intento.error == null) {
+                    if (intento.indice > 0 && pendientes > 0) {
+                        coberturasGanadoras.increment();
+                    }
+                    return intento.valor;
+                }
+                // Se informa el error del intento original antes que el de la cobertura
+                if (error == null || intento.indice == 0) {
+                    error = intento.error;
+                }
+                if (pendientes > 0) {
+                    continue;
+                }
+                if (!extraUsado && esReintentable(intento.error)) {
+                    extraUsado = true;
+                    if (presupuesto.retirar()) {
+                        reintentos.increment();
+                        log.debug("Reintentando {} tras {}", operacion, intento.error.toString());
+                        lanzar(copia(request), llamada, lanzados, terminados);
+                        pendientes++;
+                        continue;
+                    }
+                    sinPresupuesto.increment();
+                }
+                throw relanzar(error);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando a " + operacion);
+        } finally {
+            // Cancela el intento perdedor (o todos si se abandona la llamada)
+            lanzados.forEach(HttpGet::cancel);
+        }
+    }
+
+    private <T> void lanzar(HttpGet request, Llamada<T> llamada, List<HttpGet> lanzados,
+                            LinkedBlockingQueue<Intento<T>> terminados) {
+        int indice = lanzados.size();
+        lanzados.add(request);
+        executor.execute(ContextoLog.conMdc(() -> {
+            try {
+                terminados.add(new Intento<>(indice, llamada.ejecutar(request), null));
+            } catch (Throwable t) {
+                terminados.add(new Intento<>(indice, null, t));
+            }
+        }));
+    }
+
+    /**
+     * p95 de la operación acotado entre el retardo mínimo y el máximo; mientras
+     * no hay muestras suficientes se usa el retardo inicial.
+     */
+    private long retardo(String operacion) {
+        Histogram histograma = metricas.getHistogramaPeticion(operacion);
+        if (histograma == null || histograma.getConteo() < minMuestras) {
+            return retardoInicialNanos;
+        }
+        double p95 = histograma.percentil(0.95);
+        long nanos = Double.isFinite(p95) ? (long) (p95 * 1_000_000_000d) : retardoMaxNanos;
+        return Math.max(retardoMinNanos, Math.min(nanos, retardoMaxNanos));
+    }
+
+    /**
+     * Solo se reintentan errores de conexión: un timeout ya consumió su plazo
+     * y los rechazos del circuito o del compartimento no deben insistir.
+     */
+    private static boolean esReintentable(Throwable error) {
+        return error instanceof IOException && !(error instanceof InterruptedIOException);
+    }
+
+    private static HttpGet copia(HttpGet original) throws IOException {
+        try {
+            HttpGet copia = new HttpGet(original.getUri());
+            copia.setHeaders(original.getHeaders());
+            return copia;
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static IOException relanzar(Throwable error) {
+        if (error instanceof IOException io) {
+            return io;
+        }
+        if (error instanceof RuntimeException re) {
+            throw re;
+        }
+        if (error instanceof Error e) {
+            throw e;
+        }
+        return new IOException(error);
+    }
+
+    @Override
+    public void exportar(MetricsWriter w) {
+        w.familia("gp_backend_extra_attempts_total", "counter", "Intentos adicionales de GET idempotentes");
+        w.muestra("gp_backend_extra_attempts_total", MetricsWriter.etiqueta("kind", "hedge"), coberturas.sum());
+        w.muestra("gp_backend_extra_attempts_total", MetricsWriter.etiqueta("kind", "retry"), reintentos.sum());
+        w.counter("gp_backend_hedge_wins_total", "Peticiones de cobertura que respondieron antes que la original",
+                coberturasGanadoras.sum());
+        w.counter("gp_retry_budget_exhausted_total", "Intentos extra descartados por falta de presupuesto",
+                sinPresupuesto.sum());
+        w.gauge("gp_retry_budget_tokens", "Fichas disponibles en el presupuesto de reintentos",
+                presupuesto.getFichas());
+    }
+
+    private record Intento<T>(int indice, T valor, Throwable error) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.empresa.gestionproveedores.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Presupuesto global de reintentos: cada llamada original aporta una fracción
+ * de ficha y cada intento adicional consume una ficha entera. Así los intentos
+ * extra nunca superan ese porcentaje del tráfico, y durante una caída (cuando
+ * todo falla) el presupuesto se agota en lugar de multiplicar la carga.
+ */
+public class PresupuestoReintentos {
+
+    private static final long FICHA = 1000;
+
+    private final long aporte;
+    private final long maximo;
+    private final AtomicLong saldo;
+
+    /**
+     * @param porcentaje intentos extra permitidos por cada 100 llamadas originales
+     * @param maxFichas  fichas acumulables como máximo (ráfaga tras un periodo tranquilo)
+     */
+    public PresupuestoReintentos(int porcentaje, int maxFichas) {
+        this.aporte = FICHA * porcentaje / 100;
+        this.maximo = FICHA * maxFichas;
+        this.saldo = new AtomicLong(maximo);
+    }
+
+    public void depositar() {
+        saldo.accumulateAndGet(aporte, (actual, suma) -> Math.min(actual + suma, maximo));
+    }
+
+    public boolean retirar() {
+        while (true) {
+            long actual = saldo.get();
+            if (actual < FICHA) {
+                return false;
+            }
+            if (saldo.compareAndSet(actual, actual - FICHA)) {
+                return true;
+            }
+        }
+    }
+
+    public double getFichas() {
+        return (double) saldo.get() / FICHA;
+    }
+}
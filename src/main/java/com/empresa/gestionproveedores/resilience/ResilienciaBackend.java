@@ -0,0 +1,176 @@
+package com.empresa.gestionproveedores.resilience;
+
+import com.empresa.gestionproveedores.config.ApiConfig;
+import com.empresa.gestionproveedores.exception.BackendNoDisponibleException;
+import com.empresa.gestionproveedores.exception.CompartimentoLlenoException;
+import com.empresa.gestionproveedores.metrics.MetricSource;
+import com.empresa.gestionproveedores.metrics.MetricsWriter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aísla los grupos de endpoints del backend (proveedores, productos, ordenes)
+ * con un compartimento de concurrencia y un circuito propios. El grupo se
+ * deduce del prefijo del nombre de operación ("ordenes.listarTodas" → "ordenes").
+ *
+ * Cada valor se lee de resilience.&lt;grupo&gt;.&lt;clave&gt; y, si no existe,
+ * de resilience.&lt;clave&gt;.
+ */
+@ApplicationScoped
+@Slf4j
+public class ResilienciaBackend implements MetricSource {
+
+    @Inject
+    private ApiConfig apiConfig;
+
+    private final Map<String, Grupo> grupos = new ConcurrentSkipListMap<>();
+
+    /**
+     * Pide paso para una llamada. Debe cerrarse siempre con {@link Permiso#finalizar(boolean)}
+     * o, si se cancela, con {@link Permiso#liberar()}.
+     *
+     * @throws CompartimentoLlenoException  si el compartimento sigue lleno tras la espera máxima
+     * @throws BackendNoDisponibleException si el circuito está abierto
+     */
+    public Permiso adquirir(String operacion) {
+        Grupo grupo = grupos.computeIfAbsent(grupo(operacion), this::crearGrupo);
+        if (!grupo.bulkhead.entrar()) {
+            grupo.rechazosBulkhead.increment();
+            log.warn("Llamada {} rechazada: {} llamadas en curso a {}",
+                    operacion, grupo.bulkhead.getLimite(), grupo.nombre);
+            throw new CompartimentoLlenoException(
+                    "El servicio de " + grupo.nombre + " está saturado, intente nuevamente en unos segundos");
+        }
+        CircuitBreaker.Acceso acceso = grupo.circuito.permitir();
+        if (acceso == CircuitBreaker.Acceso.DENEGADO) {
+            grupo.bulkhead.salir();
+            grupo.rechazosCircuito.increment();
+            throw new BackendNoDisponibleException(
+                    "El servicio de " + grupo.nombre + " no está disponible temporalmente");
+        }
+        return new Permiso(grupo, acceso);
+    }
+
+    /**
+     * Llamadas concurrentes que admite el grupo (resilience.max-concurrent o su
+     * variante por grupo). Quien lance llamadas en paralelo a un grupo no debe
+     * superarlo o el compartimento rechazará las que sobren.
+     */
+    public int getMaxConcurrentes(String grupo) {
+        return (int) leer(grupo, "max-concurrent", 6);
+    }
+
+    private static String grupo(String operacion) {
+        int punto = operacion.indexOf('.');
+        return punto > 0 ? operacion.substring(0, punto) : operacion;
+    }
+
+    private Grupo crearGrupo(String nombre) {
+        Grupo grupo = new Grupo(nombre,
+                new Bulkhead((int) leer(nombre, "max-concurrent", 6), leer(nombre, "max-wait", 250)),
+                new CircuitBreaker(
+                        (int) leer(nombre, "breaker.window", 20),
+                        (int) leer(nombre, "breaker.min-calls", 10),
+                        (int) leer(nombre, "breaker.failure-rate", 50),
+                        (int) leer(nombre, "breaker.slow-call-rate", 80),
+                        leer(nombre, "breaker.slow-call", 5000),
+                        leer(nombre, "breaker.open", 30000),
+                        (int) leer(nombre, "breaker.half-open-calls", 3)));
+        log.info("Grupo de backend {}: hasta {} llamadas concurrentes", nombre, grupo.bulkhead.getLimite());
+        return grupo;
+    }
+
+    private long leer(String grupo, String clave, long defecto) {
+        return apiConfig.leerLong("resilience." + grupo + "." + clave,
+                apiConfig.leerLong("resilience." + clave, defecto));
+    }
+
+    @Override
+    public void exportar(MetricsWriter w) {
+        w.familia("gp_circuit_state", "gauge", "Estado del circuito: 0 cerrado, 1 abierto, 2 semiabierto");
+        grupos.values().forEach(g ->
+                w.muestra("gp_circuit_state", etiqueta(g), g.circuito.getEstado().ordinal()));
+        w.familia("gp_circuit_opened_total", "counter", "Veces que se abrió el circuito");
+        grupos.values().forEach(g ->
+                w.muestra("gp_circuit_opened_total", etiqueta(g), g.circuito.getAperturas()));
+        w.familia("gp_bulkhead_in_use", "gauge", "Llamadas en curso por grupo de endpoints");
+        grupos.values().forEach(g ->
+                w.muestra("gp_bulkhead_in_use", etiqueta(g), g.bulkhead.getEnUso()));
+        w.familia("gp_bulkhead_limit", "gauge", "Llamadas concurrentes permitidas por grupo de endpoints");
+        grupos.values().forEach(g ->
+                w.muestra("gp_bulkhead_limit", etiqueta(g), g.bulkhead.getLimite()));
+        w.familia("gp_backend_rejected_total", "counter", "Llamadas rechazadas sin contactar al backend");
+        grupos.values().forEach(g -> {
+            String base = etiqueta(g) + ",";
+            w.muestra("gp_backend_rejected_total",
+                    base + MetricsWriter.etiqueta("reason", "circuit_open"), g.rechazosCircuito.sum());
+            w.muestra("gp_backend_rejected_total",
+                    base + MetricsWriter.etiqueta("reason", "bulkhead_full"), g.rechazosBulkhead.sum());
+        });
+    }
+
+    private static String etiqueta(Grupo grupo) {
+        return MetricsWriter.etiqueta("group", grupo.nombre);
+    }
+
+    private record Grupo(String nombre, Bulkhead bulkhead, CircuitBreaker circuito,
+                         LongAdder rechazosCircuito, LongAdder rechazosBulkhead) {
+
+        Grupo(String nombre, Bulkhead bulkhead, CircuitBreaker circuito) {
+            this(nombre, bulkhead, circuito, new LongAdder(), new LongAdder());
+        }
+    }
+
+    /**
+     * Paso concedido a una llamada; mide su duración desde que se obtuvo.
+     */
+    public static final class Permiso {
+
+        private final Grupo grupo;
+        private final CircuitBreaker.Acceso acceso;
+        private final long inicio = System.nanoTime();
+        private boolean finalizado;
+
+        private Permiso(Grupo grupo, CircuitBreaker.Acceso acceso) {
+            this.grupo = grupo;
+            this.acceso = acceso;
+        }
+
+        /**
+         * Libera el hueco del compartimento y anota el resultado en el circuito.
+         * Las llamadas siguientes sobre el mismo permiso se ignoran.
+         */
+        public void finalizar(boolean fallo) {
+            if (finalizado) {
+                return;
+            }
+            finalizado = true;
+            grupo.bulkhead.salir();
+            CircuitBreaker.Estado antes = grupo.circuito.getEstado();
+            grupo.circuito.registrar(acceso, fallo, System.nanoTime() - inicio);
+            CircuitBreaker.Estado despues = grupo.circuito.getEstado();
+            if (antes != despues) {
+                log.warn("Circuito de {}: {} -> {}", grupo.nombre, antes, despues);
+            }
+        }
+
+        /**
+         * Libera el hueco del compartimento sin anotar resultado en el circuito,
+         * para llamadas canceladas por quien las pidió: no se sabe cómo habría
+         * respondido el backend. Una llamada de prueba se devuelve al circuito.
+         */
+        public void liberar() {
+            if (finalizado) {
+                return;
+            }
+            finalizado = true;
+            grupo.bulkhead.salir();
+            grupo.circuito.liberar(acceso);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.empresa.gestionproveedores.search;
+
+import com.empresa.gestionproveedores.config.ApiConfig;
+import com.empresa.gestionproveedores.dto.ProductoDTO;
+import com.empresa.gestionproveedores.dto.ProveedorDTO;
+import com.empresa.gestionproveedores.event.CatalogoModificadoEvent;
+import com.empresa.gestionproveedores.jfr.InicializacionMedida;
+import com.empresa.gestionproveedores.metrics.MetricSource;
+import com.empresa.gestionproveedores.metrics.MetricsWriter;
+import com.empresa.gestionproveedores.service.ProductoService;
+import com.empresa.gestionproveedores.service.ProveedorService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Índice de búsqueda de productos (nombre, código) y proveedores (razón social,
+ * RUC, nombre comercial) para responder búsquedas sin ir al backend.
+ * Se construye en segundo plano al arrancar, se actualiza con cada
+ * CatalogoModificadoEvent y se reconstruye periódicamente para recoger los
+ * cambios hechos desde otros clientes del backend.
+ * Mientras no está listo, {@link #isListo()} devuelve false y los beans
+ * buscan en el backend como antes.
+ */
+@ApplicationScoped
+@InicializacionMedida
+@Slf4j
+public class IndiceCatalogo implements MetricSource {
+
+    @Inject
+    private ApiConfig apiConfig;
+
+    @Inject
+    private ProductoService productoService;
+
+    @Inject
+    private ProveedorService proveedorService;
+
+    private final IndiceTexto<ProductoDTO> productos = new IndiceTexto<>(ProductoDTO::getId,
+            List.of(ProductoDTO::getNombre, ProductoDTO::getCodigo), p -> p.toBuilder().build());
+    private final IndiceTexto<ProveedorDTO> proveedores = new IndiceTexto<>(ProveedorDTO::getId,
+            List.of(ProveedorDTO::getRazonSocial, ProveedorDTO::getRuc, ProveedorDTO::getNombreComercial),
+            p -> p.toBuilder().build());
+
+    private int maxResultados;
+    private ScheduledExecutorService tareas;
+    private volatile boolean listo;
+    private volatile long ultimaReconstruccionMillis;
+
+    @PostConstruct
+    public void init() {
+        long intervalo = apiConfig.leerLong("search.index.rebuild", 600000);
+        maxResultados = (int) apiConfig.leerLong("search.max-results", 500);
+        tareas = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("indice-catalogo").factory());
+        tareas.scheduleWithFixedDelay(this::reconstruir, 0, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        tareas.shutdownNow();
+    }
+
+    /**
+     * Fuerza la creación del bean al arrancar para que el índice se cargue antes de la primera búsqueda.
+     */
+    void alIniciar(@Observes @Initialized(ApplicationScoped.class) Object evento) {
+        log.debug("Índice de catálogo programado");
+    }
+
+    void reconstruir() {
+        long inicio = System.nanoTime();
+        try {
+            // listarTodos va por GET condicional: si nada cambió, el backend responde 304.
+            // Los eventos que llegan durante la carga se aplican también al índice nuevo
+            productos.recargar(productoService::listarTodos);
+            proveedores.recargar(proveedorService::listarTodos);
+            listo = true;
+            ultimaReconstruccionMillis = (System.nanoTime() - inicio) / 1_000_000;
+            log.info("Índice de catálogo reconstruido en {} ms: {} productos, {} proveedores",
+                    ultimaReconstruccionMillis, productos.getTamanio(), proveedores.getTamanio());
+        } catch (RuntimeException e) {
+            // Se conserva el índice anterior (si lo hay) hasta el próximo intento
+            log.warn("No se pudo reconstruir el índice de catálogo: {}", e.getMessage());
+        }
+    }
+
+    public boolean isListo() {
+        return listo;
+    }
+
+    /**
+     * Todos los productos que coinciden con el texto, o null si son más de
+     * search.max-results: con tantos resultados la página debe pedirse al
+     * backend, que la ordena y cuenta el total sin recortar.
+     */
+    public List<ProductoDTO> buscarProductos(String texto) {
+        return completos(productos.buscar(texto, maxResultados + 1));
+    }
+
+    /**
+     * Como {@link #buscarProductos(String)}, para proveedores.
+     */
+    public List<ProveedorDTO> buscarProveedores(String texto) {
+        return completos(proveedores.buscar(texto, maxResultados + 1));
+    }
+
+    private <T> List<T> completos(List<T> encontrados) {
+        return encontrados.size() > maxResultados ? null : encontrados;
+    }
+
+    public List<ProductoDTO> buscarProductos(String texto, int limite) {
+        return productos.buscar(texto, limite);
+    }
+
+    public List<ProveedorDTO> buscarProveedores(String texto, int limite) {
+        return proveedores.buscar(texto, limite);
+    }
+
+    /**
+     * Productos de un proveedor que coinciden con el texto, para el selector de la orden de compra.
+     */
+    public List<ProductoDTO> buscarProductosDeProveedor(Long proveedorId, String texto, int limite) {
+        return productos.buscar(texto, limite, p -> proveedorId.equals(p.getProveedorId()));
+    }
+
+    void alModificarCatalogo(@Observes CatalogoModificadoEvent evento) {
+        switch (evento.getCatalogo()) {
+            case PRODUCTO -> actualizar(productos, evento, ProductoDTO.class, productoService::buscarPorId);
+            case PROVEEDOR -> actualizar(proveedores, evento, ProveedorDTO.class, proveedorService::buscarPorId);
+        }
+    }
+
+    private <T> void actualizar(IndiceTexto<T> indice, CatalogoModificadoEvent evento, Class<T> tipo,
+                                Function<Long, T> cargar) {
+        if (evento.getOperacion() == CatalogoModificadoEvent.Operacion.ELIMINAR) {
+            indice.quitar(evento.getId());
+        } else if (tipo.isInstance(evento.getEntidad())) {
+            indice.poner(tipo.cast(evento.getEntidad()));
+        } else if (evento.getId() != null) {
+            // Sin entidad en el evento (p. ej. cambio de estado): se relee fuera del hilo de la petición
+            tareas.execute(() -> {
+                try {
+                    T actual = cargar.apply(evento.getId());
+                    if (actual != null) {
+                        indice.poner(actual);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("No se pudo actualizar el índice para id={}: {}", evento.getId(), e.getMessage());
+                }
+            });
+        }
+    }
+
+    @Override
+    public void exportar(MetricsWriter w) {
+        String productosIdx = MetricsWriter.etiqueta("index", "productos");
+        String proveedoresIdx = MetricsWriter.etiqueta("index", "proveedores");
+        w.familia("gp_search_index_documents", "gauge", "Documentos en el índice de búsqueda");
+        w.muestra("gp_search_index_documents", productosIdx, productos.getTamanio());
+        w.muestra("gp_search_index_documents", proveedoresIdx, proveedores.getTamanio());
+        w.familia("gp_search_index_terms", "gauge", "Términos distintos en el índice de búsqueda");
+        w.muestra("gp_search_index_terms", productosIdx, productos.getTerminos());
+        w.muestra("gp_search_index_terms", proveedoresIdx, proveedores.getTerminos());
+        w.gauge("gp_search_index_ready", "1 si el índice de búsqueda está cargado", listo ? 1 : 0);
+        w.gauge("gp_search_index_rebuild_seconds", "Duración de la última reconstrucción del índice",
+                ultimaReconstruccionMillis / 1000d);
+    }
+}
@@ -0,0 +1,284 @@
+package com.empresa.gestionproveedores.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre algunos campos de texto de un DTO.
+ * <ul>
+ *   <li>Texto normalizado: minúsculas y sin tildes ("Ñandú" y "nandu" coinciden).</li>
+ *   <li>Cada palabra se indexa por trigramas y por sus prefijos de 1 y 2 letras,
+ *       de modo que se encuentran tanto fragmentos ("ador" en "Destornillador")
+ *       como inicios de palabra cortos ("de").</li>
+ *   <li>Con varias palabras en la consulta deben coincidir todas.</li>
+ * </ul>
+ * Admite altas, cambios y bajas sueltas además de la recarga completa. La
+ * recarga construye el índice nuevo fuera del bloqueo y lo sustituye de golpe,
+ * aplicándole antes los cambios sueltos que llegaron mientras se cargaba.
+ */
+public class IndiceTexto<T> {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Function<T, Long> clave;
+    private final List<Function<T, String>> campos;
+    private final UnaryOperator<T> copia;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Contenido<T> contenido = new Contenido<>();
+    private List<Consumer<Contenido<T>>> cambiosDuranteRecarga;
+
+    /**
+     * @param campos campos a indexar; el primero se usa además para ordenar resultados
+     * @param copia  copia que se entrega en cada resultado, para que nadie modifique el índice
+     */
+    public IndiceTexto(Function<T, Long> clave, List<Function<T, String>> campos, UnaryOperator<T> copia) {
+        this.clave = clave;
+        this.campos = campos;
+        this.copia = copia;
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinTildes.toLowerCase(Locale.ROOT).trim();
+    }
+
+    public void reemplazarTodo(Collection<T> elementos) {
+        recargar(() -> elementos);
+    }
+
+    /**
+     * Sustituye todo el contenido por lo que devuelve {@code cargar}. Las altas,
+     * cambios y bajas que llegan mientras se carga se aplican también al índice
+     * nuevo, que no los vería si la carga leyó antes de que ocurrieran. Las
+     * búsquedas siguen sobre el índice anterior hasta la sustitución.
+     * Si la carga falla se conserva el índice anterior.
+     */
+    public void recargar(Supplier<? extends Collection<T>> cargar) {
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteRecarga = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Contenido<T> nuevo = new Contenido<>();
+        try {
+            cargar.get().forEach(e -> agregar(nuevo, e));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                cambiosDuranteRecarga = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteRecarga.forEach(c -> c.accept(nuevo));
+            cambiosDuranteRecarga = null;
+            contenido = nuevo;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void poner(T elemento) {
+        aplicar(c -> {
+            quitar(c, clave.apply(elemento));
+            agregar(c, elemento);
+        });
+    }
+
+    public void quitar(Long id) {
+        aplicar(c -> quitar(c, id));
+    }
+
+    private void aplicar(Consumer<Contenido<T>> cambio) {
+        lock.writeLock().lock();
+        try {
+            cambio.accept(contenido);
+            if (cambiosDuranteRecarga != null) {
+                cambiosDuranteRecarga.add(cambio);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elementos que contienen todas las palabras de la consulta, primero los que
+     * empiezan por ella en el campo principal y después en orden alfabético.
+     */
+    public List<T> buscar(String consulta, int limite) {
+        return buscar(consulta, limite, e -> true);
+    }
+
+    /**
+     * Como {@link #buscar(String, int)}, pero solo entre los elementos que cumplen el filtro.
+     * El límite se aplica después de filtrar.
+     */
+    public List<T> buscar(String consulta, int limite, Predicate<? super T> filtro) {
+        String normalizada = normalizar(consulta);
+        List<String> palabras = palabras(normalizada);
+        if (palabras.isEmpty()) {
+            return List.of();
+        }
+        List<Documento<T>> encontrados = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Contenido<T> c = contenido;
+            Set<Long> candidatos = null;
+            for (String palabra : palabras) {
+                Set<Long> conPalabra = candidatos(c, palabra);
+                if (candidatos == null) {
+                    candidatos = new HashSet<>(conPalabra);
+                } else {
+                    candidatos.retainAll(conPalabra);
+                }
+                if (candidatos.isEmpty()) {
+                    return List.of();
+                }
+            }
+            for (Long id : candidatos) {
+                Documento<T> doc = c.documentos.get(id);
+                // Los trigramas pueden dar falsos positivos: se verifica sobre el texto
+                if (filtro.test(doc.elemento()) && palabras.stream().allMatch(doc.texto()::contains)) {
+                    encontrados.add(doc);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return encontrados.stream()
+                .sorted(Comparator.<Documento<T>>comparingInt(d -> d.principal().startsWith(normalizada) ? 0 : 1)
+                        .thenComparing(Documento::principal))
+                .limit(limite)
+                .map(d -> copia.apply(d.elemento()))
+                .toList();
+    }
+
+    public int getTamanio() {
+        lock.readLock().lock();
+        try {
+            return contenido.documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTerminos() {
+        lock.readLock().lock();
+        try {
+            return contenido.postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<Long> candidatos(Contenido<?> c, String palabra) {
+        if (palabra.length() < 3) {
+            return c.postings.getOrDefault("^" + palabra, Set.of());
+        }
+        Set<Long> resultado = null;
+        for (String grama : trigramas(palabra)) {
+            Set<Long> conGrama = c.postings.getOrDefault(grama, Set.of());
+            if (resultado == null) {
+                resultado = new HashSet<>(conGrama);
+            } else {
+                resultado.retainAll(conGrama);
+            }
+            if (resultado.isEmpty()) {
+                break;
+            }
+        }
+        return resultado;
+    }
+
+    private void agregar(Contenido<T> c, T elemento) {
+        Long id = clave.apply(elemento);
+        if (id == null) {
+            return;
+        }
+        StringBuilder texto = new StringBuilder();
+        for (Function<T, String> campo : campos) {
+            texto.append(normalizar(campo.apply(elemento))).append(' ');
+        }
+        Set<String> terminos = new HashSet<>();
+        for (String palabra : palabras(texto.toString())) {
+            terminos.add("^" + palabra.substring(0, 1));
+            if (palabra.length() > 1) {
+                terminos.add("^" + palabra.substring(0, 2));
+            }
+            terminos.addAll(trigramas(palabra));
+        }
+        terminos.forEach(t -> c.postings.computeIfAbsent(t, k -> new HashSet<>()).add(id));
+        String principal = normalizar(campos.get(0).apply(elemento));
+        c.documentos.put(id, new Documento<>(elemento, texto.toString(), principal, terminos));
+    }
+
+    private static void quitar(Contenido<?> c, Long id) {
+        Documento<?> anterior = c.documentos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (String termino : anterior.terminos()) {
+            Set<Long> ids = c.postings.get(termino);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    c.postings.remove(termino);
+                }
+            }
+        }
+    }
+
+    private static List<String> palabras(String normalizado) {
+        List<String> palabras = new ArrayList<>();
+        for (String p : SEPARADORES.split(normalizado)) {
+            if (!p.isEmpty()) {
+                palabras.add(p);
+            }
+        }
+        return palabras;
+    }
+
+    private static List<String> trigramas(String palabra) {
+        List<String> gramas = new ArrayList<>(Math.max(palabra.length() - 2, 1));
+        for (int i = 0; i + 3 <= palabra.length(); i++) {
+            gramas.add(palabra.substring(i, i + 3));
+        }
+        return gramas;
+    }
+
+    private record Documento<T>(T elemento, String texto, String principal, Set<String> terminos) {
+    }
+
+    /**
+     * Documentos y postings de una versión del índice; la recarga prepara uno nuevo sin bloquear.
+     */
+    private static final class Contenido<T> {
+        private final Map<Long, Documento<T>> documentos = new HashMap<>();
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+    }
+}
@@ -0,0 +1,326 @@
+package com.empresa.gestionproveedores.service;
+
+import com.empresa.gestionproveedores.cache.RespuestaCondicionalCache;
+import com.empresa.gestionproveedores.config.HttpClientProducer;
+import com.empresa.gestionproveedores.dto.ApiResponseDTO;
+import com.empresa.gestionproveedores.jfr.LlamadaBackendEvent;
+import com.empresa.gestionproveedores.metrics.BackendMetrics;
+import com.empresa.gestionproveedores.resilience.Hedging;
+import com.empresa.gestionproveedores.resilience.ResilienciaBackend;
+import com.empresa.gestionproveedores.util.SingleFlight;
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ejecuta las peticiones síncronas de los servicios contra el backend.
+ * Es el único punto que toca CloseableHttpClient, de modo que las métricas
+ * por operación, los eventos JFR, el circuito y el compartimento de cada grupo
+ * se aplican en un solo lugar.
+ */
+@ApplicationScoped
+public class ApiClient implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String CANCELADA = "Cancelada: respondió antes otro intento";
+
+    @Inject
+    private CloseableHttpClient httpClient;
+
+    @Inject
+    private ApiResponseDecoder decoder;
+
+    @Inject
+    private BackendMetrics metricas;
+
+    @Inject
+    private RespuestaCondicionalCache condicional;
+
+    @Inject
+    private ResilienciaBackend resiliencia;
+
+    @Inject
+    private Hedging hedging;
+
+    private final SingleFlight<String, ApiResponseDTO<?>> enCurso = new SingleFlight<>();
+
+    /**
+     * Ejecuta la petición con un único intento y deserializa la respuesta estándar del backend.
+     * Es el camino de las escrituras y de los GET con efectos en el backend, como
+     * generar un número de orden, que un reintento o una cobertura repetirían.
+     *
+     * @param operacion nombre de la operación para métricas, p. ej. "productos.crear"
+     */
+    public <T> ApiResponseDTO<T> ejecutar(String operacion, ClassicHttpRequest request,
+                                          TypeReference<ApiResponseDTO<T>> tipo) throws IOException {
+        HttpClientContext contexto = HttpClientContext.create();
+        contexto.setAttribute(HttpClientProducer.INTENTO_UNICO, Boolean.TRUE);
+        return ejecutarUnaVez(operacion, request, tipo, contexto);
+    }
+
+    /**
+     * Como {@link #ejecutar}, para un GET que el llamador declara idempotente:
+     * admite reintento y petición de cobertura.
+     *
+     * @param operacion nombre de la operación para métricas, p. ej. "productos.buscarPorId"
+     */
+    public <T> ApiResponseDTO<T> ejecutarIdempotente(String operacion, HttpGet request,
+                                                     TypeReference<ApiResponseDTO<T>> tipo) throws IOException {
+        return hedging.ejecutar(operacion, request, r -> ejecutarUnaVez(operacion, r, tipo, null));
+    }
+
+    private <T> ApiResponseDTO<T> ejecutarUnaVez(String operacion, ClassicHttpRequest request,
+                                                 TypeReference<ApiResponseDTO<T>> tipo,
+                                                 HttpContext contexto) throws IOException {
+        LlamadaBackendEvent evento = LlamadaBackendEvent.iniciar();
+        ResilienciaBackend.Permiso permiso = adquirir(operacion, request, evento);
+        boolean fallo = true;
+        long inicio = System.nanoTime();
+        metricas.iniciarOperacion(operacion);
+        try (CloseableHttpResponse response = httpClient.execute(request, contexto)) {
+            long primerByte = System.nanoTime();
+            evento.estado(response.getCode());
+            ApiResponseDTO<T> api = leerCuerpo(response, tipo, evento);
+            long fin = System.nanoTime();
+            metricas.registrarPeticion(operacion, fin - inicio, primerByte - inicio, fin - primerByte);
+            evento.decodificacion(fin - primerByte);
+            fallo = esErrorServidor(response);
+            return api;
+        } catch (IOException | RuntimeException e) {
+            // Un intento cancelado porque otro respondió antes no es un error del backend
+            // ni un éxito: se libera el permiso sin anotar nada en el circuito
+            fallo = !cancelada(request);
+            if (fallo) {
+                metricas.registrarError(operacion);
+            } else {
+                permiso.liberar();
+            }
+            evento.fallo(fallo ? e.toString() : CANCELADA);
+            throw e;
+        } finally {
+            metricas.finalizarOperacion();
+            permiso.finalizar(fallo);
+            evento.terminar(operacion, request.getMethod(), request.getRequestUri());
+        }
+    }
+
+    /**
+     * Ejecuta un GET de lista agrupando las llamadas idénticas concurrentes:
+     * si otro hilo ya pidió la misma URL, se espera su respuesta en lugar de
+     * repetir la llamada al backend. Además la petición es condicional: si el
+     * backend responde 304 se reutiliza la lista ya deserializada.
+     * Solo para lecturas idempotentes: admite reintento y petición de cobertura.
+     * Cada llamador recibe su propia copia de la lista (los DTO contenidos son compartidos).
+     */
+    public <T> ApiResponseDTO<List<T>> ejecutarCompartido(String operacion, HttpGet request,
+                                                          TypeReference<ApiResponseDTO<List<T>>> tipo)
+            throws IOException {
+        String clave;
+        try {
+            clave = request.getUri() + "|" + tipo.getType().getTypeName();
+        } catch (URISyntaxException e) {
+            throw new IOException("URL inválida: " + request.getRequestUri(), e);
+        }
+        SingleFlight.Resultado<ApiResponseDTO<?>> resultado =
+                enCurso.ejecutar(clave, () -> hedging.ejecutar(operacion, request,
+                        r -> ejecutarCondicional(operacion, r, tipo, clave)));
+        @SuppressWarnings("unchecked")
+        ApiResponseDTO<List<T>> api = (ApiResponseDTO<List<T>>) resultado.valor();
+        if (resultado.compartido()) {
+            metricas.registrarCompartida(operacion);
+        }
+        // También quien hizo la llamada recibe una copia: la original la leen los demás mientras copian
+        List<T> copia = api.getData() != null ? new ArrayList<>(api.getData()) : null;
+        return new ApiResponseDTO<>(api.isSuccess(), api.getMessage(), copia, api.getError());
+    }
+
+    private <T> ApiResponseDTO<List<T>> ejecutarCondicional(String operacion, HttpGet request,
+                                                            TypeReference<ApiResponseDTO<List<T>>> tipo,
+                                                            String clave) throws IOException {
+        RespuestaCondicionalCache.Entrada previa = condicional.obtener(clave);
+        if (previa != null) {
+            if (previa.etag() != null) {
+                request.setHeader(HttpHeaders.IF_NONE_MATCH, previa.etag());
+            }
+            if (previa.ultimaModificacion() != null) {
+                request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, previa.ultimaModificacion());
+            }
+        }
+        LlamadaBackendEvent evento = LlamadaBackendEvent.iniciar();
+        ResilienciaBackend.Permiso permiso = adquirir(operacion, request, evento);
+        boolean fallo = true;
+        long inicio = System.nanoTime();
+        metricas.iniciarOperacion(operacion);
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            long primerByte = System.nanoTime();
+            evento.estado(response.getCode());
+            if (previa != null && response.getCode() == HttpStatus.SC_NOT_MODIFIED) {
+                EntityUtils.consume(response.getEntity());
+                metricas.registrarPeticion(operacion, System.nanoTime() - inicio, primerByte - inicio, -1);
+                condicional.registrarNoModificada();
+                fallo = false;
+                return previa.copia();
+            }
+            ApiResponseDTO<List<T>> api = leerCuerpo(response, tipo, evento);
+            long fin = System.nanoTime();
+            metricas.registrarPeticion(operacion, fin - inicio, primerByte - inicio, fin - primerByte);
+            evento.decodificacion(fin - primerByte);
+            if (response.getCode() == HttpStatus.SC_OK && api.isSuccess()) {
+                condicional.guardar(clave, valorCabecera(response, HttpHeaders.ETAG),
+                        valorCabecera(response, HttpHeaders.LAST_MODIFIED), api);
+            }
+            fallo = esErrorServidor(response);
+            return api;
+        } catch (IOException | RuntimeException e) {
+            // Un intento cancelado porque otro respondió antes no es un error del backend
+            // ni un éxito: se libera el permiso sin anotar nada en el circuito
+            fallo = !cancelada(request);
+            if (fallo) {
+                metricas.registrarError(operacion);
+            } else {
+                permiso.liberar();
+            }
+            evento.fallo(fallo ? e.toString() : CANCELADA);
+            throw e;
+        } finally {
+            metricas.finalizarOperacion();
+            permiso.finalizar(fallo);
+            evento.terminar(operacion, request.getMethod(), request.getRequestUri());
+        }
+    }
+
+    /**
+     * Pide paso al compartimento del grupo; si lo rechaza (circuito abierto o
+     * compartimento lleno) el rechazo también queda como evento JFR.
+     */
+    private ResilienciaBackend.Permiso adquirir(String operacion, ClassicHttpRequest request,
+                                                LlamadaBackendEvent evento) {
+        try {
+            return resiliencia.adquirir(operacion);
+        } catch (RuntimeException e) {
+            evento.fallo(e.toString());
+            evento.terminar(operacion, request.getMethod(), request.getRequestUri());
+            throw e;
+        }
+    }
+
+    private <T> ApiResponseDTO<T> leerCuerpo(CloseableHttpResponse response, TypeReference<ApiResponseDTO<T>> tipo,
+                                             LlamadaBackendEvent evento) throws IOException {
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            throw new IOException("Respuesta vacía del servidor (HTTP " + response.getCode() + ")");
+        }
+        // Se deserializa desde el flujo; al cerrarlo se drena el resto y la conexión vuelve al pool
+        if (!evento.isEnabled()) {
+            try (InputStream in = entity.getContent()) {
+                return decoder.leer(in, tipo);
+            }
+        }
+        try (ContadorBytes in = new ContadorBytes(entity.getContent())) {
+            ApiResponseDTO<T> api = decoder.leer(in, tipo);
+            evento.bytes(in.leidos);
+            return api;
+        }
+    }
+
+    private static boolean cancelada(ClassicHttpRequest request) {
+        return request instanceof HttpUriRequestBase base && base.isCancelled();
+    }
+
+    /**
+     * Los 4xx son errores de negocio y no cuentan para el circuito.
+     */
+    private static boolean esErrorServidor(CloseableHttpResponse response) {
+        return response.getCode() >= HttpStatus.SC_SERVER_ERROR;
+    }
+
+    private static String valorCabecera(CloseableHttpResponse response, String nombre) {
+        Header cabecera = response.getFirstHeader(nombre);
+        return cabecera != null ? cabecera.getValue() : null;
+    }
+
+    /**
+     * Ejecuta una petición cuyo cuerpo de respuesta no interesa.
+     *
+     * @return código de estado HTTP
+     */
+    public int ejecutarSinCuerpo(String operacion, ClassicHttpRequest request) throws IOException {
+        LlamadaBackendEvent evento = LlamadaBackendEvent.iniciar();
+        ResilienciaBackend.Permiso permiso = adquirir(operacion, request, evento);
+        boolean fallo = true;
+        long inicio = System.nanoTime();
+        metricas.iniciarOperacion(operacion);
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            long primerByte = System.nanoTime();
+            evento.estado(response.getCode());
+            HttpEntity entity = response.getEntity();
+            if (entity != null && entity.getContentLength() > 0) {
+                evento.bytes(entity.getContentLength());
+            }
+            EntityUtils.consume(entity);
+            metricas.registrarPeticion(operacion, System.nanoTime() - inicio, primerByte - inicio, -1);
+            fallo = esErrorServidor(response);
+            return response.getCode();
+        } catch (IOException | RuntimeException e) {
+            metricas.registrarError(operacion);
+            evento.fallo(e.toString());
+            throw e;
+        } finally {
+            metricas.finalizarOperacion();
+            permiso.finalizar(fallo);
+            evento.terminar(operacion, request.getMethod(), request.getRequestUri());
+        }
+    }
+
+    /**
+     * Cuenta lo que lee el decodificador, para el tamaño de la respuesta en
+     * los eventos JFR cuando el backend no envía Content-Length.
+     */
+    private static final class ContadorBytes extends FilterInputStream {
+
+        private long leidos;
+
+        ContadorBytes(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                leidos++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                leidos += n;
+            }
+            return n;
+        }
+    }
+}
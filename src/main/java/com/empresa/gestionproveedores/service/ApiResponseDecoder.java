@@ -0,0 +1,33 @@
+package com.empresa.gestionproveedores.service;
+
+import com.empresa.gestionproveedores.config.JsonCodec;
+import com.empresa.gestionproveedores.dto.ApiResponseDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+
+/**
+ * Decodifica las respuestas ApiResponseDTO&lt;T&gt; del backend.
+ * Lee directamente del flujo de la respuesta (sin copia intermedia en String)
+ * y reutiliza el ObjectReader que JsonCodec mantiene por cada tipo de respuesta.
+ */
+@ApplicationScoped
+public class ApiResponseDecoder implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Inject
+    private JsonCodec jsonCodec;
+
+    public <T> ApiResponseDTO<T> leer(InputStream in, TypeReference<ApiResponseDTO<T>> tipo) throws IOException {
+        return jsonCodec.lector(tipo).readValue(in);
+    }
+
+    public <T> ApiResponseDTO<T> leer(byte[] contenido, TypeReference<ApiResponseDTO<T>> tipo) throws IOException {
+        return jsonCodec.lector(tipo).readValue(contenido);
+    }
+}
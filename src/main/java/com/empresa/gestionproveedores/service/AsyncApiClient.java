@@ -0,0 +1,138 @@
+package com.empresa.gestionproveedores.service;
+
+import com.empresa.gestionproveedores.config.HttpClientProducer;
+import com.empresa.gestionproveedores.dto.ApiResponseDTO;
+import com.empresa.gestionproveedores.exception.ServiceException;
+import com.empresa.gestionproveedores.jfr.LlamadaBackendEvent;
+import com.empresa.gestionproveedores.metrics.BackendMetrics;
+import com.empresa.gestionproveedores.resilience.ResilienciaBackend;
+import com.fasterxml.jackson.core.type.TypeReference;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+
+/**
+ * Cliente no bloqueante compartido por los servicios para las variantes *Async.
+ * La petición no ocupa un hilo de Tomcat mientras espera al backend.
+ */
+@ApplicationScoped
+@Slf4j
+public class AsyncApiClient implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Inject
+    private CloseableHttpAsyncClient httpAsyncClient;
+
+    @Inject
+    private ApiResponseDecoder decoder;
+
+    @Inject
+    private BackendMetrics metricas;
+
+    @Inject
+    private ResilienciaBackend resiliencia;
+
+    /**
+     * Ejecuta un GET y devuelve el campo data de la respuesta.
+     * Los errores se entregan como ServiceException dentro del futuro.
+     * Cancelar el futuro devuelto aborta la petición HTTP si sigue en curso.
+     *
+     * @param operacion nombre de la operación para métricas, p. ej. "productos.listarTodosAsync"
+     */
+    public <T> CompletableFuture<T> get(String operacion, String url, TypeReference<ApiResponseDTO<T>> tipo,
+                                        String mensajeError) {
+        // El evento JFR empieza en este hilo y se graba en el que completa la llamada
+        LlamadaBackendEvent evento = LlamadaBackendEvent.iniciar();
+        SimpleHttpRequest request = SimpleRequestBuilder.get(url).build();
+        // El MDC solo existe en este hilo; el interceptor del cliente corre en el reactor
+        HttpClientProducer.identificar(request);
+        ResilienciaBackend.Permiso permiso;
+        try {
+            permiso = resiliencia.adquirir(operacion);
+        } catch (ServiceException e) {
+            evento.fallo(e.toString());
+            evento.terminar(operacion, request.getMethod(), request.getRequestUri());
+            return CompletableFuture.failedFuture(e);
+        }
+        long inicio = System.nanoTime();
+        CompletableFuture<SimpleHttpResponse> respuesta = new CompletableFuture<>();
+
+        Future<SimpleHttpResponse> peticion = httpAsyncClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse result) {
+                permiso.finalizar(result.getCode() >= HttpStatus.SC_SERVER_ERROR);
+                respuesta.complete(result);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                permiso.finalizar(true);
+                respuesta.completeExceptionally(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                permiso.liberar();
+                respuesta.cancel(false);
+            }
+        });
+
+        // La deserialización se hace fuera del hilo del reactor de E/S
+        CompletableFuture<T> resultado = respuesta
+                .thenApplyAsync(r -> {
+                    evento.estado(r.getCode());
+                    long inicioDeserializacion = System.nanoTime();
+                    T data = decodificar(r, tipo);
+                    long fin = System.nanoTime();
+                    metricas.registrarPeticion(operacion, fin - inicio, -1, fin - inicioDeserializacion);
+                    evento.decodificacion(fin - inicioDeserializacion);
+                    evento.bytes(r.getBodyBytes() != null ? r.getBodyBytes().length : 0);
+                    return data;
+                })
+                .exceptionally(ex -> {
+                    Throwable causa = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    // Cancelada por quien la pidió (p. ej. una búsqueda superada): no es un error del backend
+                    if (causa instanceof CancellationException cancelada) {
+                        evento.fallo("Cancelada");
+                        throw cancelada;
+                    }
+                    metricas.registrarError(operacion);
+                    log.error("Error en llamada asíncrona a {}", url, causa);
+                    evento.fallo(causa.toString());
+                    throw new ServiceException(mensajeError, causa);
+                });
+        // Quien ya no necesita la respuesta (p. ej. una búsqueda superada) libera la conexión
+        resultado.whenComplete((data, ex) -> {
+            if (resultado.isCancelled()) {
+                peticion.cancel(true);
+                evento.fallo("Cancelada por quien la pidió");
+            }
+            evento.terminar(operacion, request.getMethod(), request.getRequestUri());
+        });
+        return resultado;
+    }
+
+    private <T> T decodificar(SimpleHttpResponse response, TypeReference<ApiResponseDTO<T>> tipo) {
+        try {
+            ApiResponseDTO<T> api = decoder.leer(response.getBodyBytes(), tipo);
+            return api.getData();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,27 +1,33 @@
 package com.empresa.gestionproveedores.service;
 
 import com.empresa.gestionproveedores.config.ApiConfig;
+import com.empresa.gestionproveedores.config.JsonCodec;
 import com.empresa.gestionproveedores.dto.ApiResponseDTO;
+import com.empresa.gestionproveedores.dto.ConsultaPaginada;
+import com.empresa.gestionproveedores.dto.PaginaDTO;
 import com.empresa.gestionproveedores.dto.OrdenCompraDTO;
+import com.empresa.gestionproveedores.event.CatalogoModificadoEvent.Operacion;
+import com.empresa.gestionproveedores.event.OrdenModificadaEvent;
 import com.empresa.gestionproveedores.exception.ServiceException;
+import com.empresa.gestionproveedores.util.IteradorPaginado;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.classic.methods.*;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.core5.http.ContentType;
-import org.apache.hc.core5.http.ParseException;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
-import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
 
 import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 @ApplicationScoped
 @Slf4j
@@ -29,14 +35,29 @@ public class OrdenCompraService implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    private static final TypeReference<ApiResponseDTO<List<OrdenCompraDTO>>> TIPO_LISTA =
+            new TypeReference<>() {};
+    private static final TypeReference<ApiResponseDTO<OrdenCompraDTO>> TIPO_ORDEN =
+            new TypeReference<>() {};
+    private static final TypeReference<ApiResponseDTO<PaginaDTO<OrdenCompraDTO>>> TIPO_PAGINA =
+            new TypeReference<>() {};
+    private static final TypeReference<ApiResponseDTO<String>> TIPO_NUMERO =
+            new TypeReference<>() {};
+
     @Inject
     private ApiConfig apiConfig;
 
     @Inject
-    private CloseableHttpClient httpClient;
+    private ApiClient apiClient;
+
+    @Inject
+    private JsonCodec jsonCodec;
 
     @Inject
-    private ObjectMapper objectMapper;
+    private AsyncApiClient asyncApiClient;
+
+    @Inject
+    private Event<OrdenModificadaEvent> eventos;
 
     private String base() {
         // Asegúrate que ApiConfig exponga getBaseUrl()
@@ -46,13 +67,10 @@ public class OrdenCompraService implements Serializable {
     public List<OrdenCompraDTO> listarTodas() {
         try {
             HttpGet request = new HttpGet(base());
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
-                ApiResponseDTO<List<OrdenCompraDTO>> api = objectMapper.readValue(
-                        json, new TypeReference<ApiResponseDTO<List<OrdenCompraDTO>>>() {});
-                return api.getData() != null ? api.getData() : new ArrayList<>();
-            }
-        } catch (IOException | ParseException e) {
+            ApiResponseDTO<List<OrdenCompraDTO>> api =
+                    apiClient.ejecutarCompartido("ordenes.listarTodas", request, TIPO_LISTA);
+            return api.getData() != null ? api.getData() : new ArrayList<>();
+        } catch (IOException e) {
             log.error("Error al listar órdenes", e);
             throw new ServiceException("Error al obtener la lista de órdenes de compra", e);
         }
@@ -61,13 +79,10 @@ public class OrdenCompraService implements Serializable {
     public List<OrdenCompraDTO> listarPorEstado(String estado) {
         try {
             HttpGet request = new HttpGet(base() + "/estado/" + estado);
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
-                ApiResponseDTO<List<OrdenCompraDTO>> api = objectMapper.readValue(
-                        json, new TypeReference<ApiResponseDTO<List<OrdenCompraDTO>>>() {});
-                return api.getData() != null ? api.getData() : new ArrayList<>();
-            }
-        } catch (IOException | ParseException e) {
+            ApiResponseDTO<List<OrdenCompraDTO>> api =
+                    apiClient.ejecutarCompartido("ordenes.listarPorEstado", request, TIPO_LISTA);
+            return api.getData() != null ? api.getData() : new ArrayList<>();
+        } catch (IOException e) {
             log.error("Error al listar por estado", e);
             throw new ServiceException("Error al obtener órdenes por estado", e);
         }
@@ -77,13 +92,10 @@ public class OrdenCompraService implements Serializable {
         try {
             String url = String.format("%s/fechas?inicio=%s&fin=%s", base(), inicio, fin);
             HttpGet request = new HttpGet(url);
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
-                ApiResponseDTO<List<OrdenCompraDTO>> api = objectMapper.readValue(
-                        json, new TypeReference<ApiResponseDTO<List<OrdenCompraDTO>>>() {});
-                return api.getData() != null ? api.getData() : new ArrayList<>();
-            }
-        } catch (IOException | ParseException e) {
+            ApiResponseDTO<List<OrdenCompraDTO>> api =
+                    apiClient.ejecutarCompartido("ordenes.listarPorRangoFechas", request, TIPO_LISTA);
+            return api.getData() != null ? api.getData() : new ArrayList<>();
+        } catch (IOException e) {
             log.error("Error al listar por fechas", e);
             throw new ServiceException("Error al obtener órdenes por fechas", e);
         }
@@ -92,28 +104,52 @@ public class OrdenCompraService implements Serializable {
     public List<OrdenCompraDTO> listarPorProveedor(Long proveedorId) {
         try {
             HttpGet request = new HttpGet(base() + "/proveedor/" + proveedorId);
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
-                ApiResponseDTO<List<OrdenCompraDTO>> api = objectMapper.readValue(
-                        json, new TypeReference<ApiResponseDTO<List<OrdenCompraDTO>>>() {});
-                return api.getData() != null ? api.getData() : new ArrayList<>();
-            }
-        } catch (IOException | ParseException e) {
+            ApiResponseDTO<List<OrdenCompraDTO>> api =
+                    apiClient.ejecutarCompartido("ordenes.listarPorProveedor", request, TIPO_LISTA);
+            return api.getData() != null ? api.getData() : new ArrayList<>();
+        } catch (IOException e) {
             log.error("Error al listar por proveedor", e);
             throw new ServiceException("Error al obtener órdenes por proveedor", e);
         }
     }
 
+    /**
+     * Página de órdenes ordenada y filtrada en el backend.
+     * Filtros admitidos: estado, proveedorId, fechaInicio y fechaFin (ISO yyyy-MM-dd).
+     */
+    public PaginaDTO<OrdenCompraDTO> listarPaginado(ConsultaPaginada consulta) {
+        try {
+            ConsultaPaginada acotada =
+                    consulta.acotada(apiConfig.getPaginaPorDefecto(), apiConfig.getPaginaMaxima());
+            HttpGet request = new HttpGet(base() + "/paginado?" + acotada.aQueryString());
+            ApiResponseDTO<PaginaDTO<OrdenCompraDTO>> api =
+                    apiClient.ejecutarIdempotente("ordenes.listarPaginado", request, TIPO_PAGINA);
+            return api.getData() != null ? api.getData() : new PaginaDTO<>();
+        } catch (IOException e) {
+            log.error("Error al listar página de órdenes", e);
+            throw new ServiceException("Error al obtener la lista de órdenes de compra", e);
+        }
+    }
+
+    /**
+     * Recorre todos los órdenes que cumplen los filtros pidiendo páginas por
+     * clave a medida que se consume el Stream; en memoria hay una sola página.
+     */
+    public Stream<OrdenCompraDTO> recorrer(Map<String, String> filtros) {
+        ConsultaPaginada consulta = ConsultaPaginada.builder()
+                .tamanio(apiConfig.getPaginaMaxima())
+                .filtros(new LinkedHashMap<>(filtros))
+                .build();
+        return IteradorPaginado.porClave(this::listarPaginado, consulta, OrdenCompraDTO::getId).stream();
+    }
+
     public OrdenCompraDTO buscarPorId(Long id) {
         try {
             HttpGet request = new HttpGet(base() + "/" + id);
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
-                ApiResponseDTO<OrdenCompraDTO> api = objectMapper.readValue(
-                        json, new TypeReference<ApiResponseDTO<OrdenCompraDTO>>() {});
-                return api.getData();
-            }
-        } catch (IOException | ParseException e) {
+            ApiResponseDTO<OrdenCompraDTO> api =
+                    apiClient.ejecutarIdempotente("ordenes.buscarPorId", request, TIPO_ORDEN);
+            return api.getData();
+        } catch (IOException e) {
             log.error("Error al buscar orden {}", id, e);
             throw new ServiceException("Error al buscar la orden de compra", e);
         }
@@ -122,14 +158,13 @@ public class OrdenCompraService implements Serializable {
     public OrdenCompraDTO crear(OrdenCompraDTO dto) {
         try {
             HttpPost request = new HttpPost(base());
-            request.setEntity(new StringEntity(objectMapper.writeValueAsString(dto), ContentType.APPLICATION_JSON));
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
-                ApiResponseDTO<OrdenCompraDTO> api = objectMapper.readValue(
-                        json, new TypeReference<ApiResponseDTO<OrdenCompraDTO>>() {});
-                return api.getData();
+            request.setEntity(new ByteArrayEntity(jsonCodec.escribir(dto), ContentType.APPLICATION_JSON));
+            ApiResponseDTO<OrdenCompraDTO> api = apiClient.ejecutar("ordenes.crear", request, TIPO_ORDEN);
+            if (api.isSuccess() && api.getData() != null) {
+                notificar(Operacion.CREAR, api.getData().getId(), api.getData(), null);
             }
-        } catch (IOException | ParseException e) {
+            return api.getData();
+        } catch (IOException e) {
             log.error("Error al crear orden", e);
             throw new ServiceException("Error al crear la orden de compra", e);
         }
@@ -138,14 +173,14 @@ public class OrdenCompraService implements Serializable {
     public OrdenCompraDTO actualizar(Long id, OrdenCompraDTO dto) {
         try {
             HttpPut request = new HttpPut(base() + "/" + id);
-            request.setEntity(new StringEntity(objectMapper.writeValueAsString(dto), ContentType.APPLICATION_JSON));
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
-                ApiResponseDTO<OrdenCompraDTO> api = objectMapper.readValue(
-                        json, new TypeReference<ApiResponseDTO<OrdenCompraDTO>>() {});
-                return api.getData();
+            request.setEntity(new ByteArrayEntity(jsonCodec.escribir(dto), ContentType.APPLICATION_JSON));
+            ApiResponseDTO<OrdenCompraDTO> api =
+                    apiClient.ejecutar("ordenes.actualizar", request, TIPO_ORDEN);
+            if (api.isSuccess()) {
+                notificar(Operacion.ACTUALIZAR, id, api.getData(), null);
             }
-        } catch (IOException | ParseException e) {
+            return api.getData();
+        } catch (IOException e) {
             log.error("Error al actualizar orden {}", id, e);
             throw new ServiceException("Error al actualizar la orden de compra", e);
         }
@@ -154,9 +189,11 @@ public class OrdenCompraService implements Serializable {
     public void eliminar(Long id) {
         try {
             HttpDelete request = new HttpDelete(base() + "/" + id);
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                EntityUtils.consume(response.getEntity());
+            int statusCode = apiClient.ejecutarSinCuerpo("ordenes.eliminar", request);
+            if (!exito(statusCode)) {
+                throw new ServiceException("Error al eliminar la orden. Código: " + statusCode);
             }
+            notificar(Operacion.ELIMINAR, id, null, null);
         } catch (IOException e) {
             log.error("Error al eliminar orden {}", id, e);
             throw new ServiceException("Error al eliminar la orden de compra", e);
@@ -166,27 +203,68 @@ public class OrdenCompraService implements Serializable {
     public void cambiarEstado(Long id, String nuevoEstado) {
         try {
             HttpPatch request = new HttpPatch(base() + "/" + id + "/estado?estado=" + nuevoEstado);
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                EntityUtils.consume(response.getEntity());
+            int statusCode = apiClient.ejecutarSinCuerpo("ordenes.cambiarEstado", request);
+            if (!exito(statusCode)) {
+                throw new ServiceException("Error al cambiar estado de la orden. Código: " + statusCode);
             }
+            notificar(Operacion.CAMBIAR_ESTADO, id, null, nuevoEstado);
         } catch (IOException e) {
             log.error("Error al cambiar estado de orden {}", id, e);
             throw new ServiceException("Error al cambiar el estado de la orden", e);
         }
     }
 
+    private static boolean exito(int statusCode) {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * Avisa a los componentes que mantienen datos de órdenes de que el backend confirmó una escritura
+     */
+    private void notificar(Operacion operacion, Long id, OrdenCompraDTO orden, String estado) {
+        eventos.fire(new OrdenModificadaEvent(operacion, id, orden, estado));
+    }
+
     public String generarNumeroOrden() {
         try {
+            // Cada llamada avanza la secuencia del backend: un reintento saltaría números
             HttpGet request = new HttpGet(base() + "/generar-numero");
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
-                ApiResponseDTO<String> api = objectMapper.readValue(
-                        json, new TypeReference<ApiResponseDTO<String>>() {});
-                return api.getData();
-            }
-        } catch (IOException | ParseException e) {
+            ApiResponseDTO<String> api =
+                    apiClient.ejecutar("ordenes.generarNumeroOrden", request, TIPO_NUMERO);
+            return api.getData();
+        } catch (IOException e) {
             log.error("Error al generar número de orden", e);
             throw new ServiceException("Error al generar número de orden", e);
         }
     }
-}
\ No newline at end of file
+
+    // ----------------- Variantes asíncronas (no bloqueantes) -----------------
+
+    public CompletableFuture<List<OrdenCompraDTO>> listarTodasAsync() {
+        return asyncApiClient.get("ordenes.listarTodasAsync",
+                        base(), TIPO_LISTA, "Error al obtener la lista de órdenes de compra")
+                .thenApply(data -> data != null ? data : new ArrayList<>());
+    }
+
+    public CompletableFuture<List<OrdenCompraDTO>> listarPorEstadoAsync(String estado) {
+        return asyncApiClient.get("ordenes.listarPorEstadoAsync",
+                        base() + "/estado/" + estado, TIPO_LISTA, "Error al obtener órdenes por estado")
+                .thenApply(data -> data != null ? data : new ArrayList<>());
+    }
+
+    public CompletableFuture<List<OrdenCompraDTO>> listarPorProveedorAsync(Long proveedorId) {
+        return asyncApiClient.get("ordenes.listarPorProveedorAsync",
+                        base() + "/proveedor/" + proveedorId, TIPO_LISTA, "Error al obtener órdenes por proveedor")
+                .thenApply(data -> data != null ? data : new ArrayList<>());
+    }
+
+    public CompletableFuture<OrdenCompraDTO> buscarPorIdAsync(Long id) {
+        return asyncApiClient.get("ordenes.buscarPorIdAsync",
+                base() + "/" + id, TIPO_ORDEN, "Error al buscar la orden de compra");
+    }
+
+    public CompletableFuture<String> generarNumeroOrdenAsync() {
+        return asyncApiClient.get("ordenes.generarNumeroOrdenAsync",
+                base() + "/generar-numero", TIPO_NUMERO, "Error al generar número de orden");
+    }
+}
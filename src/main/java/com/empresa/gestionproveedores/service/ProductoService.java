@@ -1,26 +1,35 @@
 package com.empresa.gestionproveedores.service;
 
+import com.empresa.gestionproveedores.cache.CatalogoCache;
 import com.empresa.gestionproveedores.config.ApiConfig;
+import com.empresa.gestionproveedores.config.JsonCodec;
 import com.empresa.gestionproveedores.dto.ApiResponseDTO;
+import com.empresa.gestionproveedores.dto.ConsultaPaginada;
+import com.empresa.gestionproveedores.dto.PaginaDTO;
 import com.empresa.gestionproveedores.dto.ProductoDTO;
+import com.empresa.gestionproveedores.event.CatalogoModificadoEvent;
+import com.empresa.gestionproveedores.event.CatalogoModificadoEvent.Operacion;
 import com.empresa.gestionproveedores.exception.ServiceException;
+import com.empresa.gestionproveedores.util.IteradorPaginado;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.classic.methods.*;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.core5.http.ContentType;
-import org.apache.hc.core5.http.ParseException;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
-import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Servicio para consumir API REST de Productos
@@ -31,14 +40,30 @@ public class ProductoService implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    private static final TypeReference<ApiResponseDTO<List<ProductoDTO>>> TIPO_LISTA =
+            new TypeReference<>() {};
+    private static final TypeReference<ApiResponseDTO<ProductoDTO>> TIPO_PRODUCTO =
+            new TypeReference<>() {};
+    private static final TypeReference<ApiResponseDTO<PaginaDTO<ProductoDTO>>> TIPO_PAGINA =
+            new TypeReference<>() {};
+
     @Inject
     private ApiConfig apiConfig;
 
     @Inject
-    private CloseableHttpClient httpClient;
+    private ApiClient apiClient;
+
+    @Inject
+    private JsonCodec jsonCodec;
+
+    @Inject
+    private AsyncApiClient asyncApiClient;
 
     @Inject
-    private ObjectMapper objectMapper;
+    private CatalogoCache catalogoCache;
+
+    @Inject
+    private Event<CatalogoModificadoEvent> eventos;
 
     /**
      * Lista todos los productos
@@ -48,41 +73,33 @@ public class ProductoService implements Serializable {
             String url = apiConfig.getBaseUrl() + "/productos";
             HttpGet request = new HttpGet(url);
 
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
-
-                ApiResponseDTO<List<ProductoDTO>> apiResponse = objectMapper.readValue(
-                        json,
-                        new TypeReference<ApiResponseDTO<List<ProductoDTO>>>() {}
-                );
+            ApiResponseDTO<List<ProductoDTO>> apiResponse =
+                    apiClient.ejecutarCompartido("productos.listarTodos", request, TIPO_LISTA);
 
-                return apiResponse.getData() != null ? apiResponse.getData() : new ArrayList<>();
-            }
-        } catch (IOException | ParseException e) {
+            return apiResponse.getData() != null ? apiResponse.getData() : new ArrayList<>();
+        } catch (IOException e) {
             log.error("Error al listar productos", e);
             throw new ServiceException("Error al obtener la lista de productos", e);
         }
     }
 
     /**
-     * Lista productos activos
+     * Lista productos activos (servida desde la caché de catálogo)
      */
     public List<ProductoDTO> listarActivos() {
+        return catalogoCache.productosActivos(this::consultarActivos);
+    }
+
+    private List<ProductoDTO> consultarActivos() {
         try {
             String url = apiConfig.getBaseUrl() + "/productos/activos";
             HttpGet request = new HttpGet(url);
 
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
-
-                ApiResponseDTO<List<ProductoDTO>> apiResponse = objectMapper.readValue(
-                        json,
-                        new TypeReference<ApiResponseDTO<List<ProductoDTO>>>() {}
-                );
+            ApiResponseDTO<List<ProductoDTO>> apiResponse =
+                    apiClient.ejecutarCompartido("productos.listarActivos", request, TIPO_LISTA);
 
-                return apiResponse.getData() != null ? apiResponse.getData() : new ArrayList<>();
-            }
-        } catch (IOException | ParseException e) {
+            return apiResponse.getData() != null ? apiResponse.getData() : new ArrayList<>();
+        } catch (IOException e) {
             log.error("Error al listar productos activos", e);
             throw new ServiceException("Error al obtener productos activos", e);
         }
@@ -96,17 +113,11 @@ public class ProductoService implements Serializable {
             String url = apiConfig.getBaseUrl() + "/productos/" + id;
             HttpGet request = new HttpGet(url);
 
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
+            ApiResponseDTO<ProductoDTO> apiResponse =
+                    apiClient.ejecutarIdempotente("productos.buscarPorId", request, TIPO_PRODUCTO);
 
-                ApiResponseDTO<ProductoDTO> apiResponse = objectMapper.readValue(
-                        json,
-                        new TypeReference<ApiResponseDTO<ProductoDTO>>() {}
-                );
-
-                return apiResponse.getData();
-            }
-        } catch (IOException | ParseException e) {
+            return apiResponse.getData();
+        } catch (IOException e) {
             log.error("Error al buscar producto por ID: {}", id, e);
             throw new ServiceException("Error al buscar el producto", e);
         }
@@ -120,20 +131,17 @@ public class ProductoService implements Serializable {
             String url = apiConfig.getBaseUrl() + "/productos";
             HttpPost request = new HttpPost(url);
 
-            String jsonBody = objectMapper.writeValueAsString(productoDTO);
-            request.setEntity(new StringEntity(jsonBody, ContentType.APPLICATION_JSON));
-
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
+            byte[] jsonBody = jsonCodec.escribir(productoDTO);
+            request.setEntity(new ByteArrayEntity(jsonBody, ContentType.APPLICATION_JSON));
 
-                ApiResponseDTO<ProductoDTO> apiResponse = objectMapper.readValue(
-                        json,
-                        new TypeReference<ApiResponseDTO<ProductoDTO>>() {}
-                );
-
-                return apiResponse.getData();
+            ApiResponseDTO<ProductoDTO> apiResponse =
+                    apiClient.ejecutar("productos.crear", request, TIPO_PRODUCTO);
+            if (apiResponse.isSuccess() && apiResponse.getData() != null) {
+                notificar(Operacion.CREAR, apiResponse.getData().getId(), apiResponse.getData());
             }
-        } catch (IOException | ParseException e) {
+
+            return apiResponse.getData();
+        } catch (IOException e) {
             log.error("Error al crear producto", e);
             throw new ServiceException("Error al crear el producto", e);
         }
@@ -147,20 +155,17 @@ public class ProductoService implements Serializable {
             String url = apiConfig.getBaseUrl() + "/productos/" + id;
             HttpPut request = new HttpPut(url);
 
-            String jsonBody = objectMapper.writeValueAsString(productoDTO);
-            request.setEntity(new StringEntity(jsonBody, ContentType.APPLICATION_JSON));
-
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
-
-                ApiResponseDTO<ProductoDTO> apiResponse = objectMapper.readValue(
-                        json,
-                        new TypeReference<ApiResponseDTO<ProductoDTO>>() {}
-                );
+            byte[] jsonBody = jsonCodec.escribir(productoDTO);
+            request.setEntity(new ByteArrayEntity(jsonBody, ContentType.APPLICATION_JSON));
 
-                return apiResponse.getData();
+            ApiResponseDTO<ProductoDTO> apiResponse =
+                    apiClient.ejecutar("productos.actualizar", request, TIPO_PRODUCTO);
+            if (apiResponse.isSuccess()) {
+                notificar(Operacion.ACTUALIZAR, id, apiResponse.getData());
             }
-        } catch (IOException | ParseException e) {
+
+            return apiResponse.getData();
+        } catch (IOException e) {
             log.error("Error al actualizar producto ID: {}", id, e);
             throw new ServiceException("Error al actualizar el producto", e);
         }
@@ -174,9 +179,11 @@ public class ProductoService implements Serializable {
             String url = apiConfig.getBaseUrl() + "/productos/" + id;
             HttpDelete request = new HttpDelete(url);
 
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                EntityUtils.consume(response.getEntity());
+            int statusCode = apiClient.ejecutarSinCuerpo("productos.eliminar", request);
+            if (!exito(statusCode)) {
+                throw new ServiceException("Error al eliminar producto. Código: " + statusCode);
             }
+            notificar(Operacion.ELIMINAR, id, null);
         } catch (IOException e) {
             log.error("Error al eliminar producto ID: {}", id, e);
             throw new ServiceException("Error al eliminar el producto", e);
@@ -191,9 +198,11 @@ public class ProductoService implements Serializable {
             String url = apiConfig.getBaseUrl() + "/productos/" + id + "/estado?activo=" + nuevoEstado;
             HttpPatch request = new HttpPatch(url);
 
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                EntityUtils.consume(response.getEntity());
+            int statusCode = apiClient.ejecutarSinCuerpo("productos.cambiarEstado", request);
+            if (!exito(statusCode)) {
+                throw new ServiceException("Error al cambiar estado del producto. Código: " + statusCode);
             }
+            notificar(Operacion.CAMBIAR_ESTADO, id, null);
         } catch (IOException e) {
             log.error("Error al cambiar estado del producto ID: {}", id, e);
             throw new ServiceException("Error al cambiar el estado del producto", e);
@@ -201,24 +210,22 @@ public class ProductoService implements Serializable {
     }
 
     /**
-     * Busca productos por proveedor
+     * Busca productos por proveedor (servida desde la caché de catálogo)
      */
     public List<ProductoDTO> buscarPorProveedor(Long proveedorId) {
+        return catalogoCache.productosPorProveedor(proveedorId, () -> consultarPorProveedor(proveedorId));
+    }
+
+    private List<ProductoDTO> consultarPorProveedor(Long proveedorId) {
         try {
             String url = apiConfig.getBaseUrl() + "/productos/proveedor/" + proveedorId;
             HttpGet request = new HttpGet(url);
 
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
+            ApiResponseDTO<List<ProductoDTO>> apiResponse =
+                    apiClient.ejecutarCompartido("productos.buscarPorProveedor", request, TIPO_LISTA);
 
-                ApiResponseDTO<List<ProductoDTO>> apiResponse = objectMapper.readValue(
-                        json,
-                        new TypeReference<ApiResponseDTO<List<ProductoDTO>>>() {}
-                );
-
-                return apiResponse.getData() != null ? apiResponse.getData() : new ArrayList<>();
-            }
-        } catch (IOException | ParseException e) {
+            return apiResponse.getData() != null ? apiResponse.getData() : new ArrayList<>();
+        } catch (IOException e) {
             log.error("Error al buscar productos por proveedor", e);
             throw new ServiceException("Error al buscar productos del proveedor", e);
         }
@@ -229,22 +236,110 @@ public class ProductoService implements Serializable {
      */
     public List<ProductoDTO> buscarPorNombre(String nombre) {
         try {
-            String url = apiConfig.getBaseUrl() + "/productos/nombre?nombre=" + nombre;
+            String url = apiConfig.getBaseUrl() + "/productos/nombre?nombre="
+                    + URLEncoder.encode(nombre, StandardCharsets.UTF_8);
             HttpGet request = new HttpGet(url);
 
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
+            ApiResponseDTO<List<ProductoDTO>> apiResponse =
+                    apiClient.ejecutarCompartido("productos.buscarPorNombre", request, TIPO_LISTA);
 
-                ApiResponseDTO<List<ProductoDTO>> apiResponse = objectMapper.readValue(
-                        json,
-                        new TypeReference<ApiResponseDTO<List<ProductoDTO>>>() {}
-                );
-
-                return apiResponse.getData() != null ? apiResponse.getData() : new ArrayList<>();
-            }
-        } catch (IOException | ParseException e) {
+            return apiResponse.getData() != null ? apiResponse.getData() : new ArrayList<>();
+        } catch (IOException e) {
             log.error("Error al buscar productos por nombre", e);
             throw new ServiceException("Error en la búsqueda de productos", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Página de productos ordenada y filtrada en el backend.
+     * Filtros admitidos: busqueda (nombre o código), proveedorId, activo.
+     */
+    public PaginaDTO<ProductoDTO> listarPaginado(ConsultaPaginada consulta) {
+        try {
+            ConsultaPaginada acotada =
+                    consulta.acotada(apiConfig.getPaginaPorDefecto(), apiConfig.getPaginaMaxima());
+            HttpGet request = new HttpGet(apiConfig.getProductosUrl() + "/paginado?" + acotada.aQueryString());
+            ApiResponseDTO<PaginaDTO<ProductoDTO>> apiResponse =
+                    apiClient.ejecutarIdempotente("productos.listarPaginado", request, TIPO_PAGINA);
+            return apiResponse.getData() != null ? apiResponse.getData() : new PaginaDTO<>();
+        } catch (IOException e) {
+            log.error("Error al listar página de productos", e);
+            throw new ServiceException("Error al obtener la lista de productos", e);
+        }
+    }
+
+    /**
+     * Recorre todos los productos que cumplen los filtros pidiendo páginas por
+     * clave a medida que se consume el Stream; en memoria hay una sola página.
+     */
+    public Stream<ProductoDTO> recorrer(Map<String, String> filtros) {
+        ConsultaPaginada consulta = ConsultaPaginada.builder()
+                .tamanio(apiConfig.getPaginaMaxima())
+                .filtros(new LinkedHashMap<>(filtros))
+                .build();
+        return IteradorPaginado.porClave(this::listarPaginado, consulta, ProductoDTO::getId).stream();
+    }
+
+    private static boolean exito(int statusCode) {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * Avisa a cachés e índices locales de que el backend confirmó una escritura
+     */
+    private void notificar(Operacion operacion, Long id, ProductoDTO entidad) {
+        eventos.fire(new CatalogoModificadoEvent(CatalogoModificadoEvent.Catalogo.PRODUCTO, operacion, id, entidad));
+    }
+
+    // ----------------- Variantes asíncronas (no bloqueantes) -----------------
+
+    /**
+     * Lista todos los productos sin bloquear el hilo que llama
+     */
+    public CompletableFuture<List<ProductoDTO>> listarTodosAsync() {
+        return asyncApiClient.get("productos.listarTodosAsync",
+                        apiConfig.getBaseUrl() + "/productos", TIPO_LISTA,
+                        "Error al obtener la lista de productos")
+                .thenApply(data -> data != null ? data : new ArrayList<>());
+    }
+
+    /**
+     * Lista productos activos sin bloquear el hilo que llama
+     */
+    public CompletableFuture<List<ProductoDTO>> listarActivosAsync() {
+        return asyncApiClient.get("productos.listarActivosAsync",
+                        apiConfig.getBaseUrl() + "/productos/activos", TIPO_LISTA,
+                        "Error al obtener productos activos")
+                .thenApply(data -> data != null ? data : new ArrayList<>());
+    }
+
+    /**
+     * Busca un producto por ID sin bloquear el hilo que llama
+     */
+    public CompletableFuture<ProductoDTO> buscarPorIdAsync(Long id) {
+        return asyncApiClient.get("productos.buscarPorIdAsync",
+                apiConfig.getBaseUrl() + "/productos/" + id, TIPO_PRODUCTO, "Error al buscar el producto");
+    }
+
+    /**
+     * Busca productos por proveedor sin bloquear el hilo que llama
+     */
+    public CompletableFuture<List<ProductoDTO>> buscarPorProveedorAsync(Long proveedorId) {
+        return asyncApiClient.get("productos.buscarPorProveedorAsync",
+                        apiConfig.getBaseUrl() + "/productos/proveedor/" + proveedorId, TIPO_LISTA,
+                        "Error al buscar productos del proveedor")
+                .thenApply(data -> data != null ? data : new ArrayList<>());
+    }
+
+    /**
+     * Página de productos sin bloquear el hilo que llama. Se devuelve el futuro
+     * del cliente sin encadenar, de modo que cancelarlo aborta la petición.
+     * El dato puede ser null si el backend no devuelve página.
+     */
+    public CompletableFuture<PaginaDTO<ProductoDTO>> listarPaginadoAsync(ConsultaPaginada consulta) {
+        ConsultaPaginada acotada = consulta.acotada(apiConfig.getPaginaPorDefecto(), apiConfig.getPaginaMaxima());
+        return asyncApiClient.get("productos.listarPaginadoAsync",
+                apiConfig.getProductosUrl() + "/paginado?" + acotada.aQueryString(), TIPO_PAGINA,
+                "Error al obtener la lista de productos");
+    }
+}
@@ -1,26 +1,35 @@
 package com.empresa.gestionproveedores.service;
 
+import com.empresa.gestionproveedores.cache.CatalogoCache;
 import com.empresa.gestionproveedores.config.ApiConfig;
+import com.empresa.gestionproveedores.config.JsonCodec;
 import com.empresa.gestionproveedores.dto.ApiResponseDTO;
+import com.empresa.gestionproveedores.dto.ConsultaPaginada;
+import com.empresa.gestionproveedores.dto.PaginaDTO;
 import com.empresa.gestionproveedores.dto.ProveedorDTO;
+import com.empresa.gestionproveedores.event.CatalogoModificadoEvent;
+import com.empresa.gestionproveedores.event.CatalogoModificadoEvent.Operacion;
 import com.empresa.gestionproveedores.exception.ServiceException;
+import com.empresa.gestionproveedores.util.IteradorPaginado;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.classic.methods.*;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.core5.http.ContentType;
-import org.apache.hc.core5.http.ParseException;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
-import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Servicio para consumir API REST de Proveedores
@@ -31,14 +40,30 @@ public class ProveedorService implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    private static final TypeReference<ApiResponseDTO<List<ProveedorDTO>>> TIPO_LISTA =
+            new TypeReference<>() {};
+    private static final TypeReference<ApiResponseDTO<ProveedorDTO>> TIPO_PROVEEDOR =
+            new TypeReference<>() {};
+    private static final TypeReference<ApiResponseDTO<PaginaDTO<ProveedorDTO>>> TIPO_PAGINA =
+            new TypeReference<>() {};
+
     @Inject
     private ApiConfig apiConfig;
 
     @Inject
-    private CloseableHttpClient httpClient;
+    private ApiClient apiClient;
+
+    @Inject
+    private JsonCodec jsonCodec;
+
+    @Inject
+    private AsyncApiClient asyncApiClient;
+
+    @Inject
+    private CatalogoCache catalogoCache;
 
     @Inject
-    private ObjectMapper objectMapper;
+    private Event<CatalogoModificadoEvent> eventos;
 
     /**
      * Lista todos los proveedores
@@ -48,41 +73,33 @@ public class ProveedorService implements Serializable {
             String url = apiConfig.getProveedoresUrl();
             HttpGet request = new HttpGet(url);
 
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
-
-                ApiResponseDTO<List<ProveedorDTO>> apiResponse = objectMapper.readValue(
-                        json,
-                        new TypeReference<ApiResponseDTO<List<ProveedorDTO>>>() {}
-                );
+            ApiResponseDTO<List<ProveedorDTO>> apiResponse =
+                    apiClient.ejecutarCompartido("proveedores.listarTodos", request, TIPO_LISTA);
 
-                return apiResponse.getData() != null ? apiResponse.getData() : new ArrayList<>();
-            }
-        } catch (IOException | ParseException e) {
+            return apiResponse.getData() != null ? apiResponse.getData() : new ArrayList<>();
+        } catch (IOException e) {
             log.error("Error al listar proveedores", e);
             throw new ServiceException("Error al obtener la lista de proveedores", e);
         }
     }
 
     /**
-     * Lista proveedores activos
+     * Lista proveedores activos (servida desde la caché de catálogo)
      */
     public List<ProveedorDTO> listarActivos() {
+        return catalogoCache.proveedoresActivos(this::consultarActivos);
+    }
+
+    private List<ProveedorDTO> consultarActivos() {
         try {
             String url = apiConfig.getProveedoresUrl() + "/activos";
             HttpGet request = new HttpGet(url);
 
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
+            ApiResponseDTO<List<ProveedorDTO>> apiResponse =
+                    apiClient.ejecutarCompartido("proveedores.listarActivos", request, TIPO_LISTA);
 
-                ApiResponseDTO<List<ProveedorDTO>> apiResponse = objectMapper.readValue(
-                        json,
-                        new TypeReference<ApiResponseDTO<List<ProveedorDTO>>>() {}
-                );
-
-                return apiResponse.getData() != null ? apiResponse.getData() : new ArrayList<>();
-            }
-        } catch (IOException | ParseException e) {
+            return apiResponse.getData() != null ? apiResponse.getData() : new ArrayList<>();
+        } catch (IOException e) {
             log.error("Error al listar proveedores activos", e);
             throw new ServiceException("Error al obtener proveedores activos", e);
         }
@@ -96,17 +113,11 @@ public class ProveedorService implements Serializable {
             String url = apiConfig.getProveedoresUrl() + "/" + id;
             HttpGet request = new HttpGet(url);
 
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
-
-                ApiResponseDTO<ProveedorDTO> apiResponse = objectMapper.readValue(
-                        json,
-                        new TypeReference<ApiResponseDTO<ProveedorDTO>>() {}
-                );
+            ApiResponseDTO<ProveedorDTO> apiResponse =
+                    apiClient.ejecutarIdempotente("proveedores.buscarPorId", request, TIPO_PROVEEDOR);
 
-                return apiResponse.getData();
-            }
-        } catch (IOException | ParseException e) {
+            return apiResponse.getData();
+        } catch (IOException e) {
             log.error("Error al buscar proveedor por ID: {}", id, e);
             throw new ServiceException("Error al buscar el proveedor", e);
         }
@@ -117,25 +128,50 @@ public class ProveedorService implements Serializable {
      */
     public List<ProveedorDTO> buscarPorRazonSocial(String razonSocial) {
         try {
-            String url = apiConfig.getProveedoresUrl() + "/buscar?razonSocial=" + razonSocial;
+            String url = apiConfig.getProveedoresUrl() + "/buscar?razonSocial="
+                    + URLEncoder.encode(razonSocial, StandardCharsets.UTF_8);
             HttpGet request = new HttpGet(url);
 
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String json = EntityUtils.toString(response.getEntity());
+            ApiResponseDTO<List<ProveedorDTO>> apiResponse =
+                    apiClient.ejecutarCompartido("proveedores.buscarPorRazonSocial", request, TIPO_LISTA);
 
-                ApiResponseDTO<List<ProveedorDTO>> apiResponse = objectMapper.readValue(
-                        json,
-                        new TypeReference<ApiResponseDTO<List<ProveedorDTO>>>() {}
-                );
-
-                return apiResponse.getData() != null ? apiResponse.getData() : new ArrayList<>();
-            }
-        } catch (IOException | ParseException e) {
+            return apiResponse.getData() != null ? apiResponse.getData() : new ArrayList<>();
+        } catch (IOException e) {
             log.error("Error al buscar proveedores por razón social", e);
             throw new ServiceException("Error al buscar proveedores", e);
         }
     }
 
+    /**
+     * Página de proveedores ordenada y filtrada en el backend.
+     * Filtros admitidos: razonSocial, activo.
+     */
+    public PaginaDTO<ProveedorDTO> listarPaginado(ConsultaPaginada consulta) {
+        try {
+            ConsultaPaginada acotada =
+                    consulta.acotada(apiConfig.getPaginaPorDefecto(), apiConfig.getPaginaMaxima());
+            HttpGet request = new HttpGet(apiConfig.getProveedoresUrl() + "/paginado?" + acotada.aQueryString());
+            ApiResponseDTO<PaginaDTO<ProveedorDTO>> apiResponse =
+                    apiClient.ejecutarIdempotente("proveedores.listarPaginado", request, TIPO_PAGINA);
+            return apiResponse.getData() != null ? apiResponse.getData() : new PaginaDTO<>();
+        } catch (IOException e) {
+            log.error("Error al listar página de proveedores", e);
+            throw new ServiceException("Error al obtener la lista de proveedores", e);
+        }
+    }
+
+    /**
+     * Recorre todos los proveedores que cumplen los filtros pidiendo páginas por
+     * clave a medida que se consume el Stream; en memoria hay una sola página.
+     */
+    public Stream<ProveedorDTO> recorrer(Map<String, String> filtros) {
+        ConsultaPaginada consulta = ConsultaPaginada.builder()
+                .tamanio(apiConfig.getPaginaMaxima())
+                .filtros(new LinkedHashMap<>(filtros))
+                .build();
+        return IteradorPaginado.porClave(this::listarPaginado, consulta, ProveedorDTO::getId).stream();
+    }
+
     /**
      * Crea un nuevo proveedor
      */
@@ -144,20 +180,17 @@ public class ProveedorService implements Serializable {
             String url = apiConfig.getProveedoresUrl();
             HttpPost request = new HttpPost(url);
 
-            String json = objectMapper.writeValueAsString(proveedorDTO);
-            request.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
-
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String responseJson = EntityUtils.toString(response.getEntity());
-
-                ApiResponseDTO<ProveedorDTO> apiResponse = objectMapper.readValue(
-                        responseJson,
-                        new TypeReference<ApiResponseDTO<ProveedorDTO>>() {}
-                );
+            byte[] json = jsonCodec.escribir(proveedorDTO);
+            request.setEntity(new ByteArrayEntity(json, ContentType.APPLICATION_JSON));
 
-                return apiResponse.getData();
+            ApiResponseDTO<ProveedorDTO> apiResponse =
+                    apiClient.ejecutar("proveedores.crear", request, TIPO_PROVEEDOR);
+            if (apiResponse.isSuccess() && apiResponse.getData() != null) {
+                notificar(Operacion.CREAR, apiResponse.getData().getId(), apiResponse.getData());
             }
-        } catch (IOException | ParseException e) {
+
+            return apiResponse.getData();
+        } catch (IOException e) {
             log.error("Error al crear proveedor", e);
             throw new ServiceException("Error al crear el proveedor", e);
         }
@@ -171,20 +204,17 @@ public class ProveedorService implements Serializable {
             String url = apiConfig.getProveedoresUrl() + "/" + id;
             HttpPut request = new HttpPut(url);
 
-            String json = objectMapper.writeValueAsString(proveedorDTO);
-            request.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
-
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String responseJson = EntityUtils.toString(response.getEntity());
-
-                ApiResponseDTO<ProveedorDTO> apiResponse = objectMapper.readValue(
-                        responseJson,
-                        new TypeReference<ApiResponseDTO<ProveedorDTO>>() {}
-                );
+            byte[] json = jsonCodec.escribir(proveedorDTO);
+            request.setEntity(new ByteArrayEntity(json, ContentType.APPLICATION_JSON));
 
-                return apiResponse.getData();
+            ApiResponseDTO<ProveedorDTO> apiResponse =
+                    apiClient.ejecutar("proveedores.actualizar", request, TIPO_PROVEEDOR);
+            if (apiResponse.isSuccess()) {
+                notificar(Operacion.ACTUALIZAR, id, apiResponse.getData());
             }
-        } catch (IOException | ParseException e) {
+
+            return apiResponse.getData();
+        } catch (IOException e) {
             log.error("Error al actualizar proveedor ID: {}", id, e);
             throw new ServiceException("Error al actualizar el proveedor", e);
         }
@@ -198,12 +228,11 @@ public class ProveedorService implements Serializable {
             String url = apiConfig.getProveedoresUrl() + "/" + id;
             HttpDelete request = new HttpDelete(url);
 
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                int statusCode = response.getCode();
-                if (statusCode != 200 && statusCode != 204) {
-                    throw new ServiceException("Error al eliminar proveedor. Código: " + statusCode);
-                }
+            int statusCode = apiClient.ejecutarSinCuerpo("proveedores.eliminar", request);
+            if (statusCode != 200 && statusCode != 204) {
+                throw new ServiceException("Error al eliminar proveedor. Código: " + statusCode);
             }
+            notificar(Operacion.ELIMINAR, id, null);
         } catch (IOException e) {
             log.error("Error al eliminar proveedor ID: {}", id, e);
             throw new ServiceException("Error al eliminar el proveedor", e);
@@ -218,19 +247,54 @@ public class ProveedorService implements Serializable {
             String url = apiConfig.getProveedoresUrl() + "/" + id + "/estado?activo=" + activo;
             HttpPatch request = new HttpPatch(url);
 
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                String responseJson = EntityUtils.toString(response.getEntity());
-
-                ApiResponseDTO<ProveedorDTO> apiResponse = objectMapper.readValue(
-                        responseJson,
-                        new TypeReference<ApiResponseDTO<ProveedorDTO>>() {}
-                );
-
-                return apiResponse.getData();
+            ApiResponseDTO<ProveedorDTO> apiResponse =
+                    apiClient.ejecutar("proveedores.cambiarEstado", request, TIPO_PROVEEDOR);
+            if (!apiResponse.isSuccess()) {
+                throw new ServiceException(apiResponse.getMessage() != null
+                        ? apiResponse.getMessage() : "Error al cambiar el estado del proveedor");
             }
-        } catch (IOException | ParseException e) {
+            notificar(Operacion.CAMBIAR_ESTADO, id, apiResponse.getData());
+
+            return apiResponse.getData();
+        } catch (IOException e) {
             log.error("Error al cambiar estado del proveedor ID: {}", id, e);
             throw new ServiceException("Error al cambiar el estado del proveedor", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Avisa a cachés e índices locales de que el backend confirmó una escritura
+     */
+    private void notificar(Operacion operacion, Long id, ProveedorDTO entidad) {
+        eventos.fire(new CatalogoModificadoEvent(CatalogoModificadoEvent.Catalogo.PROVEEDOR, operacion, id, entidad));
+    }
+
+    // ----------------- Variantes asíncronas (no bloqueantes) -----------------
+
+    /**
+     * Lista todos los proveedores sin bloquear el hilo que llama
+     */
+    public CompletableFuture<List<ProveedorDTO>> listarTodosAsync() {
+        return asyncApiClient.get("proveedores.listarTodosAsync",
+                        apiConfig.getProveedoresUrl(), TIPO_LISTA, "Error al obtener la lista de proveedores")
+                .thenApply(data -> data != null ? data : new ArrayList<>());
+    }
+
+    /**
+     * Lista proveedores activos sin bloquear el hilo que llama
+     */
+    public CompletableFuture<List<ProveedorDTO>> listarActivosAsync() {
+        return asyncApiClient.get("proveedores.listarActivosAsync",
+                        apiConfig.getProveedoresUrl() + "/activos", TIPO_LISTA,
+                        "Error al obtener proveedores activos")
+                .thenApply(data -> data != null ? data : new ArrayList<>());
+    }
+
+    /**
+     * Busca un proveedor por ID sin bloquear el hilo que llama
+     */
+    public CompletableFuture<ProveedorDTO> buscarPorIdAsync(Long id) {
+        return asyncApiClient.get("proveedores.buscarPorIdAsync",
+                apiConfig.getProveedoresUrl() + "/" + id, TIPO_PROVEEDOR, "Error al buscar el proveedor");
+    }
+}
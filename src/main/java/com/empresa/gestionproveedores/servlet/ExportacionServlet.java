@@ -0,0 +1,192 @@
+package com.empresa.gestionproveedores.servlet;
+
+import com.empresa.gestionproveedores.dto.DetalleOrdenDTO;
+import com.empresa.gestionproveedores.dto.OrdenCompraDTO;
+import com.empresa.gestionproveedores.dto.ProductoDTO;
+import com.empresa.gestionproveedores.dto.ProductoResponseDTO;
+import com.empresa.gestionproveedores.exception.ServiceException;
+import com.empresa.gestionproveedores.export.EscritorCsv;
+import com.empresa.gestionproveedores.export.EscritorFilas;
+import com.empresa.gestionproveedores.export.EscritorXlsx;
+import com.empresa.gestionproveedores.service.OrdenCompraService;
+import com.empresa.gestionproveedores.service.ProductoService;
+import jakarta.inject.Inject;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+
+/**
+ * Descarga de órdenes y productos en CSV o Excel:
+ * <pre>
+ * /exportar/ordenes.csv?estado=PENDIENTE&amp;proveedorId=3
+ * /exportar/productos.xlsx?busqueda=tornillo
+ * </pre>
+ * Las filas se piden al backend por páginas (recorrer) y se escriben en la
+ * respuesta según llegan, así que la memoria es la de una página más el
+ * buffer del escritor, sea cual sea el tamaño del listado.
+ * <p>
+ * Si el backend falla antes de enviar nada se responde 502; si ya se envió
+ * parte del fichero se corta la conexión para que el navegador marque la
+ * descarga como fallida en lugar de dar por bueno un fichero incompleto.
+ */
+@WebServlet(name = "ExportacionServlet", urlPatterns = {"/exportar/*"})
+@Slf4j
+public class ExportacionServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final List<String> FILTROS_ORDENES = List.of("estado", "proveedorId", "fechaInicio", "fechaFin");
+    private static final List<String> FILTROS_PRODUCTOS = List.of("busqueda", "proveedorId", "activo");
+
+    private static final List<String> COLUMNAS_ORDENES = List.of(
+            "Número", "Fecha", "Estado", "RUC", "Proveedor", "Subtotal", "IVA", "Total",
+            "Código producto", "Producto", "Cantidad", "Precio unitario", "Subtotal línea", "Observaciones");
+
+    private static final List<String> COLUMNAS_PRODUCTOS = List.of(
+            "Código", "Nombre", "Descripción", "Unidad", "Precio", "Proveedor", "Activo", "Fecha registro");
+
+    @Inject
+    private OrdenCompraService ordenCompraService;
+
+    @Inject
+    private ProductoService productoService;
+
+    /**
+     * Ruta (relativa al contexto) de una descarga con los filtros que tengan valor,
+     * para enlazarla desde las pantallas con lo que el usuario tiene filtrado.
+     */
+    public static String ruta(String recurso, Map<String, String> filtros) {
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+        filtros.forEach((nombre, valor) -> {
+            if (valor != null && !valor.isBlank()) {
+                query.add(nombre + "=" + URLEncoder.encode(valor.trim(), StandardCharsets.UTF_8));
+            }
+        });
+        return "/exportar/" + recurso + query;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String recurso = request.getPathInfo() != null ? request.getPathInfo().substring(1) : "";
+        int punto = recurso.lastIndexOf('.');
+        String nombre = punto > 0 ? recurso.substring(0, punto) : recurso;
+        String formato = punto > 0 ? recurso.substring(punto + 1) : "csv";
+
+        if (!formato.equals("csv") && !formato.equals("xlsx")) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        switch (nombre) {
+            case "ordenes" -> exportar(response, nombre, formato, "Órdenes", COLUMNAS_ORDENES,
+                    () -> ordenCompraService.recorrer(filtros(request, FILTROS_ORDENES)),
+                    ExportacionServlet::escribirOrden);
+            case "productos" -> exportar(response, nombre, formato, "Productos", COLUMNAS_PRODUCTOS,
+                    () -> productoService.recorrer(filtros(request, FILTROS_PRODUCTOS)),
+                    ExportacionServlet::escribirProducto);
+            default -> response.sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+
+    @FunctionalInterface
+    private interface EscrituraFila<T> {
+        void escribir(EscritorFilas escritor, T elemento) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Origen<T> {
+        Stream<T> abrir();
+    }
+
+    private <T> void exportar(HttpServletResponse response, String nombre, String formato, String titulo,
+                              List<String> columnas, Origen<T> origen, EscrituraFila<T> escritura)
+            throws IOException {
+        String fichero = nombre + "-" + LocalDate.now() + "." + formato;
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fichero + "\"");
+        response.setHeader("Cache-Control", "no-store");
+
+        long filas = 0;
+        long inicio = System.nanoTime();
+        try (Stream<T> elementos = origen.abrir()) {
+            // La primera página se pide antes de escribir nada: si falla aún se puede responder 502
+            Iterator<T> iterador = elementos.iterator();
+            iterador.hasNext();
+            OutputStream salida = response.getOutputStream();
+            try (EscritorFilas escritor = formato.equals("xlsx")
+                    ? new EscritorXlsx(salida, titulo)
+                    : new EscritorCsv(salida)) {
+                response.setContentType(escritor.getTipoContenido());
+                escritor.cabecera(columnas);
+                while (iterador.hasNext()) {
+                    escritura.escribir(escritor, iterador.next());
+                    filas++;
+                }
+                escritor.terminar();
+            }
+            log.info("Exportados {} registros a {} en {} ms",
+                    filas, fichero, (System.nanoTime() - inicio) / 1_000_000);
+        } catch (ServiceException e) {
+            log.error("Exportación de {} interrumpida tras {} registros", fichero, filas, e);
+            if (response.isCommitted()) {
+                throw new IOException("Exportación incompleta", e);
+            }
+            response.reset();
+            response.sendError(HttpServletResponse.SC_BAD_GATEWAY, "No se pudo obtener los datos del backend");
+        }
+    }
+
+    /**
+     * Una fila por línea de detalle con los datos de la orden repetidos, que
+     * es lo que se puede filtrar y sumar en una hoja de cálculo. Una orden sin
+     * líneas sale en una fila con las columnas de producto vacías.
+     */
+    private static void escribirOrden(EscritorFilas escritor, OrdenCompraDTO o) throws IOException {
+        String ruc = o.getProveedor() != null ? o.getProveedor().getRuc() : null;
+        String proveedor = o.getProveedor() != null ? o.getProveedor().getRazonSocial() : null;
+        List<DetalleOrdenDTO> detalles = o.getDetalles();
+        if (detalles == null || detalles.isEmpty()) {
+            escritor.fila(o.getNumeroOrden(), o.getFechaOrden(), o.getEstado(), ruc, proveedor,
+                    o.getSubtotal(), o.getIva(), o.getTotal(), null, null, null, null, null, o.getObservaciones());
+            return;
+        }
+        for (DetalleOrdenDTO d : detalles) {
+            ProductoResponseDTO p = d.getProducto();
+            escritor.fila(o.getNumeroOrden(), o.getFechaOrden(), o.getEstado(), ruc, proveedor,
+                    o.getSubtotal(), o.getIva(), o.getTotal(),
+                    p != null ? p.getCodigo() : null, p != null ? p.getNombre() : null,
+                    d.getCantidad(), d.getPrecioUnitario(), d.getSubtotal(), o.getObservaciones());
+        }
+    }
+
+    private static void escribirProducto(EscritorFilas escritor, ProductoDTO p) throws IOException {
+        escritor.fila(p.getCodigo(), p.getNombre(), p.getDescripcion(), p.getUnidadMedida(), p.getPrecio(),
+                p.getProveedorRazonSocial(), p.getActivo(), p.getFechaRegistro());
+    }
+
+    /**
+     * Solo se reenvían al backend los filtros conocidos y con valor.
+     */
+    private static Map<String, String> filtros(HttpServletRequest request, List<String> admitidos) {
+        Map<String, String> filtros = new LinkedHashMap<>();
+        for (String nombre : admitidos) {
+            String valor = request.getParameter(nombre);
+            if (valor != null && !valor.isBlank()) {
+                filtros.put(nombre, valor.trim());
+            }
+        }
+        return filtros;
+    }
+}
@@ -0,0 +1,346 @@
+package com.empresa.gestionproveedores.stats;
+
+import com.empresa.gestionproveedores.config.ApiConfig;
+import com.empresa.gestionproveedores.dto.OrdenCompraDTO;
+import com.empresa.gestionproveedores.dto.ProductoDTO;
+import com.empresa.gestionproveedores.dto.ProveedorDTO;
+import com.empresa.gestionproveedores.event.CatalogoModificadoEvent;
+import com.empresa.gestionproveedores.event.OrdenModificadaEvent;
+import com.empresa.gestionproveedores.jfr.InicializacionMedida;
+import com.empresa.gestionproveedores.metrics.MetricSource;
+import com.empresa.gestionproveedores.metrics.MetricsWriter;
+import com.empresa.gestionproveedores.service.OrdenCompraService;
+import com.empresa.gestionproveedores.service.ProductoService;
+import com.empresa.gestionproveedores.service.ProveedorService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Contadores del dashboard: proveedores y productos (totales y activos),
+ * órdenes por estado e importe comprometido.
+ * <p>
+ * Se calculan en segundo plano recorriendo el backend página a página cada
+ * dashboard.refresh ms, y entre recorridos se ajustan con los eventos de
+ * escritura: de cada entidad solo se guarda lo que aporta a los contadores
+ * (activo, o estado e importe), así un alta, baja o cambio resta la
+ * contribución anterior y suma la nueva.
+ * Las páginas leen un {@link Resumen} inmutable; ninguna lectura va al backend.
+ */
+@ApplicationScoped
+@InicializacionMedida
+@Slf4j
+public class EstadisticasDashboard implements MetricSource {
+
+    /** Las órdenes canceladas no cuentan en el importe comprometido. */
+    private static final String CANCELADA = "CANCELADA";
+
+    @Inject
+    private ApiConfig apiConfig;
+
+    @Inject
+    private ProveedorService proveedorService;
+
+    @Inject
+    private ProductoService productoService;
+
+    @Inject
+    private OrdenCompraService ordenCompraService;
+
+    private final Object lock = new Object();
+    private Contadores contadores = new Contadores();
+    // No nulo mientras se reconstruye: los cambios que llegan se repiten sobre el resultado
+    private List<Consumer<Contadores>> cambiosDuranteRecorrido;
+    // Hasta el primer recorrido completo los contadores solo reflejan los eventos recibidos
+    private boolean calculado;
+
+    private volatile Resumen resumen = Resumen.vacio();
+    private volatile long ultimoRecorridoMillis;
+    private final AtomicLong actualizacionesIncrementales = new AtomicLong();
+    private ScheduledExecutorService tareas;
+
+    @PostConstruct
+    public void init() {
+        long intervalo = apiConfig.leerLong("dashboard.refresh", 300000);
+        tareas = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("estadisticas").factory());
+        tareas.scheduleWithFixedDelay(this::recalcular, 0, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        tareas.shutdownNow();
+    }
+
+    /**
+     * Fuerza la creación del bean al arrancar para que el primer recuento no lo pague una petición.
+     */
+    void alIniciar(@Observes @Initialized(ApplicationScoped.class) Object evento) {
+        log.debug("Estadísticas del dashboard programadas");
+    }
+
+    public Resumen getResumen() {
+        return resumen;
+    }
+
+    void recalcular() {
+        long inicio = System.nanoTime();
+        synchronized (lock) {
+            cambiosDuranteRecorrido = new ArrayList<>();
+        }
+        Contadores nuevos = new Contadores();
+        try {
+            // Una página en memoria a la vez; de cada fila solo se retiene su contribución
+            try (Stream<ProveedorDTO> s = proveedorService.recorrer(Map.of())) {
+                s.forEach(p -> nuevos.ponerProveedor(p.getId(), p.getActivo()));
+            }
+            try (Stream<ProductoDTO> s = productoService.recorrer(Map.of())) {
+                s.forEach(p -> nuevos.ponerProducto(p.getId(), p.getActivo()));
+            }
+            try (Stream<OrdenCompraDTO> s = ordenCompraService.recorrer(Map.of())) {
+                s.forEach(o -> nuevos.ponerOrden(o.getId(), o.getEstado(), o.getTotal()));
+            }
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                cambiosDuranteRecorrido = null;
+            }
+            // Se conservan los contadores anteriores (ajustados por eventos) hasta el próximo intento
+            log.warn("No se pudieron recalcular las estadísticas del dashboard: {}", e.getMessage());
+            return;
+        }
+        synchronized (lock) {
+            cambiosDuranteRecorrido.forEach(c -> c.accept(nuevos));
+            cambiosDuranteRecorrido = null;
+            contadores = nuevos;
+            calculado = true;
+            publicar();
+        }
+        ultimoRecorridoMillis = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("Estadísticas del dashboard recalculadas en {} ms", ultimoRecorridoMillis);
+    }
+
+    void alModificarCatalogo(@Observes CatalogoModificadoEvent evento) {
+        boolean eliminar = evento.getOperacion() == CatalogoModificadoEvent.Operacion.ELIMINAR;
+        Long id = evento.getId();
+        switch (evento.getCatalogo()) {
+            case PROVEEDOR -> {
+                if (eliminar) {
+                    aplicar(c -> c.quitarProveedor(id));
+                } else if (evento.getEntidad() instanceof ProveedorDTO p) {
+                    aplicar(c -> c.ponerProveedor(p.getId(), p.getActivo()));
+                }
+            }
+            case PRODUCTO -> {
+                if (eliminar) {
+                    aplicar(c -> c.quitarProducto(id));
+                } else if (evento.getEntidad() instanceof ProductoDTO p) {
+                    aplicar(c -> c.ponerProducto(p.getId(), p.getActivo()));
+                } else if (id != null) {
+                    // El cambio de estado de producto no trae la entidad: se relee fuera del hilo de la petición
+                    releer(id, () -> {
+                        ProductoDTO p = productoService.buscarPorId(id);
+                        if (p != null) {
+                            aplicar(c -> c.ponerProducto(p.getId(), p.getActivo()));
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    void alModificarOrden(@Observes OrdenModificadaEvent evento) {
+        Long id = evento.getId();
+        switch (evento.getOperacion()) {
+            case ELIMINAR -> aplicar(c -> c.quitarOrden(id));
+            case CAMBIAR_ESTADO -> aplicar(c -> c.cambiarEstadoOrden(id, evento.getEstado()));
+            default -> {
+                OrdenCompraDTO o = evento.getOrden();
+                if (o != null) {
+                    aplicar(c -> c.ponerOrden(o.getId(), o.getEstado(), o.getTotal()));
+                } else if (id != null) {
+                    releer(id, () -> {
+                        OrdenCompraDTO actual = ordenCompraService.buscarPorId(id);
+                        if (actual != null) {
+                            aplicar(c -> c.ponerOrden(actual.getId(), actual.getEstado(), actual.getTotal()));
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    private void aplicar(Consumer<Contadores> cambio) {
+        synchronized (lock) {
+            cambio.accept(contadores);
+            if (cambiosDuranteRecorrido != null) {
+                cambiosDuranteRecorrido.add(cambio);
+            }
+            publicar();
+        }
+        actualizacionesIncrementales.incrementAndGet();
+    }
+
+    private void releer(Long id, Runnable lectura) {
+        tareas.execute(() -> {
+            try {
+                lectura.run();
+            } catch (RuntimeException e) {
+                log.warn("No se pudieron actualizar las estadísticas para id={}: {}", id, e.getMessage());
+            }
+        });
+    }
+
+    /** Debe llamarse con el lock tomado. */
+    private void publicar() {
+        resumen = contadores.resumen(calculado);
+    }
+
+    @Override
+    public void exportar(MetricsWriter w) {
+        Resumen r = resumen;
+        w.gauge("gp_dashboard_ready", "1 si las estadísticas del dashboard están calculadas", r.isListo() ? 1 : 0);
+        w.gauge("gp_dashboard_refresh_seconds", "Duración del último recálculo completo de estadísticas",
+                ultimoRecorridoMillis / 1000d);
+        w.counter("gp_dashboard_incremental_updates_total", "Ajustes de estadísticas aplicados desde eventos",
+                actualizacionesIncrementales.get());
+    }
+
+    /**
+     * Contribución de cada entidad y contadores acumulados. No es seguro entre hilos: se usa con el lock tomado
+     * o, durante un recorrido, desde un único hilo.
+     */
+    private static final class Contadores {
+
+        private record Orden(String estado, BigDecimal total) {
+        }
+
+        private final Map<Long, Boolean> proveedores = new HashMap<>();
+        private final Map<Long, Boolean> productos = new HashMap<>();
+        private final Map<Long, Orden> ordenes = new HashMap<>();
+        private long proveedoresActivos;
+        private long productosActivos;
+        private final Map<String, Long> ordenesPorEstado = new TreeMap<>();
+        private final Map<String, BigDecimal> importePorEstado = new TreeMap<>();
+
+        void ponerProveedor(Long id, Boolean activo) {
+            proveedoresActivos += delta(proveedores.put(id, Boolean.TRUE.equals(activo)), activo);
+        }
+
+        void quitarProveedor(Long id) {
+            proveedoresActivos -= Boolean.TRUE.equals(proveedores.remove(id)) ? 1 : 0;
+        }
+
+        void ponerProducto(Long id, Boolean activo) {
+            productosActivos += delta(productos.put(id, Boolean.TRUE.equals(activo)), activo);
+        }
+
+        void quitarProducto(Long id) {
+            productosActivos -= Boolean.TRUE.equals(productos.remove(id)) ? 1 : 0;
+        }
+
+        private static int delta(Boolean anterior, Boolean actual) {
+            return (Boolean.TRUE.equals(actual) ? 1 : 0) - (Boolean.TRUE.equals(anterior) ? 1 : 0);
+        }
+
+        void ponerOrden(Long id, String estado, BigDecimal total) {
+            if (id == null) {
+                return;
+            }
+            Orden nueva = new Orden(estado != null ? estado : "SIN_ESTADO", total != null ? total : BigDecimal.ZERO);
+            sumar(ordenes.put(id, nueva), -1);
+            sumar(nueva, 1);
+        }
+
+        void cambiarEstadoOrden(Long id, String estado) {
+            Orden actual = ordenes.get(id);
+            if (actual != null && estado != null && !Objects.equals(actual.estado(), estado)) {
+                ponerOrden(id, estado, actual.total());
+            }
+        }
+
+        void quitarOrden(Long id) {
+            sumar(ordenes.remove(id), -1);
+        }
+
+        private void sumar(Orden orden, int signo) {
+            if (orden == null) {
+                return;
+            }
+            ordenesPorEstado.merge(orden.estado(), (long) signo, Long::sum);
+            BigDecimal importe = signo > 0 ? orden.total() : orden.total().negate();
+            importePorEstado.merge(orden.estado(), importe, BigDecimal::add);
+        }
+
+        Resumen resumen(boolean listo) {
+            BigDecimal comprometido = importePorEstado.entrySet().stream()
+                    .filter(e -> !CANCELADA.equals(e.getKey()))
+                    .map(Map.Entry::getValue)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            List<FilaEstado> filas = ordenesPorEstado.entrySet().stream()
+                    .filter(e -> e.getValue() > 0)
+                    .map(e -> new FilaEstado(e.getKey(), e.getValue(),
+                            importePorEstado.getOrDefault(e.getKey(), BigDecimal.ZERO)))
+                    .toList();
+            return new Resumen(listo, LocalDateTime.now(), proveedores.size(), proveedoresActivos,
+                    productos.size(), productosActivos, ordenes.size(), filas, comprometido);
+        }
+    }
+
+    /**
+     * Foto de los contadores en un instante. Con getters para que la lea EL.
+     */
+    @Value
+    public static class Resumen {
+
+        boolean listo;
+        LocalDateTime actualizado;
+        long proveedores;
+        long proveedoresActivos;
+        long productos;
+        long productosActivos;
+        long ordenes;
+        List<FilaEstado> ordenesPorEstado;
+        BigDecimal importeComprometido;
+
+        static Resumen vacio() {
+            return new Resumen(false, null, 0, 0, 0, 0, 0, List.of(), BigDecimal.ZERO);
+        }
+
+        public long ordenesEn(String estado) {
+            return ordenesPorEstado.stream()
+                    .filter(f -> f.getEstado().equals(estado))
+                    .mapToLong(FilaEstado::getCantidad)
+                    .sum();
+        }
+
+        public long getOrdenesPendientes() {
+            return ordenesEn("PENDIENTE");
+        }
+    }
+
+    @Value
+    public static class FilaEstado {
+        String estado;
+        long cantidad;
+        BigDecimal importe;
+    }
+}
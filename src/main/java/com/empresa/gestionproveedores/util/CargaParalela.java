@@ -0,0 +1,147 @@
+package com.empresa.gestionproveedores.util;
+
+import com.empresa.gestionproveedores.logging.ContextoLog;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta en paralelo, sobre hilos virtuales, un grupo de cargas independientes
+ * con un plazo común. Cada tarea declara un valor de respaldo que se usa si falla
+ * o si no termina antes del plazo, de modo que un fallo parcial no impide
+ * mostrar el resto de la página.
+ *
+ * <pre>
+ * CargaParalela carga = new CargaParalela();
+ * CargaParalela.Tarea&lt;List&lt;ProveedorDTO&gt;&gt; proveedores =
+ *         carga.lanzar("proveedores", proveedorService::listarActivos, ArrayList::new);
+ * carga.esperar();
+ * lista = proveedores.resultado();
+ * </pre>
+ *
+ * Las tareas no deben tocar FacesContext: solo se puede usar en el hilo de la petición.
+ */
+@Slf4j
+public class CargaParalela {
+
+    public static final Duration PLAZO_POR_DEFECTO = Duration.ofSeconds(10);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Tarea<?>> tareas = new ArrayList<>();
+    private final List<String> fallidas = new ArrayList<>();
+    private final long limiteNanos;
+    private boolean terminada;
+
+    public CargaParalela() {
+        this(PLAZO_POR_DEFECTO);
+    }
+
+    public CargaParalela(Duration plazo) {
+        this.limiteNanos = System.nanoTime() + plazo.toNanos();
+    }
+
+    /**
+     * Lanza una tarea de inmediato. El respaldo se evalúa solo si la tarea falla.
+     */
+    public <T> Tarea<T> lanzar(String nombre, Callable<T> carga, Supplier<T> respaldo) {
+        if (terminada) {
+            throw new IllegalStateException("La carga ya fue esperada");
+        }
+        Tarea<T> tarea = new Tarea<>(nombre, executor.submit(ContextoLog.conMdc(carga)), respaldo);
+        tareas.add(tarea);
+        return tarea;
+    }
+
+    /**
+     * Espera a todas las tareas hasta el plazo común. Las que no terminan a
+     * tiempo se cancelan y quedan con su valor de respaldo.
+     *
+     * @return true si todas las tareas terminaron correctamente
+     */
+    public boolean esperar() {
+        if (terminada) {
+            return fallidas.isEmpty();
+        }
+        terminada = true;
+        try {
+            for (Tarea<?> tarea : tareas) {
+                tarea.resolver(limiteNanos - System.nanoTime());
+                if (tarea.isFallida()) {
+                    fallidas.add(tarea.nombre);
+                }
+            }
+        } finally {
+            // No se espera a las tareas canceladas: una E/S bloqueada no atiende la interrupción
+            executor.shutdownNow();
+        }
+        return fallidas.isEmpty();
+    }
+
+    public List<String> getFallidas() {
+        return Collections.unmodifiableList(fallidas);
+    }
+
+    public static final class Tarea<T> {
+
+        private final String nombre;
+        private final Future<T> futuro;
+        private final Supplier<T> respaldo;
+        private T valor;
+        private Throwable error;
+        private boolean resuelta;
+
+        private Tarea(String nombre, Future<T> futuro, Supplier<T> respaldo) {
+            this.nombre = nombre;
+            this.futuro = futuro;
+            this.respaldo = respaldo;
+        }
+
+        private void resolver(long restanteNanos) {
+            try {
+                valor = futuro.get(Math.max(restanteNanos, 0), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                futuro.cancel(true);
+                error = e;
+                log.warn("La carga de {} superó el plazo y fue cancelada", nombre);
+            } catch (ExecutionException e) {
+                error = e.getCause();
+                log.error("Error en la carga de {}", nombre, error);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futuro.cancel(true);
+                error = e;
+            }
+            if (error != null) {
+                valor = respaldo.get();
+            }
+            resuelta = true;
+        }
+
+        /**
+         * Valor cargado, o el de respaldo si la tarea falló o expiró.
+         */
+        public T resultado() {
+            if (!resuelta) {
+                throw new IllegalStateException("Debe llamar a esperar() antes de leer " + nombre);
+            }
+            return valor;
+        }
+
+        public boolean isFallida() {
+            return error != null;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+    }
+}
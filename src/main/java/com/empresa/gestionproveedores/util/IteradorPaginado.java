@@ -0,0 +1,111 @@
+package com.empresa.gestionproveedores.util;
+
+import com.empresa.gestionproveedores.dto.ConsultaPaginada;
+import com.empresa.gestionproveedores.dto.PaginaDTO;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Recorre todas las filas de un endpoint paginado pidiendo la página siguiente
+ * solo cuando se agota la actual, de modo que en memoria hay como mucho una página.
+ * <ul>
+ *   <li>{@link #porDesplazamiento}: page=0,1,2... Sencillo, pero si se insertan o
+ *       borran filas durante el recorrido puede saltarse o repetir alguna.</li>
+ *   <li>{@link #porClave}: cada página empieza después del último id leído. Estable
+ *       frente a escrituras concurrentes y sin coste creciente en el backend.</li>
+ * </ul>
+ *
+ * <pre>
+ * ordenCompraService.recorrer(Map.of("estado", "PENDIENTE")).forEach(exportador::escribir);
+ * </pre>
+ */
+public class IteradorPaginado<T> implements Iterator<T> {
+
+    @FunctionalInterface
+    public interface Fuente<T> {
+        PaginaDTO<T> cargar(ConsultaPaginada consulta);
+    }
+
+    private final Fuente<T> fuente;
+    private final Function<T, Long> clave;
+    private ConsultaPaginada consulta;
+    private Iterator<T> actual = Collections.emptyIterator();
+    private boolean agotado;
+    private int paginasLeidas;
+
+    private IteradorPaginado(Fuente<T> fuente, ConsultaPaginada inicial, Function<T, Long> clave) {
+        this.fuente = fuente;
+        this.consulta = inicial;
+        this.clave = clave;
+    }
+
+    public static <T> IteradorPaginado<T> porDesplazamiento(Fuente<T> fuente, ConsultaPaginada inicial) {
+        return new IteradorPaginado<>(fuente, inicial.toBuilder().build(), null);
+    }
+
+    /**
+     * El orden de la consulta se sustituye por id ascendente, que es lo que da sentido al cursor.
+     */
+    public static <T> IteradorPaginado<T> porClave(Fuente<T> fuente, ConsultaPaginada inicial,
+                                                   Function<T, Long> clave) {
+        ConsultaPaginada consulta = inicial.toBuilder().pagina(0).orden("id").descendente(false).build();
+        return new IteradorPaginado<>(fuente, consulta, clave);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!actual.hasNext() && !agotado) {
+            cargarSiguiente();
+        }
+        return actual.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return actual.next();
+    }
+
+    private void cargarSiguiente() {
+        PaginaDTO<T> pagina = fuente.cargar(consulta);
+        paginasLeidas++;
+        List<T> filas = pagina.getContent() != null ? pagina.getContent() : List.of();
+        if (filas.isEmpty()) {
+            agotado = true;
+            return;
+        }
+        // El servicio puede haber recortado el tamaño pedido al máximo configurado
+        int tamanio = pagina.getSize() > 0 ? pagina.getSize() : consulta.getTamanio();
+        if (clave == null) {
+            agotado = pagina.getTotalPages() > 0
+                    ? pagina.getNumber() + 1 >= pagina.getTotalPages()
+                    : filas.size() < tamanio;
+            consulta = consulta.toBuilder().pagina(consulta.getPagina() + 1).build();
+        } else {
+            agotado = filas.size() < tamanio;
+            consulta = consulta.toBuilder().despuesDe(clave.apply(filas.get(filas.size() - 1))).build();
+        }
+        actual = filas.iterator();
+    }
+
+    public int getPaginasLeidas() {
+        return paginasLeidas;
+    }
+
+    /**
+     * Vista perezosa como Stream; las páginas se piden a medida que se consume.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false);
+    }
+}
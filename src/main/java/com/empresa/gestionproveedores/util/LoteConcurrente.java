@@ -0,0 +1,138 @@
+package com.empresa.gestionproveedores.util;
+
+import com.empresa.gestionproveedores.logging.ContextoLog;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Aplica una misma operación a varios elementos (p. ej. activar los productos
+ * seleccionados) sobre hilos virtuales, con como mucho {@code maxEnCurso}
+ * llamadas a la vez para no agotar el compartimento del grupo en el backend.
+ * Devuelve un resultado por elemento, en el orden recibido: un fallo no
+ * detiene el resto del lote.
+ *
+ * <pre>
+ * List&lt;LoteConcurrente.Resultado&lt;ProductoDTO&gt;&gt; r = new LoteConcurrente(4)
+ *         .ejecutar(seleccionados, ProductoDTO::getNombre, p -&gt; productoService.eliminar(p.getId()));
+ * </pre>
+ *
+ * Como CargaParalela, la operación no debe tocar FacesContext.
+ */
+@Slf4j
+public class LoteConcurrente {
+
+    public static final Duration PLAZO_POR_DEFECTO = Duration.ofSeconds(60);
+
+    @FunctionalInterface
+    public interface Operacion<T> {
+        void aplicar(T elemento) throws Exception;
+    }
+
+    private final int maxEnCurso;
+    private final Duration plazo;
+
+    public LoteConcurrente(int maxEnCurso) {
+        this(maxEnCurso, PLAZO_POR_DEFECTO);
+    }
+
+    public LoteConcurrente(int maxEnCurso, Duration plazo) {
+        this.maxEnCurso = Math.max(1, maxEnCurso);
+        this.plazo = plazo;
+    }
+
+    /**
+     * Ejecuta la operación sobre cada elemento. Los que no terminan antes del
+     * plazo común se cancelan y se informan como fallidos.
+     *
+     * @param etiqueta texto con el que se identifica cada elemento en el resultado
+     */
+    public <T> List<Resultado<T>> ejecutar(List<T> elementos, Function<T, String> etiqueta,
+                                           Operacion<T> operacion) {
+        long limiteNanos = System.nanoTime() + plazo.toNanos();
+        Semaphore ventana = new Semaphore(maxEnCurso);
+        List<Future<?>> futuros = new ArrayList<>(elementos.size());
+        List<Resultado<T>> resultados = new ArrayList<>(elementos.size());
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            try {
+                for (T elemento : elementos) {
+                    // Se espera turno antes de lanzar: nunca hay más de maxEnCurso en vuelo
+                    if (!ventana.tryAcquire(Math.max(limiteNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS)) {
+                        break;
+                    }
+                    futuros.add(executor.submit(ContextoLog.conMdc(() -> {
+                        try {
+                            operacion.aplicar(elemento);
+                            return null;
+                        } finally {
+                            ventana.release();
+                        }
+                    })));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (int i = 0; i < elementos.size(); i++) {
+                T elemento = elementos.get(i);
+                String texto = etiqueta.apply(elemento);
+                if (i >= futuros.size()) {
+                    resultados.add(new Resultado<>(elemento, texto, false, "No enviado: se agotó el plazo"));
+                    continue;
+                }
+                resultados.add(resolver(futuros.get(i), elemento, texto, limiteNanos));
+            }
+        } finally {
+            // Las canceladas pueden seguir bloqueadas en E/S: no se espera a que terminen
+            executor.shutdownNow();
+        }
+        long fallidos = resultados.stream().filter(r -> !r.isExito()).count();
+        if (fallidos > 0) {
+            log.warn("Lote de {} elementos con {} fallos", elementos.size(), fallidos);
+        }
+        return resultados;
+    }
+
+    private static <T> Resultado<T> resolver(Future<?> futuro, T elemento, String texto, long limiteNanos) {
+        try {
+            futuro.get(Math.max(limiteNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            return new Resultado<>(elemento, texto, true, null);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            return new Resultado<>(elemento, texto, false, "Sin respuesta en el plazo");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            log.debug("Fallo en el lote para {}", texto, causa);
+            return new Resultado<>(elemento, texto, false, causa.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futuro.cancel(true);
+            return new Resultado<>(elemento, texto, false, "Interrumpido");
+        }
+    }
+
+    /**
+     * Resultado de un elemento del lote. Con getters para mostrarlo desde EL.
+     */
+    @Value
+    public static class Resultado<T> implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        T elemento;
+        String etiqueta;
+        boolean exito;
+        String error;
+    }
+}
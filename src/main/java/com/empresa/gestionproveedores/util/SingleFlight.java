@@ -0,0 +1,70 @@
+package com.empresa.gestionproveedores.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Agrupa llamadas idénticas concurrentes: mientras una carga para una clave
+ * está en curso, los demás llamadores con la misma clave esperan ese mismo
+ * resultado en lugar de lanzar otra. Al terminar la carga la clave se libera,
+ * de modo que no actúa como caché.
+ */
+public class SingleFlight<K, V> {
+
+    @FunctionalInterface
+    public interface Carga<V> {
+        V cargar() throws IOException;
+    }
+
+    /**
+     * @param valor      resultado de la carga
+     * @param compartido true si el llamador se unió a una carga lanzada por otro hilo
+     */
+    public record Resultado<V>(V valor, boolean compartido) {
+    }
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> enCurso = new ConcurrentHashMap<>();
+
+    public Resultado<V> ejecutar(K clave, Carga<V> carga) throws IOException {
+        CompletableFuture<V> propio = new CompletableFuture<>();
+        CompletableFuture<V> existente = enCurso.putIfAbsent(clave, propio);
+        if (existente != null) {
+            return new Resultado<>(esperar(existente), true);
+        }
+        try {
+            V valor = carga.cargar();
+            propio.complete(valor);
+            return new Resultado<>(valor, false);
+        } catch (IOException | RuntimeException | Error e) {
+            propio.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propio);
+        }
+    }
+
+    public int getEnCurso() {
+        return enCurso.size();
+    }
+
+    private V esperar(CompletableFuture<V> futuro) throws IOException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando una petición compartida");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException io) {
+                throw new IOException(io.getMessage(), io);
+            }
+            if (causa instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException(causa);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.empresa.gestionproveedores.util;
+
+import com.empresa.gestionproveedores.dto.ProductoDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Reglas que debe cumplir un producto antes de enviarlo al backend. Las
+ * comparten el formulario de productos y la importación desde CSV para que
+ * una fila aceptada en un sitio lo sea también en el otro.
+ */
+public final class ValidadorProducto {
+
+    private static final BigDecimal PRECIO_MINIMO = BigDecimal.valueOf(0.01);
+
+    private ValidadorProducto() {
+    }
+
+    /**
+     * @return el mensaje de la primera regla incumplida, o null si el producto es válido
+     */
+    public static String validar(ProductoDTO p) {
+        if (p.getCodigo() == null || p.getCodigo().isBlank()) {
+            return "El código es obligatorio";
+        }
+        if (p.getNombre() == null || p.getNombre().isBlank()) {
+            return "El nombre es obligatorio";
+        }
+        if (p.getUnidadMedida() == null || p.getUnidadMedida().isBlank()) {
+            return "La unidad de medida es obligatoria";
+        }
+        if (p.getPrecio() == null || p.getPrecio().compareTo(PRECIO_MINIMO) < 0) {
+            return "El precio debe ser mayor a 0";
+        }
+        if (p.getProveedorId() == null) {
+            return "Debe seleccionar un proveedor";
+        }
+        return null;
+    }
+}